@@ -0,0 +1,24 @@
+package mybatis.benchmark;
+
+import mybatis.annotations.Param;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 类名称: BenchmarkMapper
+ * 功能描述: 基准测试用的mapper，语句由Fixtures直接构建，不读取xml
+ * 日期:  2026/10/19 02:30
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public interface BenchmarkMapper {
+
+    Map<String, Object> selectById(@Param ("id") long id);
+
+    List<Map<String, Object>> selectByName(@Param ("name") String name, @Param ("limit") int limit);
+
+    int insert(@Param ("id") long id, @Param ("name") String name, @Param ("email") String email);
+
+}
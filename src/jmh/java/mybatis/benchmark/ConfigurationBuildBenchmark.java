@@ -0,0 +1,84 @@
+package mybatis.benchmark;
+
+import mybatis.bingding.Configuration;
+import mybatis.bingding.SqlSessionFactoryBuilder;
+import mybatis.parsing.XNode;
+import mybatis.parsing.XPathParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xml.sax.InputSource;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 类名称: ConfigurationBuildBenchmark
+ * 功能描述: 1、100、1000条语句的mapper文件，XPathParser解析出语句节点的耗时，以及SqlSessionFactoryBuilder完整构建的耗时
+ * 日期:  2026/10/19 03:00
+ *
+ * mapper文件在Setup中生成到临时目录，构建时按file:读取
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+@State (Scope.Benchmark)
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.MICROSECONDS)
+@Warmup (iterations = 3, time = 2)
+@Measurement (iterations = 5, time = 2)
+@Fork (1)
+public class ConfigurationBuildBenchmark {
+
+    @Param ({"1", "100", "1000"})
+    public int statements;
+
+    private String xml;
+
+    private Path mapperFile;
+
+    private List<String> mapperResources;
+
+    // 单线程构建，结果不受核数影响
+    private final SqlSessionFactoryBuilder builder = new SqlSessionFactoryBuilder (1);
+
+    @Setup
+    public void setup() throws IOException {
+        xml = Fixtures.mapperXml (statements);
+        mapperFile = Files.createTempFile ("mybatis-benchmark-", ".xml");
+        Files.write (mapperFile, xml.getBytes (StandardCharsets.UTF_8));
+        mapperResources = Collections.singletonList (mapperFile.toUri ().toString ());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists (mapperFile);
+    }
+
+    @Benchmark
+    public List<XNode> xpathParser() {
+        XPathParser parser = new XPathParser (new StringReader (xml), false, null, (publicId, systemId) -> new InputSource (new StringReader ("")));
+        return parser.evalNode ("/mapper").evalNodes ("select|insert");
+    }
+
+    @Benchmark
+    public Configuration sqlSessionFactoryBuilder() {
+        Configuration configuration = new Configuration ();
+        return builder.buider (configuration, null, mapperResources).getConfiguration ();
+    }
+}
@@ -0,0 +1,79 @@
+package mybatis.benchmark;
+
+import mybatis.bingding.Configuration;
+import mybatis.bingding.MapperMode;
+import mybatis.bingding.MapperProxyFactroy;
+import mybatis.bingding.SqlSession;
+import mybatis.bingding.SqlSessionFactory;
+import mybatis.executor.ExecutorType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 类名称: EndToEndBenchmark
+ * 功能描述: 完整的一次mapper调用：打开会话、创建mapper、执行、映射结果、关闭会话，JDBC层使用NoOpJdbc
+ * 日期:  2026/10/19 03:05
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+@State (Scope.Benchmark)
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.NANOSECONDS)
+@Warmup (iterations = 3, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (1)
+public class EndToEndBenchmark {
+
+    @Param ({"SIMPLE", "REUSE"})
+    public ExecutorType executorType;
+
+    @Param ({"JDK_PROXY", "GENERATED_CLASS"})
+    public MapperMode mapperMode;
+
+    private SqlSessionFactory sqlSessionFactory;
+
+    private MapperProxyFactroy<BenchmarkMapper> mapperFactory;
+
+    private long id;
+
+    @Setup
+    public void setup() {
+        Configuration configuration = Fixtures.configuration (mapperMode);
+        configuration.setDefaultExecutorType (executorType);
+        sqlSessionFactory = new SqlSessionFactory (configuration, NoOpJdbc.dataSource ());
+        mapperFactory = new MapperProxyFactroy<> (BenchmarkMapper.class, configuration);
+    }
+
+    @TearDown
+    public void tearDown() {
+        sqlSessionFactory.close ();
+    }
+
+    @Benchmark
+    public Map<String, Object> selectOne() {
+        try (SqlSession session = sqlSessionFactory.openSession ()) {
+            return mapperFactory.newInstance (session).selectById (++id);
+        }
+    }
+
+    @Benchmark
+    public int insert() {
+        try (SqlSession session = sqlSessionFactory.openSession ()) {
+            return mapperFactory.newInstance (session).insert (++id, "name", "name@example.com");
+        }
+    }
+}
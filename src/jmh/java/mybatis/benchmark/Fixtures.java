@@ -0,0 +1,73 @@
+package mybatis.benchmark;
+
+import mybatis.bingding.Configuration;
+import mybatis.bingding.MappedStatement;
+import mybatis.bingding.MapperMode;
+
+import java.util.Properties;
+
+/**
+ * 类名称: Fixtures
+ * 功能描述: 基准测试共用的配置和mapper文件
+ * 日期:  2026/10/19 02:35
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+final class Fixtures {
+
+    static final String NAMESPACE = BenchmarkMapper.class.getName ();
+
+    // 接近业务代码的语句：多个#{}参数、带jdbcType、${}表名
+    static final String REALISTIC_SQL = "select u.id, u.name, u.email, u.created_at, o.total "
+            + "from ${schema}.users u left join ${schema}.orders o on o.user_id = u.id "
+            + "where u.tenant_id = #{tenantId} and u.status = #{status,jdbcType=VARCHAR} "
+            + "and u.created_at >= #{from,jdbcType=TIMESTAMP} and u.created_at < #{to,jdbcType=TIMESTAMP} "
+            + "and (u.name like #{pattern} or u.email like #{pattern}) "
+            + "order by u.created_at desc limit #{limit} offset #{offset}";
+
+    private Fixtures() {
+    }
+
+    // BenchmarkMapper的语句，statementCache等使用默认值
+    static Configuration configuration(MapperMode mapperMode) {
+        Configuration configuration = new Configuration ();
+        configuration.setMapperMode (mapperMode);
+        configuration.addMappedStatement (statement (configuration, "select", "selectById",
+                "select id, name, email from users where id = #{id}"));
+        configuration.addMappedStatement (statement (configuration, "select", "selectByName",
+                "select id, name, email from users where name = #{name} limit #{limit}"));
+        configuration.addMappedStatement (statement (configuration, "insert", "insert",
+                "insert into users (id, name, email) values (#{id}, #{name}, #{email,jdbcType=VARCHAR})"));
+        configuration.freeze ();
+        return configuration;
+    }
+
+    private static MappedStatement statement(Configuration configuration, String element, String id, String sql) {
+        Properties attributes = new Properties ();
+        attributes.setProperty ("id", id);
+        return configuration.buildMappedStatement (element, NAMESPACE, attributes, sql, "Fixtures");
+    }
+
+    // statements条语句的mapper文件，每10条中有一条带<where>和<if>的动态语句
+    static String mapperXml(int statements) {
+        StringBuilder xml = new StringBuilder (statements * 160 + 128);
+        xml.append ("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n");
+        xml.append ("<mapper namespace=\"mybatis.benchmark.Generated\">\n");
+        for (int i = 0; i < statements; i++) {
+            if (i % 10 == 9) {
+                xml.append ("  <select id=\"find").append (i).append ("\">select id, name from t").append (i)
+                        .append ("<where><if test=\"name != null\">and name = #{name}</if>")
+                        .append ("<if test=\"id != null\">and id = #{id}</if></where></select>\n");
+            } else if (i % 2 == 0) {
+                xml.append ("  <select id=\"select").append (i).append ("\" fetchSize=\"100\">select id, name, email from t")
+                        .append (i).append (" where id = #{id} and name = #{name,jdbcType=VARCHAR}</select>\n");
+            } else {
+                xml.append ("  <insert id=\"insert").append (i).append ("\">insert into t").append (i)
+                        .append (" (id, name, email) values (#{id}, #{name}, #{email})</insert>\n");
+            }
+        }
+        xml.append ("</mapper>\n");
+        return xml.toString ();
+    }
+}
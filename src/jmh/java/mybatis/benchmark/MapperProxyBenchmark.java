@@ -0,0 +1,71 @@
+package mybatis.benchmark;
+
+import mybatis.bingding.Configuration;
+import mybatis.bingding.MapperMode;
+import mybatis.bingding.MapperProxyFactroy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 类名称: MapperProxyBenchmark
+ * 功能描述: mapper方法的分派开销：动态代理或生成类 -> MapperMethod -> 参数绑定，SqlSession不访问数据库
+ * 日期:  2026/10/19 02:50
+ *
+ * metrics为false时关闭语句统计，和true对比得到统计的开销
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+@State (Scope.Benchmark)
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.NANOSECONDS)
+@Warmup (iterations = 3, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (1)
+public class MapperProxyBenchmark {
+
+    @Param ({"JDK_PROXY", "GENERATED_CLASS"})
+    public MapperMode mapperMode;
+
+    @Param ({"true", "false"})
+    public boolean metrics;
+
+    private BenchmarkMapper mapper;
+
+    private long id;
+
+    @Setup
+    public void setup() {
+        Configuration configuration = Fixtures.configuration (mapperMode);
+        configuration.setStatementMetricsEnabled (metrics);
+        mapper = new MapperProxyFactroy<> (BenchmarkMapper.class, configuration).newInstance (new NoOpSqlSession (configuration));
+    }
+
+    @Benchmark
+    public Map<String, Object> selectOne() {
+        return mapper.selectById (++id);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> selectList() {
+        return mapper.selectByName ("name", 10);
+    }
+
+    @Benchmark
+    public int insert() {
+        return mapper.insert (++id, "name", "name@example.com");
+    }
+}
@@ -0,0 +1,134 @@
+package mybatis.benchmark;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Types;
+
+/**
+ * 类名称: NoOpJdbc
+ * 功能描述: 不连接数据库的DataSource，查询固定返回一行(ID, NAME, EMAIL)，更新返回1
+ * 日期:  2026/10/19 02:45
+ *
+ * 执行器没有替换的扩展点，所以在JDBC这一层打桩：SqlSession、执行器、语句缓存、参数设置和结果映射都按真实的路径执行。
+ * 各个JDBC对象都是动态代理，每次JDBC调用多一次反射分派，比真实驱动的开销小得多
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+final class NoOpJdbc {
+
+    private static final String[] COLUMNS = {"ID", "NAME", "EMAIL"};
+
+    private static final int[] TYPES = {Types.BIGINT, Types.VARCHAR, Types.VARCHAR};
+
+    private static final Object[] VALUES = {1L, "name", "name@example.com"};
+
+    private NoOpJdbc() {
+    }
+
+    static DataSource dataSource() {
+        return proxy (DataSource.class, (proxy, method, args) -> {
+            if ("getConnection".equals (method.getName ())) {
+                return connection ();
+            }
+            return defaultValue (method);
+        });
+    }
+
+    private static Connection connection() {
+        boolean[] state = {true, false};
+        return proxy (Connection.class, (proxy, method, args) -> {
+            switch (method.getName ()) {
+                case "prepareStatement":
+                    return statement ();
+                case "getAutoCommit":
+                    return state[0];
+                case "setAutoCommit":
+                    state[0] = (Boolean) args[0];
+                    return null;
+                case "isClosed":
+                    return state[1];
+                case "close":
+                    state[1] = true;
+                    return null;
+                default:
+                    return defaultValue (method);
+            }
+        });
+    }
+
+    private static PreparedStatement statement() {
+        return proxy (PreparedStatement.class, (proxy, method, args) -> {
+            switch (method.getName ()) {
+                case "executeQuery":
+                    return resultSet ();
+                case "executeUpdate":
+                    return 1;
+                case "executeBatch":
+                    return new int[0];
+                default:
+                    return defaultValue (method);
+            }
+        });
+    }
+
+    private static ResultSet resultSet() {
+        int[] cursor = {0};
+        ResultSetMetaData metaData = proxy (ResultSetMetaData.class, (proxy, method, args) -> {
+            switch (method.getName ()) {
+                case "getColumnCount":
+                    return COLUMNS.length;
+                case "getColumnLabel":
+                case "getColumnName":
+                    return COLUMNS[(Integer) args[0] - 1];
+                case "getColumnType":
+                    return TYPES[(Integer) args[0] - 1];
+                case "getColumnClassName":
+                    return VALUES[(Integer) args[0] - 1].getClass ().getName ();
+                default:
+                    return defaultValue (method);
+            }
+        });
+        return proxy (ResultSet.class, (proxy, method, args) -> {
+            switch (method.getName ()) {
+                case "next":
+                    return ++cursor[0] == 1;
+                case "getMetaData":
+                    return metaData;
+                case "getObject":
+                    return VALUES[(Integer) args[0] - 1];
+                case "getLong":
+                    return (Long) VALUES[(Integer) args[0] - 1];
+                case "getString":
+                    return String.valueOf (VALUES[(Integer) args[0] - 1]);
+                default:
+                    return defaultValue (method);
+            }
+        });
+    }
+
+    private static Object defaultValue(Method method) {
+        Class<?> type = method.getReturnType ();
+        if (type == boolean.class) {
+            return false;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type.isPrimitive () && type != void.class) {
+            throw new UnsupportedOperationException (method.toString ());
+        }
+        return null;
+    }
+
+    @SuppressWarnings ("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance (NoOpJdbc.class.getClassLoader (), new Class[]{type}, handler);
+    }
+}
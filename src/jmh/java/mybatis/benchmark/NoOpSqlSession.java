@@ -0,0 +1,103 @@
+package mybatis.benchmark;
+
+import mybatis.bingding.Configuration;
+import mybatis.bingding.MappedStatement;
+import mybatis.bingding.SqlSession;
+import mybatis.cursor.Cursor;
+import mybatis.executor.BatchResult;
+import mybatis.executor.parameter.BoundParameters;
+import mybatis.executor.resultset.RowMapperFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+
+/**
+ * 类名称: NoOpSqlSession
+ * 功能描述: 不访问数据库的SqlSession，返回固定的结果，只测量mapper代理、MapperMethod和参数绑定的开销
+ * 日期:  2026/10/19 02:40
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+final class NoOpSqlSession implements SqlSession {
+
+    private final Configuration configuration;
+
+    private final Object row;
+
+    private final List<Object> rows;
+
+    NoOpSqlSession(Configuration configuration) {
+        this.configuration = configuration;
+        Map<String, Object> row = new HashMap<> ();
+        row.put ("ID", 1L);
+        row.put ("NAME", "name");
+        row.put ("EMAIL", "name@example.com");
+        this.row = row;
+        this.rows = Collections.singletonList (row);
+    }
+
+    @Override
+    public int insert(MappedStatement ms, BoundParameters parameters) {
+        return 1;
+    }
+
+    @Override
+    @SuppressWarnings ("unchecked")
+    public <E> List<E> select(MappedStatement ms, BoundParameters parameters, RowMapperFactory<E> rowMapperFactory) {
+        return (List<E>) rows;
+    }
+
+    @Override
+    @SuppressWarnings ("unchecked")
+    public <T> T selectOne(MappedStatement ms, BoundParameters parameters, RowMapperFactory<T> rowMapperFactory) {
+        return (T) row;
+    }
+
+    @Override
+    public <E> Cursor<E> selectCursor(MappedStatement ms, BoundParameters parameters, RowMapperFactory<E> rowMapperFactory) {
+        throw new UnsupportedOperationException ();
+    }
+
+    @Override
+    public <E> Flow.Publisher<E> selectPublisher(MappedStatement ms, BoundParameters parameters, RowMapperFactory<E> rowMapperFactory) {
+        throw new UnsupportedOperationException ();
+    }
+
+    @Override
+    public <T> CompletableFuture<T> executeAsync(Function<SqlSession, T> statement) {
+        return CompletableFuture.completedFuture (statement.apply (this));
+    }
+
+    @Override
+    public List<BatchResult> flushStatements() {
+        return Collections.emptyList ();
+    }
+
+    @Override
+    public List<BatchResult> commit() {
+        return Collections.emptyList ();
+    }
+
+    @Override
+    public void rollback() {
+    }
+
+    @Override
+    public void clearCache() {
+    }
+
+    @Override
+    public Configuration getConfiguration() {
+        return configuration;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,80 @@
+package mybatis.benchmark;
+
+import mybatis.parsing.GenericTokenParser;
+import mybatis.parsing.PropertyParser;
+import mybatis.parsing.PropertyResolver;
+import mybatis.parsing.TokenHandler;
+import mybatis.parsing.TokenTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 类名称: TokenParserBenchmark
+ * 功能描述: 在接近业务的sql上解析#{}和${}：每次重新扫描的GenericTokenParser、PropertyParser，
+ * 以及预编译的TokenTemplate和缓存的PropertyResolver
+ * 日期:  2026/10/19 02:55
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+@State (Scope.Benchmark)
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.NANOSECONDS)
+@Warmup (iterations = 3, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (1)
+public class TokenParserBenchmark {
+
+    private final TokenHandler placeholder = content -> "?";
+
+    private String sql;
+
+    private Properties variables;
+
+    private GenericTokenParser parameterParser;
+
+    private TokenTemplate parameterTemplate;
+
+    private PropertyResolver resolver;
+
+    @Setup
+    public void setup() {
+        sql = Fixtures.REALISTIC_SQL;
+        variables = new Properties ();
+        variables.setProperty ("schema", "app");
+        parameterParser = new GenericTokenParser ("#{", "}", placeholder);
+        parameterTemplate = parameterParser.compile (sql);
+        resolver = PropertyResolver.of (variables);
+    }
+
+    @Benchmark
+    public String genericTokenParser() {
+        return parameterParser.parse (sql);
+    }
+
+    @Benchmark
+    public String tokenTemplate() {
+        return parameterTemplate.render (placeholder);
+    }
+
+    @Benchmark
+    public String propertyParser() {
+        return PropertyParser.parse (sql, variables);
+    }
+
+    @Benchmark
+    public String propertyResolver() {
+        return resolver.resolve (sql);
+    }
+}
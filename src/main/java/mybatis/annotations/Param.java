@@ -0,0 +1,24 @@
+package mybatis.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 类名称: Param
+ * 功能描述: 指定mapper方法参数在#{}中使用的名字
+ * 日期:  2026/10/18 15:00
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface Param {
+
+    String value();
+
+}
@@ -0,0 +1,217 @@
+package mybatis.bingding;
+
+import mybatis.cursor.Cursor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 类名称: AsyncStatementRunner
+ * 功能描述: 执行返回CompletableFuture的mapper方法。每条语句在执行线程上打开自己的会话（自动提交），
+ * 执行完立即关闭，同时执行的语句个数不超过maxInFlightStatements。返回Flow.Publisher的查询也在这里执行
+ * 日期:  2026/10/18 23:40
+ *
+ * 没有配置asyncExecutor时，JDK21及以上每条语句一个虚拟线程，否则使用maxInFlightStatements个守护线程的线程池
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+final class AsyncStatementRunner {
+
+    private final SqlSessionFactory sqlSessionFactory;
+
+    private final Executor executor;
+
+    // 自己创建的线程池，SqlSessionFactory关闭时一起关闭；用户配置的不关闭
+    private final ExecutorService ownedExecutor;
+
+    private final boolean virtualThreads;
+
+    private final Semaphore permits;
+
+    private final int maxInFlight;
+
+    // 等待许可的task
+    private final Queue<Task> pending = new ConcurrentLinkedQueue<> ();
+
+    // shutdown之后提交和还在等待的task都以RejectedExecutionException结束
+    private volatile boolean closed;
+
+    AsyncStatementRunner(SqlSessionFactory sqlSessionFactory, Executor executor, int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException ("maxInFlightStatements must be positive: " + maxInFlight);
+        }
+        this.sqlSessionFactory = sqlSessionFactory;
+        this.maxInFlight = maxInFlight;
+        this.permits = new Semaphore (maxInFlight);
+        if (executor != null) {
+            this.executor = executor;
+            this.ownedExecutor = null;
+            this.virtualThreads = false;
+        } else {
+            ExecutorService virtual = newVirtualThreadExecutor ();
+            this.virtualThreads = virtual != null;
+            this.ownedExecutor = virtual != null ? virtual : newThreadPool (maxInFlight);
+            this.executor = ownedExecutor;
+        }
+    }
+
+    <T> CompletableFuture<T> submit(Function<SqlSession, T> statement) {
+        CompletableFuture<T> future = new CompletableFuture<> ();
+        acquire (new Task () {
+            @Override
+            public void run() {
+                complete (statement, future);
+            }
+
+            @Override
+            public void reject(RuntimeException e) {
+                future.completeExceptionally (e);
+            }
+        });
+        return future;
+    }
+
+    // 结果逐行推送给订阅者，每个订阅在第一次request时才执行查询，从打开游标到结束一直占用一个许可
+    <T> Flow.Publisher<T> publish(Function<SqlSession, Cursor<T>> query) {
+        return new CursorPublisher<> (this, query);
+    }
+
+    // 会话关闭、许可归还之后才完成future，后续的回调不会占着连接
+    private <T> void complete(Function<SqlSession, T> statement, CompletableFuture<T> future) {
+        T result = null;
+        Throwable failure = null;
+        try (SqlSession session = sqlSessionFactory.openSession ()) {
+            result = statement.apply (session);
+        } catch (Throwable t) {
+            failure = t;
+        } finally {
+            release ();
+        }
+        if (failure != null) {
+            future.completeExceptionally (failure);
+        } else {
+            future.complete (result);
+        }
+    }
+
+    SqlSession openSession() {
+        return sqlSessionFactory.openSession ();
+    }
+
+    // 拿到许可后才把task交给执行器，执行线程不会阻塞在许可上；task结束时必须调用release
+    void acquire(Task task) {
+        if (closed) {
+            task.reject (closedException ());
+            return;
+        }
+        pending.add (task);
+        // 和shutdown交错时，shutdown可能已经清空了等待队列
+        if (closed && pending.remove (task)) {
+            task.reject (closedException ());
+            return;
+        }
+        drainPending ();
+    }
+
+    // 从等待队列中取回还没有拿到许可的task，取回成功时task不会再被执行
+    boolean withdraw(Task task) {
+        return pending.remove (task);
+    }
+
+    void release() {
+        permits.release ();
+        drainPending ();
+    }
+
+    // 已经持有许可的task再次执行
+    void execute(Task task) {
+        try {
+            executor.execute (task);
+        } catch (RejectedExecutionException e) {
+            release ();
+            task.reject (e);
+        }
+    }
+
+    // 先入队再尝试取许可，归还许可后再检查队列，两边交错时不会漏掉等待的task
+    private void drainPending() {
+        while (!pending.isEmpty () && permits.tryAcquire ()) {
+            Task task = pending.poll ();
+            if (task == null) {
+                permits.release ();
+                continue;
+            }
+            try {
+                executor.execute (task);
+            } catch (RejectedExecutionException e) {
+                permits.release ();
+                task.reject (e);
+            }
+        }
+    }
+
+    int getInFlight() {
+        return maxInFlight - permits.availablePermits ();
+    }
+
+    boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    void shutdown() {
+        closed = true;
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown ();
+        }
+        Task task;
+        while ((task = pending.poll ()) != null) {
+            task.reject (closedException ());
+        }
+    }
+
+    private static RejectedExecutionException closedException() {
+        return new RejectedExecutionException ("SqlSessionFactory is closed");
+    }
+
+    // 编译目标是11，通过反射调用Executors.newVirtualThreadPerTaskExecutor；预览版没有启用时也会失败
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method method = Executors.class.getMethod ("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke (null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService newThreadPool(int threads) {
+        AtomicInteger counter = new AtomicInteger ();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor (threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<> (), runnable -> {
+            Thread thread = new Thread (runnable, "mybatis-async-" + counter.incrementAndGet ());
+            thread.setDaemon (true);
+            return thread;
+        });
+        pool.allowCoreThreadTimeOut (true);
+        return pool;
+    }
+
+    // 执行器拒绝执行时（比如SqlSessionFactory已经关闭）先归还许可，再调用reject而不是run
+    interface Task extends Runnable {
+
+        void reject(RuntimeException e);
+    }
+}
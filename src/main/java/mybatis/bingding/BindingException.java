@@ -0,0 +1,30 @@
+package mybatis.bingding;
+
+/**
+ * 类名称: BindingException
+ * 功能描述: mapper接口和MappedStatement绑定时出现的异常
+ * 日期:  2026/10/18 15:02
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class BindingException extends RuntimeException {
+
+    private static final long serialVersionUID = 4300802238789381562L;
+
+    public BindingException() {
+        super ();
+    }
+
+    public BindingException(String message) {
+        super (message);
+    }
+
+    public BindingException(String message, Throwable cause) {
+        super (message, cause);
+    }
+
+    public BindingException(Throwable cause) {
+        super (cause);
+    }
+}
@@ -0,0 +1,30 @@
+package mybatis.bingding;
+
+/**
+ * 类名称: BuilderException
+ * 功能描述: 解析mapper文件、构建Configuration时出现的异常
+ * 日期:  2026/10/18 18:00
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class BuilderException extends RuntimeException {
+
+    private static final long serialVersionUID = -3885164021020443281L;
+
+    public BuilderException() {
+        super ();
+    }
+
+    public BuilderException(String message) {
+        super (message);
+    }
+
+    public BuilderException(String message, Throwable cause) {
+        super (message, cause);
+    }
+
+    public BuilderException(Throwable cause) {
+        super (cause);
+    }
+}
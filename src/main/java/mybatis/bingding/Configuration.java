@@ -1,10 +1,25 @@
 package mybatis.bingding;
 
+import com.google.common.collect.ImmutableMap;
+import mybatis.cache.QueryCache;
+import mybatis.executor.ExecutorType;
+import mybatis.metrics.StatementMetricsRegistry;
 import mybatis.parsing.XNode;
+import mybatis.scripting.ScriptBuilder;
+import mybatis.scripting.ScriptHandler;
+import mybatis.util.Resources;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
 
+import java.sql.Types;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 类名称: Configuration
@@ -17,14 +32,408 @@ import java.util.Map;
 public class Configuration {
 
 
-    // sql语句
-    protected final Map<String, MappedStatement> mappedStatements = new HashMap<> ();
+    // sql语句，构建过程中使用，freeze后清空
+    protected Map<String, MappedStatement> mappedStatements = new HashMap<> ();
+
+    // namespace -> 查询缓存，只有配置了<cache>的namespace才有
+    protected Map<String, QueryCache> caches = new HashMap<> ();
+
+    // freeze后只读的注册表
+    private volatile MappedStatementRegistry registry;
+
+    // 语句没有配置fetchSize/timeout时使用的默认值
+    protected Integer defaultFetchSize;
+
+    protected Integer defaultStatementTimeout;
+
+    protected ExecutorType defaultExecutorType = ExecutorType.REUSE;
+
+    // REUSE模式下每个连接缓存的语句个数
+    protected int statementCacheSize = 64;
+
+    // REUSE模式下保留的空闲连接个数，语句缓存跟随连接保留
+    protected int maxIdleConnections = 8;
+
+    // BATCH模式下缓冲多少条后自动执行一次executeBatch
+    protected int batchSize = 1000;
+
+    // 参数为null并且没有指定jdbcType时setNull使用的类型
+    protected int jdbcTypeForNull = Types.OTHER;
+
+    protected MapperMode mapperMode = MapperMode.JDK_PROXY;
+
+    // 执行返回CompletableFuture的mapper方法，null时JDK21及以上使用虚拟线程，否则使用内部的线程池
+    protected Executor asyncExecutor;
+
+    // 同时执行的异步语句个数上限，每条异步语句占用一个连接
+    protected int maxInFlightStatements = 64;
+
+    protected MapperParserType mapperParserType = MapperParserType.XPATH;
+
+    // MapperMethod记录每条语句的调用次数、行数和耗时分布；每次调用读两次System.nanoTime，
+    // 开销主要取决于时钟，clock source较慢的虚拟机上每次调用超过100ns
+    protected boolean statementMetricsEnabled = true;
+
+    // 每个namespace的统计注册为JMX MBean，默认不注册；开启时要调用SqlSessionFactory.close
+    // 或者getStatementMetrics().unregisterMBeans()注销，否则MBean和这个Configuration一直留在平台MBeanServer中
+    protected boolean registerMetricsMBeans;
+
+    // MBean的ObjectName中区分同一个JVM里的多个Configuration
+    private static final AtomicLong CONFIGURATION_IDS = new AtomicLong ();
+
+    // 第一次创建MapperMethod时创建
+    private volatile StatementMetricsRegistry statementMetrics;
+
+    // 执行耗时超过这个毫秒数的语句写入慢语句日志，小于0时不按耗时记录
+    protected long slowStatementThresholdMillis = 1000L;
+
+    // 没有超过阈值的语句每N次随机记录一次，0表示不采样
+    protected int slowStatementSampleRate;
+
+    // 慢语句日志保留的条数，为0时不记录，也不计时
+    protected int slowStatementLogSize = 256;
+
+    // 语句元素上会用到的属性
+    private static final String[] STATEMENT_ATTRIBUTES = {"id", "fetchSize", "timeout", "resultSetType", "resultType", "route"};
 
     public void addMappedStatements(XNode node,String nameSpace) {
+        addMappedStatement (buildMappedStatement (node, nameSpace, null));
+    }
+
+    // 只读取默认配置，不修改Configuration，可以在多个线程中同时解析
+    public MappedStatement buildMappedStatement(XNode node, String nameSpace, String resource) {
+        Properties attributes = new Properties ();
+        for (String name : STATEMENT_ATTRIBUTES) {
+            String value = node.getStringAttribute (name);
+            if (value != null) {
+                attributes.setProperty (name, value);
+            }
+        }
+        ScriptBuilder script = new ScriptBuilder ();
+        parseScript (node, script);
+        return buildMappedStatement (node.getName (), nameSpace, attributes, script, resource);
+    }
+
+    // 按文档顺序把语句元素内部的文本和动态元素交给script，文本和属性都替换${}
+    private static void parseScript(XNode node, ScriptHandler script) {
+        for (Node child = node.getNode ().getFirstChild (); child != null; child = child.getNextSibling ()) {
+            short type = child.getNodeType ();
+            if (type == Node.TEXT_NODE || type == Node.CDATA_SECTION_NODE) {
+                script.text (node.newXNode (child).getStringBody ());
+            } else if (type == Node.ELEMENT_NODE) {
+                XNode element = node.newXNode (child);
+                Properties attributes = new Properties ();
+                NamedNodeMap attributeNodes = child.getAttributes ();
+                for (int i = 0; i < attributeNodes.getLength (); i++) {
+                    String name = attributeNodes.item (i).getNodeName ();
+                    attributes.setProperty (name, element.getStringAttribute (name));
+                }
+                script.startElement (element.getName (), attributes);
+                parseScript (element, script);
+                script.endElement ();
+            }
+        }
+    }
+
+    // element为select/insert，attributes和body已经替换过${}
+    public MappedStatement buildMappedStatement(String element, String nameSpace, Properties attributes, String body, String resource) {
+        ScriptBuilder script = new ScriptBuilder ();
+        script.text (body);
+        return buildMappedStatement (element, nameSpace, attributes, script, resource);
+    }
+
+    // 没有动态元素时构建时解析#{}，生成预编译的sql和参数列表；否则生成DynamicSqlSource，每次调用时渲染
+    public MappedStatement buildMappedStatement(String element, String nameSpace, Properties attributes, ScriptBuilder script, String resource) {
+        SqlCommandType sqlCommandType = SqlCommandType.valueOf (element.toUpperCase (Locale.ENGLISH));
+        String id = nameSpace + "." + attributes.getProperty ("id");
+        MappedStatement.Builder builder;
+        try {
+            if (script.isDynamic ()) {
+                builder = new MappedStatement.Builder (id, sqlCommandType, null)
+                        .dynamicSqlSource (script.build ());
+            } else {
+                SqlSourceBuilder sqlSource = new SqlSourceBuilder (script.getText ());
+                builder = new MappedStatement.Builder (id, sqlCommandType, sqlSource.getSql ())
+                        .parameterMappings (sqlSource.getParameterMappings ());
+            }
+        } catch (BuilderException e) {
+            throw new BuilderException ("Error building statement '" + id + "' in " + resource + ". Cause: " + e.getMessage (), e);
+        }
+        String resultSetType = attributes.getProperty ("resultSetType");
+        StatementRoute route = route (id, sqlCommandType, attributes.getProperty ("route"), resource);
+        return builder
+                .resource (resource)
+                .fetchSize (intAttribute (attributes, "fetchSize", defaultFetchSize))
+                .timeout (intAttribute (attributes, "timeout", defaultStatementTimeout))
+                .resultSetType (resultSetType == null ? null : ResultSetType.valueOf (resultSetType))
+                .resultType (resolveClass (attributes.getProperty ("resultType")))
+                .route (route)
+                .build ();
+    }
+
+    // route="primary|replica"，insert只能发往主库
+    private static StatementRoute route(String id, SqlCommandType type, String value, String resource) {
+        if (value == null) {
+            return null;
+        }
+        StatementRoute route;
+        try {
+            route = StatementRoute.valueOf (value.trim ().toUpperCase (Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            throw new BuilderException ("Unknown route '" + value + "' of statement '" + id + "' in " + resource);
+        }
+        if (route == StatementRoute.REPLICA && type != SqlCommandType.SELECT) {
+            throw new BuilderException ("Statement '" + id + "' in " + resource + " is not a select and cannot be routed to a replica");
+        }
+        return route;
+    }
+
+    private static Integer intAttribute(Properties attributes, String name, Integer def) {
+        String value = attributes.getProperty (name);
+        return value == null ? def : Integer.valueOf (value);
+    }
+
+    public void addMappedStatement(MappedStatement mappedStatement) {
+        if (registry != null) {
+            throw new IllegalStateException ("Configuration is frozen, cannot add statement " + mappedStatement.getName ());
+        }
+        MappedStatement existing = mappedStatements.get (mappedStatement.getName ());
+        if (existing != null) {
+            throw new BuilderException ("Mapped statement '" + mappedStatement.getName () + "' is already defined in "
+                    + existing.getResource () + ", duplicated in " + mappedStatement.getResource ());
+        }
+        String name = mappedStatement.getName ();
+        int dot = name.lastIndexOf ('.');
+        QueryCache cache = dot < 0 ? null : caches.get (name.substring (0, dot));
+        if (cache != null) {
+            mappedStatement.setCache (cache);
+        }
+        mappedStatements.put (mappedStatement.getName (), mappedStatement);
+    }
+
+    // 需要在这个namespace的语句之前添加
+    public void addCache(QueryCache cache) {
+        if (registry != null) {
+            throw new IllegalStateException ("Configuration is frozen, cannot add cache " + cache.getNamespace ());
+        }
+        if (caches.containsKey (cache.getNamespace ())) {
+            throw new BuilderException ("Cache for namespace '" + cache.getNamespace () + "' is already defined");
+        }
+        caches.put (cache.getNamespace (), cache);
+    }
+
+    // <cache size=".." ttl=".." stripes=".."/>，ttl单位毫秒，不配置时不过期
+    public QueryCache buildCache(String namespace, Properties attributes) {
+        Integer size = intAttribute (attributes, "size", QueryCache.DEFAULT_SIZE);
+        String ttl = attributes.getProperty ("ttl");
+        Integer stripes = intAttribute (attributes, "stripes", QueryCache.DEFAULT_STRIPES);
+        try {
+            return new QueryCache (namespace, size, ttl == null ? 0L : Long.parseLong (ttl), stripes);
+        } catch (IllegalArgumentException e) {
+            throw new BuilderException (e.getMessage (), e);
+        }
+    }
+
+    public QueryCache getCache(String namespace) {
+        return caches.get (namespace);
+    }
+
+    public Collection<QueryCache> getCaches() {
+        return Collections.unmodifiableCollection (caches.values ());
+    }
+
+    private Class<?> resolveClass(String className) {
+        if (className == null) {
+            return null;
+        }
+        try {
+            return Resources.classForName (className);
+        } catch (ClassNotFoundException e) {
+            throw new BuilderException ("Error resolving class " + className + ". Cause: " + e, e);
+        }
+    }
+
+    // 构建完成后调用，之后不能再添加MappedStatement
+    public synchronized void freeze() {
+        if (registry == null) {
+            caches = ImmutableMap.copyOf (caches);
+            registry = new MappedStatementRegistry (mappedStatements);
+            mappedStatements = null;
+        }
+    }
+
+    public boolean isFrozen() {
+        return registry != null;
+    }
+
+    public MappedStatement getMappedStatement(String id) {
+        MappedStatementRegistry frozen = registry;
+        if (frozen != null) {
+            return frozen.get (id);
+        }
+        return mappedStatements.get (id);
+    }
+
+    public MappedStatement getMappedStatement(String namespace, String id) {
+        MappedStatementRegistry frozen = registry;
+        if (frozen != null) {
+            return frozen.get (namespace, id);
+        }
+        return mappedStatements.get (namespace + "." + id);
+    }
+
+    public Collection<MappedStatement> getMappedStatements() {
+        MappedStatementRegistry frozen = registry;
+        if (frozen != null) {
+            return frozen.values ();
+        }
+        return Collections.unmodifiableCollection (mappedStatements.values ());
+    }
+
+    public Integer getDefaultFetchSize() {
+        return defaultFetchSize;
+    }
+
+    public void setDefaultFetchSize(Integer defaultFetchSize) {
+        this.defaultFetchSize = defaultFetchSize;
+    }
+
+    public Integer getDefaultStatementTimeout() {
+        return defaultStatementTimeout;
+    }
+
+    public void setDefaultStatementTimeout(Integer defaultStatementTimeout) {
+        this.defaultStatementTimeout = defaultStatementTimeout;
+    }
+
+    public ExecutorType getDefaultExecutorType() {
+        return defaultExecutorType;
+    }
+
+    public void setDefaultExecutorType(ExecutorType defaultExecutorType) {
+        this.defaultExecutorType = defaultExecutorType;
+    }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    // 至少缓存一条语句，否则刚放入的语句会立即被淘汰并关闭
+    public void setStatementCacheSize(int statementCacheSize) {
+        if (statementCacheSize < 1) {
+            throw new IllegalArgumentException ("statementCacheSize must be at least 1: " + statementCacheSize);
+        }
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    public void setMaxIdleConnections(int maxIdleConnections) {
+        this.maxIdleConnections = maxIdleConnections;
+    }
+
+    public int getJdbcTypeForNull() {
+        return jdbcTypeForNull;
+    }
+
+    public void setJdbcTypeForNull(int jdbcTypeForNull) {
+        this.jdbcTypeForNull = jdbcTypeForNull;
+    }
+
+    public MapperMode getMapperMode() {
+        return mapperMode;
+    }
+
+    public void setMapperMode(MapperMode mapperMode) {
+        this.mapperMode = mapperMode;
+    }
+
+    public Executor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    public int getMaxInFlightStatements() {
+        return maxInFlightStatements;
+    }
+
+    public void setMaxInFlightStatements(int maxInFlightStatements) {
+        this.maxInFlightStatements = maxInFlightStatements;
+    }
+
+    public MapperParserType getMapperParserType() {
+        return mapperParserType;
+    }
+
+    public void setMapperParserType(MapperParserType mapperParserType) {
+        this.mapperParserType = mapperParserType;
+    }
+
+    public boolean isStatementMetricsEnabled() {
+        return statementMetricsEnabled;
+    }
+
+    public void setStatementMetricsEnabled(boolean statementMetricsEnabled) {
+        this.statementMetricsEnabled = statementMetricsEnabled;
+    }
+
+    public boolean isRegisterMetricsMBeans() {
+        return registerMetricsMBeans;
+    }
+
+    public void setRegisterMetricsMBeans(boolean registerMetricsMBeans) {
+        this.registerMetricsMBeans = registerMetricsMBeans;
+    }
+
+    public StatementMetricsRegistry getStatementMetrics() {
+        StatementMetricsRegistry metrics = statementMetrics;
+        if (metrics == null) {
+            synchronized (this) {
+                metrics = statementMetrics;
+                if (metrics == null) {
+                    metrics = new StatementMetricsRegistry (String.valueOf (CONFIGURATION_IDS.incrementAndGet ()), registerMetricsMBeans);
+                    statementMetrics = metrics;
+                }
+            }
+        }
+        return metrics;
+    }
+
+    public long getSlowStatementThresholdMillis() {
+        return slowStatementThresholdMillis;
+    }
+
+    public void setSlowStatementThresholdMillis(long slowStatementThresholdMillis) {
+        this.slowStatementThresholdMillis = slowStatementThresholdMillis;
+    }
+
+    public int getSlowStatementSampleRate() {
+        return slowStatementSampleRate;
+    }
+
+    public void setSlowStatementSampleRate(int slowStatementSampleRate) {
+        this.slowStatementSampleRate = slowStatementSampleRate;
+    }
+
+    public int getSlowStatementLogSize() {
+        return slowStatementLogSize;
+    }
+
+    public void setSlowStatementLogSize(int slowStatementLogSize) {
+        this.slowStatementLogSize = slowStatementLogSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
 
-        SqlCommandType sqlCommandType = SqlCommandType.valueOf (node.getName ().toUpperCase (Locale.ENGLISH));
-        MappedStatement mappedStatement = new MappedStatement (nameSpace + "." + node.getStringAttribute ("id"),sqlCommandType,node.getStringBody ());
-        mappedStatements.put (nameSpace + "." + node.getStringAttribute ("id"), mappedStatement);
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
     }
 
 }
@@ -0,0 +1,417 @@
+package mybatis.bingding;
+
+import mybatis.cache.QueryCache;
+import mybatis.scripting.DynamicSqlSource;
+import mybatis.scripting.ScriptBuilder;
+import mybatis.scripting.ScriptHandler;
+import mybatis.util.Resources;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.zip.CRC32;
+
+/**
+ * 类名称: ConfigurationSnapshot
+ * 功能描述: 构建好的MappedStatement的二进制快照，mapper文件没有变化时直接加载，跳过xml解析
+ * 日期:  2026/10/18 18:40
+ *
+ * 文件格式：magic、版本号、mapper文件的SHA-256、各namespace的<cache>配置、语句个数，然后逐个写入语句的各个字段，
+ * 字符串为长度加UTF-8字节，可以为null的值前面有一个标记字节；动态sql写入构建它的元素和文本；
+ * 最后是摘要之后全部内容的CRC32。摘要只覆盖mapper文件，文件内容损坏由CRC32发现，读取时按损坏处理
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public final class ConfigurationSnapshot {
+
+    private static final int MAGIC = 0x4d425353;
+
+    // 格式变化时加一，旧快照自动失效
+    private static final short VERSION = 5;
+
+    // 动态sql的元素和文本按文档顺序写成事件，读取时交给ScriptBuilder重新构建
+    private static final byte SCRIPT_END = 0;
+
+    private static final byte SCRIPT_START_ELEMENT = 1;
+
+    private static final byte SCRIPT_TEXT = 2;
+
+    private static final byte SCRIPT_END_ELEMENT = 3;
+
+    private static final int HASH_LENGTH = 32;
+
+    private static final int HEADER_LENGTH = 4 + 2 + HASH_LENGTH;
+
+    private static final int CHECKSUM_LENGTH = 8;
+
+    private ConfigurationSnapshot() {
+    }
+
+    /**
+     * mapper文件内容以及影响构建结果的默认配置的摘要
+     */
+    public static byte[] hash(Configuration configuration, List<String> mapperResources) throws IOException {
+        MessageDigest digest = newDigest ();
+        update (digest, (int) VERSION);
+        update (digest, configuration.getDefaultFetchSize ());
+        update (digest, configuration.getDefaultStatementTimeout ());
+        byte[] buffer = new byte[8192];
+        for (String resource : mapperResources) {
+            digest.update (resource.getBytes (StandardCharsets.UTF_8));
+            digest.update ((byte) 0);
+            try (InputStream in = openResource (resource)) {
+                int n;
+                while ((n = in.read (buffer)) != -1) {
+                    digest.update (buffer, 0, n);
+                }
+            }
+            digest.update ((byte) 0);
+        }
+        return digest.digest ();
+    }
+
+    /**
+     * 快照中的查询缓存配置和语句，缓存需要先于语句添加到Configuration
+     */
+    public static final class Contents {
+
+        private final List<QueryCache> caches;
+
+        private final List<MappedStatement> statements;
+
+        Contents(List<QueryCache> caches, List<MappedStatement> statements) {
+            this.caches = caches;
+            this.statements = statements;
+        }
+
+        public List<QueryCache> getCaches() {
+            return caches;
+        }
+
+        public List<MappedStatement> getStatements() {
+            return statements;
+        }
+    }
+
+    /**
+     * 读取快照，文件不存在或者摘要不一致时返回null
+     */
+    public static Contents read(Path snapshot, byte[] expectedHash) throws IOException {
+        if (!Files.isRegularFile (snapshot)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open (snapshot, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map (FileChannel.MapMode.READ_ONLY, 0, channel.size ());
+            if (buffer.getInt () != MAGIC || buffer.getShort () != VERSION) {
+                return null;
+            }
+            byte[] hash = new byte[HASH_LENGTH];
+            buffer.get (hash);
+            if (!Arrays.equals (hash, expectedHash)) {
+                return null;
+            }
+            if (!checksumMatches (buffer)) {
+                throw new IOException ("Checksum mismatch in configuration snapshot " + snapshot);
+            }
+            int cacheCount = readCount (buffer);
+            List<QueryCache> caches = new ArrayList<> (cacheCount);
+            for (int i = 0; i < cacheCount; i++) {
+                caches.add (new QueryCache (readString (buffer), buffer.getInt (), buffer.getLong (), buffer.getInt ()));
+            }
+            int count = readCount (buffer);
+            List<MappedStatement> statements = new ArrayList<> (count);
+            for (int i = 0; i < count; i++) {
+                statements.add (readStatement (buffer));
+            }
+            return new Contents (caches, statements);
+        } catch (RuntimeException e) {
+            // 越界的下标、长度等，和读到文件末尾一样按损坏处理
+            throw new IOException ("Corrupted configuration snapshot " + snapshot, e);
+        }
+    }
+
+    // 摘要之后到校验和之前的内容
+    private static boolean checksumMatches(ByteBuffer buffer) {
+        int end = buffer.limit () - CHECKSUM_LENGTH;
+        if (end < HEADER_LENGTH) {
+            throw new BufferUnderflowException ();
+        }
+        ByteBuffer payload = buffer.duplicate ();
+        payload.position (HEADER_LENGTH).limit (end);
+        CRC32 crc = new CRC32 ();
+        crc.update (payload);
+        boolean matches = crc.getValue () == buffer.getLong (end);
+        buffer.limit (end);
+        return matches;
+    }
+
+    /**
+     * 写入快照，先写临时文件再替换，其他进程不会读到写了一半的文件
+     */
+    public static void write(Path snapshot, byte[] hash, Collection<QueryCache> caches, Collection<MappedStatement> statements) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream (statements.size () * 128 + 64);
+        DataOutputStream out = new DataOutputStream (bytes);
+        out.writeInt (MAGIC);
+        out.writeShort (VERSION);
+        out.write (hash);
+        out.writeInt (caches.size ());
+        for (QueryCache cache : caches) {
+            writeString (out, cache.getNamespace ());
+            out.writeInt (cache.getSize ());
+            out.writeLong (cache.getTtlMillis ());
+            out.writeInt (cache.getStripes ());
+        }
+        out.writeInt (statements.size ());
+        for (MappedStatement statement : statements) {
+            writeStatement (out, statement);
+        }
+        out.flush ();
+        CRC32 crc = new CRC32 ();
+        byte[] written = bytes.toByteArray ();
+        crc.update (written, HEADER_LENGTH, written.length - HEADER_LENGTH);
+        out.writeLong (crc.getValue ());
+        out.flush ();
+
+        Path parent = snapshot.toAbsolutePath ().getParent ();
+        Files.createDirectories (parent);
+        Path tmp = Files.createTempFile (parent, snapshot.getFileName ().toString (), ".tmp");
+        try {
+            Files.write (tmp, bytes.toByteArray ());
+            try {
+                Files.move (tmp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.move (tmp, snapshot, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists (tmp);
+        }
+    }
+
+    private static void writeStatement(DataOutputStream out, MappedStatement statement) throws IOException {
+        writeString (out, statement.getName ());
+        writeString (out, statement.getResource ());
+        out.writeByte (statement.getType ().ordinal ());
+        writeString (out, statement.getSql ());
+        out.writeBoolean (statement.isDynamic ());
+        if (statement.isDynamic ()) {
+            writeScript (out, statement.getDynamicSqlSource ());
+        }
+        List<ParameterMapping> mappings = statement.getParameterMappings ();
+        out.writeInt (mappings.size ());
+        for (ParameterMapping mapping : mappings) {
+            writeString (out, mapping.getProperty ());
+            writeInteger (out, mapping.getJdbcType ());
+        }
+        writeInteger (out, statement.getFetchSize ());
+        writeInteger (out, statement.getTimeout ());
+        out.writeByte (statement.getResultSetType ().ordinal ());
+        Class<?> resultType = statement.getResultType ();
+        writeString (out, resultType == null ? null : resultType.getName ());
+        StatementRoute route = statement.getRoute ();
+        out.writeByte (route == null ? 0 : route.ordinal () + 1);
+    }
+
+    private static MappedStatement readStatement(ByteBuffer buffer) throws IOException {
+        String name = readString (buffer);
+        String resource = readString (buffer);
+        SqlCommandType type = ordinal (SqlCommandType.values (), buffer.get ());
+        String sql = readString (buffer);
+        DynamicSqlSource dynamicSqlSource = buffer.get () == 0 ? null : readScript (buffer);
+        int mappingCount = readCount (buffer);
+        List<ParameterMapping> mappings = mappingCount == 0 ? Collections.emptyList () : new ArrayList<> (mappingCount);
+        for (int i = 0; i < mappingCount; i++) {
+            mappings.add (new ParameterMapping (readString (buffer), readInteger (buffer)));
+        }
+        Integer fetchSize = readInteger (buffer);
+        Integer timeout = readInteger (buffer);
+        ResultSetType resultSetType = ordinal (ResultSetType.values (), buffer.get ());
+        String resultType = readString (buffer);
+        int route = buffer.get ();
+        return new MappedStatement.Builder (name, type, sql)
+                .resource (resource)
+                .parameterMappings (mappings)
+                .dynamicSqlSource (dynamicSqlSource)
+                .fetchSize (fetchSize)
+                .timeout (timeout)
+                .resultSetType (resultSetType)
+                .resultType (resultType == null ? null : classForName (resultType))
+                .route (route == 0 ? null : ordinal (StatementRoute.values (), route - 1))
+                .build ();
+    }
+
+    private static void writeScript(DataOutputStream out, DynamicSqlSource dynamicSqlSource) throws IOException {
+        try {
+            dynamicSqlSource.replay (new ScriptHandler () {
+                @Override
+                public void startElement(String name, Properties attributes) {
+                    try {
+                        out.writeByte (SCRIPT_START_ELEMENT);
+                        writeString (out, name);
+                        out.writeInt (attributes.size ());
+                        for (String key : attributes.stringPropertyNames ()) {
+                            writeString (out, key);
+                            writeString (out, attributes.getProperty (key));
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException (e);
+                    }
+                }
+
+                @Override
+                public void text(String text) {
+                    try {
+                        out.writeByte (SCRIPT_TEXT);
+                        writeString (out, text);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException (e);
+                    }
+                }
+
+                @Override
+                public void endElement() {
+                    try {
+                        out.writeByte (SCRIPT_END_ELEMENT);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException (e);
+                    }
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause ();
+        }
+        out.writeByte (SCRIPT_END);
+    }
+
+    private static DynamicSqlSource readScript(ByteBuffer buffer) throws IOException {
+        ScriptBuilder script = new ScriptBuilder ();
+        try {
+            while (true) {
+                byte event = buffer.get ();
+                switch (event) {
+                    case SCRIPT_END:
+                        return script.build ();
+                    case SCRIPT_START_ELEMENT:
+                        String name = readString (buffer);
+                        Properties attributes = new Properties ();
+                        for (int i = readCount (buffer); i > 0; i--) {
+                            attributes.setProperty (readString (buffer), readString (buffer));
+                        }
+                        script.startElement (name, attributes);
+                        break;
+                    case SCRIPT_TEXT:
+                        script.text (readString (buffer));
+                        break;
+                    case SCRIPT_END_ELEMENT:
+                        script.endElement ();
+                        break;
+                    default:
+                        throw new IOException ("Unknown script event " + event);
+                }
+            }
+        } catch (BuilderException e) {
+            throw new IOException ("Invalid dynamic sql in snapshot. Cause: " + e.getMessage (), e);
+        }
+    }
+
+    private static Class<?> classForName(String className) throws IOException {
+        try {
+            return Resources.classForName (className);
+        } catch (ClassNotFoundException e) {
+            throw new IOException ("Snapshot references missing class " + className, e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt (-1);
+            return;
+        }
+        byte[] bytes = value.getBytes (StandardCharsets.UTF_8);
+        out.writeInt (bytes.length);
+        out.write (bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) throws IOException {
+        int length = buffer.getInt ();
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0 || length > buffer.remaining ()) {
+            throw new IOException ("Invalid string length " + length + " in snapshot");
+        }
+        byte[] bytes = new byte[length];
+        buffer.get (bytes);
+        return new String (bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean (value != null);
+        if (value != null) {
+            out.writeInt (value);
+        }
+    }
+
+    // 个数不会超过剩余的字节数，避免按损坏的值分配内存
+    private static int readCount(ByteBuffer buffer) throws IOException {
+        int count = buffer.getInt ();
+        if (count < 0 || count > buffer.remaining ()) {
+            throw new IOException ("Invalid count " + count + " in snapshot");
+        }
+        return count;
+    }
+
+    private static <E extends Enum<E>> E ordinal(E[] values, int ordinal) throws IOException {
+        if (ordinal < 0 || ordinal >= values.length) {
+            throw new IOException ("Invalid " + values.getClass ().getComponentType ().getSimpleName () + " ordinal " + ordinal + " in snapshot");
+        }
+        return values[ordinal];
+    }
+
+    private static Integer readInteger(ByteBuffer buffer) {
+        return buffer.get () == 0 ? null : buffer.getInt ();
+    }
+
+    private static void update(MessageDigest digest, Integer value) {
+        if (value == null) {
+            digest.update ((byte) 0);
+            return;
+        }
+        digest.update ((byte) 1);
+        digest.update (ByteBuffer.allocate (4).putInt (value).array ());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance ("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException (e);
+        }
+    }
+
+    static InputStream openResource(String resource) throws IOException {
+        if (resource.indexOf (':') > 1) {
+            return Resources.getUrlAsStream (resource);
+        }
+        return Resources.getResourceAsStream (resource);
+    }
+}
@@ -0,0 +1,230 @@
+package mybatis.bingding;
+
+import mybatis.cursor.Cursor;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 类名称: CursorPublisher
+ * 功能描述: 按订阅者的request逐行读取游标的Publisher，每个订阅独立执行一次查询
+ * 日期:  2026/10/19 00:20
+ *
+ * 第一次request时才拿许可、打开会话和游标；只读取已经请求的行数，没有需求时不占用线程，
+ * 但一直持有连接，直到读完、出错或者cancel。request和cancel可以在任意线程调用，
+ * 游标只在drain中访问，同一时刻最多一个线程在drain
+ *
+ * @author: renpengfei
+ * @since: JDK11
+ */
+final class CursorPublisher<T> implements Flow.Publisher<T> {
+
+    private final AsyncStatementRunner runner;
+
+    private final Function<SqlSession, Cursor<T>> query;
+
+    CursorPublisher(AsyncStatementRunner runner, Function<SqlSession, Cursor<T>> query) {
+        this.runner = runner;
+        this.query = query;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull (subscriber, "subscriber");
+        subscriber.onSubscribe (new CursorSubscription<> (runner, query, subscriber));
+    }
+
+    private static final class CursorSubscription<T> implements Flow.Subscription, AsyncStatementRunner.Task {
+
+        private final AsyncStatementRunner runner;
+
+        private final Function<SqlSession, Cursor<T>> query;
+
+        private Flow.Subscriber<? super T> subscriber;
+
+        // 还没有推送的需求，Long.MAX_VALUE表示不限
+        private final AtomicLong requested = new AtomicLong ();
+
+        // 需要drain的次数，从0变成1的线程负责调度
+        private final AtomicInteger wip = new AtomicInteger ();
+
+        private volatile boolean cancelled;
+
+        private volatile Throwable error;
+
+        // 持有许可，之后的drain直接交给执行器
+        private volatile boolean permitted;
+
+        private volatile boolean done;
+
+        // 以下字段只在drain中访问
+        private SqlSession session;
+
+        private Cursor<T> cursor;
+
+        private Iterator<T> iterator;
+
+        private CursorSubscription(AsyncStatementRunner runner, Function<SqlSession, Cursor<T>> query, Flow.Subscriber<? super T> subscriber) {
+            this.runner = runner;
+            this.query = query;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                // 规范3.9：非正数的request以onError结束
+                error = new IllegalArgumentException ("Non-positive request: " + n);
+            } else {
+                long current;
+                long next;
+                do {
+                    current = requested.get ();
+                    if (current == Long.MAX_VALUE) {
+                        break;
+                    }
+                    next = current + n < 0 ? Long.MAX_VALUE : current + n;
+                } while (!requested.compareAndSet (current, next));
+            }
+            schedule ();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule ();
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement () != 0) {
+                // 还在等待许可时，cancel和非法的request不能等其他订阅归还许可，从等待队列中取回后在当前线程结束
+                if (terminating () && runner.withdraw (this)) {
+                    drainLoop ();
+                }
+                return;
+            }
+            // 还没有开始查询时，结束订阅不需要许可
+            if (done || (!permitted && terminating ())) {
+                drainLoop ();
+            } else if (permitted) {
+                runner.execute (this);
+            } else {
+                runner.acquire (this);
+            }
+        }
+
+        private boolean terminating() {
+            return cancelled || error != null;
+        }
+
+        // 执行器拒绝时许可已经归还，在当前线程结束订阅
+        @Override
+        public void reject(RuntimeException e) {
+            permitted = false;
+            error = e;
+            drainLoop ();
+        }
+
+        @Override
+        public void run() {
+            permitted = true;
+            drainLoop ();
+        }
+
+        private void drainLoop() {
+            int missed = 1;
+            do {
+                if (!done) {
+                    drain ();
+                }
+                missed = wip.addAndGet (-missed);
+            } while (missed != 0);
+            if (done && permitted) {
+                permitted = false;
+                runner.release ();
+            }
+        }
+
+        private void drain() {
+            if (cancelled) {
+                terminate (null);
+                return;
+            }
+            Throwable failure = error;
+            if (failure != null) {
+                terminate (failure);
+                return;
+            }
+            if (requested.get () == 0) {
+                return;
+            }
+            try {
+                if (iterator == null) {
+                    session = runner.openSession ();
+                    cursor = query.apply (session);
+                    iterator = cursor.iterator ();
+                }
+                long demand = requested.get ();
+                long emitted = 0;
+                while (emitted != demand) {
+                    if (cancelled) {
+                        terminate (null);
+                        return;
+                    }
+                    if (!iterator.hasNext ()) {
+                        terminate (null);
+                        subscriberOrNull ().onComplete ();
+                        return;
+                    }
+                    subscriber.onNext (iterator.next ());
+                    emitted++;
+                }
+                if (demand != Long.MAX_VALUE) {
+                    requested.addAndGet (-emitted);
+                }
+            } catch (Throwable t) {
+                terminate (t);
+            }
+        }
+
+        // 关闭游标和会话，failure不为null时通知订阅者；许可在drain结束后归还
+        private void terminate(Throwable failure) {
+            if (done) {
+                return;
+            }
+            done = true;
+            try {
+                if (cursor != null) {
+                    cursor.close ();
+                }
+            } finally {
+                try {
+                    if (session != null) {
+                        session.close ();
+                    }
+                } finally {
+                    cursor = null;
+                    iterator = null;
+                    session = null;
+                }
+            }
+            if (failure != null && !cancelled) {
+                subscriberOrNull ().onError (failure);
+            }
+            if (cancelled) {
+                subscriber = null;
+            }
+        }
+
+        // 结束后不再引用订阅者
+        private Flow.Subscriber<? super T> subscriberOrNull() {
+            Flow.Subscriber<? super T> current = subscriber;
+            subscriber = null;
+            return current;
+        }
+    }
+}
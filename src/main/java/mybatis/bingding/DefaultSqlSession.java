@@ -0,0 +1,353 @@
+package mybatis.bingding;
+
+import mybatis.cache.CacheKey;
+import mybatis.cache.QueryCache;
+import mybatis.cursor.Cursor;
+import mybatis.executor.BatchResult;
+import mybatis.executor.Executor;
+import mybatis.executor.ExecutorException;
+import mybatis.executor.ExecutorType;
+import mybatis.executor.parameter.BoundParameters;
+import mybatis.executor.resultset.RowMapperFactory;
+import mybatis.metrics.SlowStatementLog;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+
+/**
+ * 类名称: DefaultSqlSession
+ * 功能描述: SqlSession的默认实现，第一次执行语句时才向SqlSessionFactory借执行器
+ * 日期:  2026/10/18 21:00
+ *
+ * 读写分离时insert和route="primary"的查询使用主库的执行器，其他查询使用会话第一次读时分到的副本；
+ * 会话执行过insert之后所有查询都发往主库，保证读到自己写入的数据
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class DefaultSqlSession implements SqlSession {
+
+    private final SqlSessionFactory sqlSessionFactory;
+
+    private final ExecutorType executorType;
+
+    private final boolean autoCommit;
+
+    private Executor executor;
+
+    // 只读副本上的执行器和副本下标，没有读过副本时为null和-1
+    private Executor readExecutor;
+
+    private int replica = -1;
+
+    private boolean readBroken;
+
+    // 执行过insert，之后的查询不再发往副本
+    private boolean pinnedToPrimary;
+
+    private final SlowStatementLog slowStatementLog;
+
+    // 执行出错后连接可能已经不可用，关闭时不再放回空闲队列
+    private boolean broken;
+
+    // 有没有提交的insert
+    private boolean dirty;
+
+    private boolean closed;
+
+    // 还没有关闭的游标，会话关闭时先关闭它们，再归还执行器
+    private final List<OpenCursor> openCursors = new ArrayList<> ();
+
+    // 会话内的查询缓存
+    private final Map<CacheKey, List<?>> localCache = new HashMap<> ();
+
+    // 没有提交的insert涉及的namespace缓存，提交后数据才可见，需要再清空一次
+    private final Set<QueryCache> dirtyCaches = new HashSet<> ();
+
+    DefaultSqlSession(SqlSessionFactory sqlSessionFactory, ExecutorType executorType, boolean autoCommit) {
+        this.sqlSessionFactory = sqlSessionFactory;
+        this.executorType = executorType;
+        // 批量模式的insert在commit时才真正提交
+        this.autoCommit = autoCommit && executorType != ExecutorType.BATCH;
+        this.slowStatementLog = sqlSessionFactory.getSlowStatementLog ();
+    }
+
+    @Override
+    public Configuration getConfiguration() {
+        return sqlSessionFactory.getConfiguration ();
+    }
+
+    @Override
+    public int insert(MappedStatement ms, BoundParameters parameters) {
+        Executor executor = executor ();
+        localCache.clear ();
+        dirty = true;
+        pinnedToPrimary = true;
+        QueryCache cache = ms.getCache ();
+        long start = slowStatementLog == null ? 0L : System.nanoTime ();
+        try {
+            return executor.update (ms, parameters);
+        } catch (SQLException e) {
+            broken = true;
+            throw new ExecutorException ("Error executing insert " + ms.getName () + ". Cause: " + e, e);
+        } finally {
+            recordDuration (ms, parameters, start);
+            // 同一namespace的查询结果可能已经过时
+            if (cache != null) {
+                cache.clear ();
+                if (!autoCommit) {
+                    dirtyCaches.add (cache);
+                }
+            }
+        }
+    }
+
+    // 先查会话缓存，再查namespace缓存；有没提交的insert时不读写namespace缓存，避免其他会话看到未提交的数据
+    @Override
+    @SuppressWarnings ("unchecked")
+    public <E> List<E> select(MappedStatement ms, BoundParameters parameters, RowMapperFactory<E> rowMapperFactory) {
+        checkOpen ();
+        CacheKey key = new CacheKey (ms.getName (), parameters);
+        List<?> local = localCache.get (key);
+        if (local != null) {
+            return (List<E>) local;
+        }
+        List<E> result;
+        QueryCache cache = ms.getCache ();
+        if (cache != null && !(dirty && !autoCommit)) {
+            result = (List<E>) cache.get (key);
+            if (result == null) {
+                long generation = cache.currentGeneration ();
+                // 缓存的结果被多个会话共享，返回只读列表
+                result = Collections.unmodifiableList (query (ms, parameters, rowMapperFactory));
+                cache.put (key, result, generation);
+            }
+        } else {
+            result = query (ms, parameters, rowMapperFactory);
+        }
+        localCache.put (key, result);
+        return result;
+    }
+
+    private <E> List<E> query(MappedStatement ms, BoundParameters parameters, RowMapperFactory<E> rowMapperFactory) {
+        Executor executor = selectExecutor (ms);
+        long start = slowStatementLog == null ? 0L : System.nanoTime ();
+        try {
+            return executor.query (ms, parameters, rowMapperFactory);
+        } catch (SQLException e) {
+            markBroken (executor);
+            throw new ExecutorException ("Error executing select " + ms.getName () + ". Cause: " + e, e);
+        } finally {
+            recordDuration (ms, parameters, start);
+        }
+    }
+
+    @Override
+    public <T> T selectOne(MappedStatement ms, BoundParameters parameters, RowMapperFactory<T> rowMapperFactory) {
+        List<T> list = select (ms, parameters, rowMapperFactory);
+        if (list.size () == 1) {
+            return list.get (0);
+        } else if (list.size () > 1) {
+            throw new ExecutorException ("Expected one result (or null) to be returned by " + ms.getName () + ", but found: " + list.size ());
+        } else {
+            return null;
+        }
+    }
+
+    @Override
+    public <E> Cursor<E> selectCursor(MappedStatement ms, BoundParameters parameters, RowMapperFactory<E> rowMapperFactory) {
+        Executor executor = selectExecutor (ms);
+        long start = slowStatementLog == null ? 0L : System.nanoTime ();
+        try {
+            OpenCursor open = new OpenCursor (executor);
+            Cursor<E> cursor = executor.queryCursor (ms, parameters, rowMapperFactory, open);
+            open.cursor = cursor;
+            openCursors.add (open);
+            return cursor;
+        } catch (SQLException e) {
+            markBroken (executor);
+            throw new ExecutorException ("Error executing select " + ms.getName () + ". Cause: " + e, e);
+        } finally {
+            recordDuration (ms, parameters, start);
+        }
+    }
+
+    @Override
+    public <E> Flow.Publisher<E> selectPublisher(MappedStatement ms, BoundParameters parameters, RowMapperFactory<E> rowMapperFactory) {
+        checkOpen ();
+        return sqlSessionFactory.publish (session -> session.selectCursor (ms, parameters, rowMapperFactory));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> executeAsync(Function<SqlSession, T> statement) {
+        checkOpen ();
+        return sqlSessionFactory.submitAsync (statement);
+    }
+
+    @Override
+    public List<BatchResult> flushStatements() {
+        checkOpen ();
+        if (executor == null) {
+            return Collections.emptyList ();
+        }
+        try {
+            return executor.flushStatements ();
+        } catch (SQLException e) {
+            broken = true;
+            throw new ExecutorException ("Error flushing statements. Cause: " + e, e);
+        }
+    }
+
+    @Override
+    public List<BatchResult> commit() {
+        checkOpen ();
+        localCache.clear ();
+        if (executor == null) {
+            return Collections.emptyList ();
+        }
+        try {
+            List<BatchResult> results = executor.flushStatements ();
+            executor.commit ();
+            return results;
+        } catch (SQLException e) {
+            broken = true;
+            throw new ExecutorException ("Error committing session. Cause: " + e, e);
+        } finally {
+            clearDirtyCaches ();
+        }
+    }
+
+    @Override
+    public void rollback() {
+        checkOpen ();
+        localCache.clear ();
+        if (executor == null) {
+            return;
+        }
+        try {
+            executor.rollback ();
+        } catch (SQLException e) {
+            broken = true;
+            throw new ExecutorException ("Error rolling back session. Cause: " + e, e);
+        } finally {
+            clearDirtyCaches ();
+        }
+    }
+
+    @Override
+    public void clearCache() {
+        localCache.clear ();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        localCache.clear ();
+        closeCursors ();
+        try {
+            if (executor != null) {
+                // 没有提交的insert在归还连接时回滚
+                sqlSessionFactory.releaseExecutor (executor, broken);
+                executor = null;
+            }
+        } finally {
+            if (readExecutor != null) {
+                sqlSessionFactory.releaseReplicaExecutor (replica, readExecutor, readBroken);
+                readExecutor = null;
+                replica = -1;
+            }
+            clearDirtyCaches ();
+        }
+    }
+
+    // 关闭失败的游标所在的执行器不再放回空闲队列
+    private void closeCursors() {
+        for (OpenCursor open : new ArrayList<> (openCursors)) {
+            try {
+                open.cursor.close ();
+            } catch (RuntimeException e) {
+                markBroken (open.executor);
+            }
+        }
+        openCursors.clear ();
+    }
+
+    // 只统计访问数据库的耗时，缓存命中不记录；游标只统计打开的耗时。出错的语句也记录
+    private void recordDuration(MappedStatement ms, BoundParameters parameters, long start) {
+        if (slowStatementLog != null) {
+            slowStatementLog.record (ms.getName (), parameters, System.nanoTime () - start);
+        }
+    }
+
+    private void clearDirtyCaches() {
+        for (QueryCache cache : dirtyCaches) {
+            cache.clear ();
+        }
+        dirtyCaches.clear ();
+        dirty = false;
+    }
+
+    private Executor executor() {
+        checkOpen ();
+        if (executor == null) {
+            executor = sqlSessionFactory.borrowExecutor (executorType, autoCommit);
+        }
+        return executor;
+    }
+
+    // 查询使用的执行器：没有读写分离、执行过insert或者route="primary"时使用主库
+    private Executor selectExecutor(MappedStatement ms) {
+        if (!sqlSessionFactory.isReadWriteSplit () || pinnedToPrimary || ms.getRoute () == StatementRoute.PRIMARY) {
+            return executor ();
+        }
+        checkOpen ();
+        if (readExecutor == null) {
+            int chosen = sqlSessionFactory.acquireReplica ();
+            readExecutor = sqlSessionFactory.borrowReplicaExecutor (chosen, executorType);
+            replica = chosen;
+        }
+        return readExecutor;
+    }
+
+    private void markBroken(Executor failed) {
+        if (failed == readExecutor) {
+            readBroken = true;
+        } else {
+            broken = true;
+        }
+    }
+
+    // 游标关闭时从openCursors中移除
+    private final class OpenCursor implements Runnable {
+
+        private final Executor executor;
+
+        private Cursor<?> cursor;
+
+        private OpenCursor(Executor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public void run() {
+            openCursors.remove (this);
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new ExecutorException ("SqlSession is already closed.");
+        }
+    }
+}
@@ -2,6 +2,13 @@ package mybatis.bingding;
 
 import mybatis.bingding.SqlCommandType;
 
+import mybatis.cache.QueryCache;
+import mybatis.executor.parameter.BoundParameters;
+import mybatis.scripting.DynamicSqlSource;
+
+import java.util.Collections;
+import java.util.List;
+
 /**
  * 类名称: MappedStatement
  * 功能描述:
@@ -14,10 +21,37 @@ public class MappedStatement {
 
     private final String name;
 
+    // 定义这个语句的mapper文件
+    private String resource;
+
     private final SqlCommandType type;
 
+    // #{}已经替换为?的sql，动态sql为null
     private final String sql;
 
+    // 包含<if>、<where>、<foreach>等元素的语句，每次调用按参数渲染sql
+    private DynamicSqlSource dynamicSqlSource;
+
+    // 按?的顺序排列的参数
+    private List<ParameterMapping> parameterMappings = Collections.emptyList ();
+
+    // 每次从数据库取回的行数，null表示使用驱动默认值
+    private Integer fetchSize;
+
+    // 查询超时时间（秒），null表示不超时
+    private Integer timeout;
+
+    private ResultSetType resultSetType = ResultSetType.FORWARD_ONLY;
+
+    // select元素的resultType，没有配置时按mapper方法的返回类型映射
+    private Class<?> resultType;
+
+    // 读写分离时发往的数据库，null表示按语句类型
+    private StatementRoute route;
+
+    // 所属namespace配置了<cache>时的查询缓存，注册到Configuration时设置
+    private QueryCache cache;
+
 
     public MappedStatement(String name, SqlCommandType type, String sql) {
         this.name = name;
@@ -29,6 +63,18 @@ public class MappedStatement {
         return name;
     }
 
+    public String getResource() {
+        return resource;
+    }
+
+    public QueryCache getCache() {
+        return cache;
+    }
+
+    void setCache(QueryCache cache) {
+        this.cache = cache;
+    }
+
     public SqlCommandType getType() {
         return type;
     }
@@ -36,4 +82,97 @@ public class MappedStatement {
     public String getSql() {
         return sql;
     }
+
+    // 这次调用要执行的sql
+    public String getSql(BoundParameters parameters) {
+        String boundSql = parameters.getSql ();
+        return boundSql != null ? boundSql : sql;
+    }
+
+    public DynamicSqlSource getDynamicSqlSource() {
+        return dynamicSqlSource;
+    }
+
+    public boolean isDynamic() {
+        return dynamicSqlSource != null;
+    }
+
+    public List<ParameterMapping> getParameterMappings() {
+        return parameterMappings;
+    }
+
+    public Integer getFetchSize() {
+        return fetchSize;
+    }
+
+    public Integer getTimeout() {
+        return timeout;
+    }
+
+    public ResultSetType getResultSetType() {
+        return resultSetType;
+    }
+
+    public Class<?> getResultType() {
+        return resultType;
+    }
+
+    public StatementRoute getRoute() {
+        return route;
+    }
+
+    public static class Builder {
+
+        private final MappedStatement mappedStatement;
+
+        public Builder(String name, SqlCommandType type, String sql) {
+            mappedStatement = new MappedStatement (name, type, sql);
+        }
+
+        public Builder resource(String resource) {
+            mappedStatement.resource = resource;
+            return this;
+        }
+
+        public Builder parameterMappings(List<ParameterMapping> parameterMappings) {
+            mappedStatement.parameterMappings = parameterMappings;
+            return this;
+        }
+
+        public Builder dynamicSqlSource(DynamicSqlSource dynamicSqlSource) {
+            mappedStatement.dynamicSqlSource = dynamicSqlSource;
+            return this;
+        }
+
+        public Builder fetchSize(Integer fetchSize) {
+            mappedStatement.fetchSize = fetchSize;
+            return this;
+        }
+
+        public Builder timeout(Integer timeout) {
+            mappedStatement.timeout = timeout;
+            return this;
+        }
+
+        public Builder resultSetType(ResultSetType resultSetType) {
+            if (resultSetType != null) {
+                mappedStatement.resultSetType = resultSetType;
+            }
+            return this;
+        }
+
+        public Builder resultType(Class<?> resultType) {
+            mappedStatement.resultType = resultType;
+            return this;
+        }
+
+        public Builder route(StatementRoute route) {
+            mappedStatement.route = route;
+            return this;
+        }
+
+        public MappedStatement build() {
+            return mappedStatement;
+        }
+    }
 }
@@ -0,0 +1,59 @@
+package mybatis.bingding;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 类名称: MappedStatementRegistry
+ * 功能描述: 构建完成后冻结的MappedStatement注册表，不可修改，可以安全地在线程间共享。
+ * 按 namespace -> id 两级索引，查找时不需要拼接key
+ * 日期:  2026/10/18 17:30
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public final class MappedStatementRegistry {
+
+    // namespace + "." + id -> MappedStatement
+    private final ImmutableMap<String, MappedStatement> statements;
+
+    // namespace -> (id -> MappedStatement)
+    private final ImmutableMap<String, ImmutableMap<String, MappedStatement>> namespaces;
+
+    public MappedStatementRegistry(Map<String, MappedStatement> statements) {
+        this.statements = ImmutableMap.copyOf (statements);
+        Map<String, ImmutableMap.Builder<String, MappedStatement>> builders = new HashMap<> ();
+        for (Map.Entry<String, MappedStatement> entry : statements.entrySet ()) {
+            String name = entry.getKey ();
+            int dot = name.lastIndexOf ('.');
+            String namespace = dot < 0 ? "" : name.substring (0, dot);
+            builders.computeIfAbsent (namespace, key -> ImmutableMap.builder ())
+                    .put (name.substring (dot + 1), entry.getValue ());
+        }
+        ImmutableMap.Builder<String, ImmutableMap<String, MappedStatement>> namespaces = ImmutableMap.builder ();
+        for (Map.Entry<String, ImmutableMap.Builder<String, MappedStatement>> entry : builders.entrySet ()) {
+            namespaces.put (entry.getKey (), entry.getValue ().build ());
+        }
+        this.namespaces = namespaces.build ();
+    }
+
+    public MappedStatement get(String id) {
+        return statements.get (id);
+    }
+
+    public MappedStatement get(String namespace, String id) {
+        ImmutableMap<String, MappedStatement> statements = namespaces.get (namespace);
+        return statements == null ? null : statements.get (id);
+    }
+
+    public Collection<MappedStatement> values() {
+        return statements.values ();
+    }
+
+    public int size() {
+        return statements.size ();
+    }
+}
@@ -0,0 +1,473 @@
+package mybatis.bingding;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 类名称: MapperClassGenerator
+ * 功能描述: 运行时生成mapper接口的实现类，每个接口方法直接调用对应的MapperMethod：
+ * <pre>
+ * public final class XxxMapper$$MapperImpl implements XxxMapper {
+ *     private final MapperMethod m0;
+ *     private final SqlSession sqlSession;
+ *
+ *     public List selectById(long id) {
+ *         return (List) m0.execute (sqlSession, new Object[]{Long.valueOf (id)});
+ *     }
+ * }
+ * </pre>
+ * 调用不经过InvocationHandler和Method查找，可以被JIT内联。生成的代码没有分支，不需要StackMapTable
+ * 日期:  2026/10/18 16:10
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class MapperClassGenerator {
+
+    private static final String MAPPER_METHOD = internalName (MapperMethod.class);
+
+    private static final String SQL_SESSION = internalName (SqlSession.class);
+
+    private static final String EXECUTE_DESCRIPTOR = "(L" + SQL_SESSION + ";[Ljava/lang/Object;)Ljava/lang/Object;";
+
+    private static final String CONSTRUCTOR_DESCRIPTOR = "([L" + MAPPER_METHOD + ";L" + SQL_SESSION + ";)V";
+
+    private final Class<?> mapperInterface;
+
+    // 需要实现的方法，按 方法名+描述符 去重
+    private final List<Method> methods = new ArrayList<> ();
+
+    public MapperClassGenerator(Class<?> mapperInterface) {
+        this.mapperInterface = mapperInterface;
+        Map<String, Method> unique = new LinkedHashMap<> ();
+        for (Method method : mapperInterface.getMethods ()) {
+            if (!Modifier.isStatic (method.getModifiers ()) && !method.isDefault ()) {
+                unique.putIfAbsent (method.getName () + methodDescriptor (method), method);
+            }
+        }
+        methods.addAll (unique.values ());
+    }
+
+    // 生成类需要实现的方法，顺序和构造函数参数中MapperMethod数组的顺序一致
+    public List<Method> getMethods() {
+        return methods;
+    }
+
+    // 生成并加载实现类，返回参数为(MapperMethod[], SqlSession)的构造函数
+    public MethodHandle generate() {
+        if (!Modifier.isPublic (mapperInterface.getModifiers ())) {
+            throw new BindingException ("Cannot generate implementation for non-public mapper " + mapperInterface.getName ());
+        }
+        // 生成类在另一个类加载器里，不能访问包私有的类型，CHECKCAST到这样的返回类型会在调用时抛IllegalAccessError
+        for (Method method : methods) {
+            checkAccessible (method, method.getReturnType ());
+            for (Class<?> type : method.getParameterTypes ()) {
+                checkAccessible (method, type);
+            }
+        }
+        String className = mapperInterface.getName () + "$$MapperImpl";
+        byte[] bytes = toBytes (className.replace ('.', '/'));
+        Class<?> implClass = new MapperClassLoader (loaderFor (mapperInterface)).define (className, bytes);
+        try {
+            return MethodHandles.publicLookup ().findConstructor (implClass,
+                    MethodType.methodType (void.class, MapperMethod[].class, SqlSession.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new BindingException ("Error loading generated mapper " + className + ". Cause: " + e, e);
+        }
+    }
+
+    private static void checkAccessible(Method method, Class<?> type) {
+        while (type.isArray ()) {
+            type = type.getComponentType ();
+        }
+        for (Class<?> current = type; current != null && !current.isPrimitive (); current = current.getDeclaringClass ()) {
+            if (!Modifier.isPublic (current.getModifiers ())) {
+                throw new BindingException ("Cannot generate implementation for " + method + ": type " + type.getName () + " is not public");
+            }
+        }
+    }
+
+    // 同时能看到mapper接口和mybatis类的类加载器
+    private static ClassLoader loaderFor(Class<?> mapperInterface) {
+        ClassLoader interfaceLoader = mapperInterface.getClassLoader ();
+        if (isVisible (MapperMethod.class, interfaceLoader)) {
+            return interfaceLoader;
+        }
+        ClassLoader frameworkLoader = MapperMethod.class.getClassLoader ();
+        if (isVisible (mapperInterface, frameworkLoader)) {
+            return frameworkLoader;
+        }
+        throw new BindingException ("No class loader can see both " + mapperInterface.getName () + " and " + MapperMethod.class.getName ());
+    }
+
+    private static boolean isVisible(Class<?> type, ClassLoader loader) {
+        try {
+            return Class.forName (type.getName (), false, loader) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private byte[] toBytes(String className) {
+        ConstantPool pool = new ConstantPool ();
+        int thisClass = pool.classRef (className);
+        int superClass = pool.classRef ("java/lang/Object");
+        int interfaceRef = pool.classRef (internalName (mapperInterface));
+        int codeName = pool.utf8 ("Code");
+
+        try {
+            ByteArrayOutputStream body = new ByteArrayOutputStream ();
+            DataOutputStream out = new DataOutputStream (body);
+            // 字段：每个方法一个MapperMethod，外加sqlSession
+            out.writeShort (methods.size () + 1);
+            for (int i = 0; i < methods.size (); i++) {
+                writeField (out, pool, "m" + i, "L" + MAPPER_METHOD + ";");
+            }
+            writeField (out, pool, "sqlSession", "L" + SQL_SESSION + ";");
+
+            out.writeShort (methods.size () + 1);
+            writeConstructor (out, pool, className, codeName);
+            for (int i = 0; i < methods.size (); i++) {
+                writeMethod (out, pool, className, codeName, i, methods.get (i));
+            }
+            // class attributes
+            out.writeShort (0);
+
+            ByteArrayOutputStream result = new ByteArrayOutputStream ();
+            DataOutputStream classFile = new DataOutputStream (result);
+            classFile.writeInt (0xCAFEBABE);
+            classFile.writeShort (0);
+            // Java 8
+            classFile.writeShort (52);
+            pool.writeTo (classFile);
+            // ACC_PUBLIC | ACC_FINAL | ACC_SUPER
+            classFile.writeShort (0x0031);
+            classFile.writeShort (thisClass);
+            classFile.writeShort (superClass);
+            classFile.writeShort (1);
+            classFile.writeShort (interfaceRef);
+            body.writeTo (classFile);
+            return result.toByteArray ();
+        } catch (IOException e) {
+            throw new BindingException ("Error generating mapper class for " + mapperInterface.getName () + ". Cause: " + e, e);
+        }
+    }
+
+    private static void writeField(DataOutputStream out, ConstantPool pool, String name, String descriptor) throws IOException {
+        // ACC_PRIVATE | ACC_FINAL
+        out.writeShort (0x0012);
+        out.writeShort (pool.utf8 (name));
+        out.writeShort (pool.utf8 (descriptor));
+        out.writeShort (0);
+    }
+
+    private void writeConstructor(DataOutputStream out, ConstantPool pool, String className, int codeName) throws IOException {
+        Code code = new Code ();
+        code.op (ALOAD_0);
+        code.op (INVOKESPECIAL).u2 (pool.methodRef ("java/lang/Object", "<init>", "()V"));
+        for (int i = 0; i < methods.size (); i++) {
+            code.op (ALOAD_0);
+            code.op (ALOAD_1);
+            code.pushInt (i);
+            code.op (AALOAD);
+            code.op (PUTFIELD).u2 (pool.fieldRef (className, "m" + i, "L" + MAPPER_METHOD + ";"));
+        }
+        code.op (ALOAD_0);
+        code.op (ALOAD_2);
+        code.op (PUTFIELD).u2 (pool.fieldRef (className, "sqlSession", "L" + SQL_SESSION + ";"));
+        code.op (RETURN);
+        writeMethodInfo (out, pool, codeName, 0x0001, "<init>", CONSTRUCTOR_DESCRIPTOR, code, 4, 3);
+    }
+
+    private void writeMethod(DataOutputStream out, ConstantPool pool, String className, int codeName, int index, Method method) throws IOException {
+        Class<?>[] parameterTypes = method.getParameterTypes ();
+        Code code = new Code ();
+        code.op (ALOAD_0);
+        code.op (GETFIELD).u2 (pool.fieldRef (className, "m" + index, "L" + MAPPER_METHOD + ";"));
+        code.op (ALOAD_0);
+        code.op (GETFIELD).u2 (pool.fieldRef (className, "sqlSession", "L" + SQL_SESSION + ";"));
+        int slot = 1;
+        if (parameterTypes.length == 0) {
+            // 没有参数时和动态代理一样传null，避免创建空数组
+            code.op (ACONST_NULL);
+        } else {
+            code.pushInt (parameterTypes.length);
+            code.op (ANEWARRAY).u2 (pool.classRef ("java/lang/Object"));
+            for (int i = 0; i < parameterTypes.length; i++) {
+                Class<?> type = parameterTypes[i];
+                code.op (DUP);
+                code.pushInt (i);
+                code.load (type, slot);
+                if (type.isPrimitive ()) {
+                    Class<?> wrapper = MethodType.methodType (type).wrap ().returnType ();
+                    code.op (INVOKESTATIC).u2 (pool.methodRef (internalName (wrapper), "valueOf",
+                            "(" + descriptor (type) + ")" + descriptor (wrapper)));
+                }
+                code.op (AASTORE);
+                slot += type == long.class || type == double.class ? 2 : 1;
+            }
+        }
+        code.op (INVOKEVIRTUAL).u2 (pool.methodRef (MAPPER_METHOD, "execute", EXECUTE_DESCRIPTOR));
+
+        Class<?> returnType = method.getReturnType ();
+        if (returnType == void.class) {
+            code.op (POP);
+            code.op (RETURN);
+        } else if (returnType.isPrimitive ()) {
+            // MapperMethod保证基本类型的返回值不为null
+            Class<?> wrapper = MethodType.methodType (returnType).wrap ().returnType ();
+            code.op (CHECKCAST).u2 (pool.classRef (internalName (wrapper)));
+            code.op (INVOKEVIRTUAL).u2 (pool.methodRef (internalName (wrapper), returnType.getName () + "Value", "()" + descriptor (returnType)));
+            code.returnValue (returnType);
+        } else {
+            if (returnType != Object.class) {
+                code.op (CHECKCAST).u2 (pool.classRef (internalName (returnType)));
+            }
+            code.op (ARETURN);
+        }
+        if (slot > 255) {
+            throw new BindingException ("Too many parameters to generate mapper method " + method);
+        }
+        writeMethodInfo (out, pool, codeName, 0x0001, method.getName (), methodDescriptor (method), code, 8, slot);
+    }
+
+    private static void writeMethodInfo(DataOutputStream out, ConstantPool pool, int codeName, int access, String name,
+                                        String descriptor, Code code, int maxStack, int maxLocals) throws IOException {
+        out.writeShort (access);
+        out.writeShort (pool.utf8 (name));
+        out.writeShort (pool.utf8 (descriptor));
+        // 只有Code一个属性
+        out.writeShort (1);
+        out.writeShort (codeName);
+        byte[] bytes = code.toByteArray ();
+        out.writeInt (12 + bytes.length);
+        out.writeShort (maxStack);
+        out.writeShort (maxLocals);
+        out.writeInt (bytes.length);
+        out.write (bytes);
+        // exception table
+        out.writeShort (0);
+        // code attributes
+        out.writeShort (0);
+    }
+
+    private static String internalName(Class<?> type) {
+        return type.getName ().replace ('.', '/');
+    }
+
+    private static String methodDescriptor(Method method) {
+        StringBuilder builder = new StringBuilder ("(");
+        for (Class<?> type : method.getParameterTypes ()) {
+            builder.append (descriptor (type));
+        }
+        return builder.append (')').append (descriptor (method.getReturnType ())).toString ();
+    }
+
+    private static String descriptor(Class<?> type) {
+        if (type.isPrimitive ()) {
+            return String.valueOf (PRIMITIVE_DESCRIPTORS.get (type));
+        } else if (type.isArray ()) {
+            return internalName (type);
+        }
+        return "L" + internalName (type) + ";";
+    }
+
+    private static final Map<Class<?>, Character> PRIMITIVE_DESCRIPTORS = new HashMap<> ();
+
+    static {
+        PRIMITIVE_DESCRIPTORS.put (void.class, 'V');
+        PRIMITIVE_DESCRIPTORS.put (boolean.class, 'Z');
+        PRIMITIVE_DESCRIPTORS.put (byte.class, 'B');
+        PRIMITIVE_DESCRIPTORS.put (char.class, 'C');
+        PRIMITIVE_DESCRIPTORS.put (short.class, 'S');
+        PRIMITIVE_DESCRIPTORS.put (int.class, 'I');
+        PRIMITIVE_DESCRIPTORS.put (long.class, 'J');
+        PRIMITIVE_DESCRIPTORS.put (float.class, 'F');
+        PRIMITIVE_DESCRIPTORS.put (double.class, 'D');
+    }
+
+    // 用到的字节码指令
+    private static final int ACONST_NULL = 0x01;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int ILOAD = 0x15;
+    private static final int LLOAD = 0x16;
+    private static final int FLOAD = 0x17;
+    private static final int DLOAD = 0x18;
+    private static final int ALOAD = 0x19;
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int ALOAD_2 = 0x2c;
+    private static final int AALOAD = 0x32;
+    private static final int AASTORE = 0x53;
+    private static final int POP = 0x57;
+    private static final int DUP = 0x59;
+    private static final int IRETURN = 0xac;
+    private static final int LRETURN = 0xad;
+    private static final int FRETURN = 0xae;
+    private static final int DRETURN = 0xaf;
+    private static final int ARETURN = 0xb0;
+    private static final int RETURN = 0xb1;
+    private static final int GETFIELD = 0xb4;
+    private static final int PUTFIELD = 0xb5;
+    private static final int INVOKEVIRTUAL = 0xb6;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+    private static final int ANEWARRAY = 0xbd;
+    private static final int CHECKCAST = 0xc0;
+
+    // 方法体的字节码
+    private static class Code {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream ();
+
+        Code op(int opcode) {
+            bytes.write (opcode);
+            return this;
+        }
+
+        Code u2(int value) {
+            bytes.write (value >>> 8);
+            bytes.write (value);
+            return this;
+        }
+
+        void pushInt(int value) {
+            if (value <= 5) {
+                // iconst_0 ~ iconst_5
+                op (0x03 + value);
+            } else if (value <= Byte.MAX_VALUE) {
+                op (BIPUSH);
+                bytes.write (value);
+            } else {
+                op (SIPUSH).u2 (value);
+            }
+        }
+
+        void load(Class<?> type, int slot) {
+            int opcode;
+            if (!type.isPrimitive ()) {
+                opcode = ALOAD;
+            } else if (type == long.class) {
+                opcode = LLOAD;
+            } else if (type == float.class) {
+                opcode = FLOAD;
+            } else if (type == double.class) {
+                opcode = DLOAD;
+            } else {
+                opcode = ILOAD;
+            }
+            op (opcode);
+            bytes.write (slot);
+        }
+
+        void returnValue(Class<?> type) {
+            if (type == long.class) {
+                op (LRETURN);
+            } else if (type == float.class) {
+                op (FRETURN);
+            } else if (type == double.class) {
+                op (DRETURN);
+            } else {
+                op (IRETURN);
+            }
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray ();
+        }
+    }
+
+    // 常量池，相同的常量只写一次
+    private static class ConstantPool {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream ();
+
+        private final DataOutputStream out = new DataOutputStream (bytes);
+
+        private final Map<String, Integer> entries = new HashMap<> ();
+
+        private int count = 1;
+
+        int utf8(String value) {
+            Integer index = entries.get ("U" + value);
+            if (index != null) {
+                return index;
+            }
+            try {
+                out.writeByte (1);
+                out.writeUTF (value);
+            } catch (IOException e) {
+                throw new IllegalStateException (e);
+            }
+            return register ("U" + value);
+        }
+
+        int classRef(String internalName) {
+            return entry ("C" + internalName, 7, utf8 (internalName), -1);
+        }
+
+        int fieldRef(String owner, String name, String descriptor) {
+            return entry ("F" + owner + "." + name + descriptor, 9, classRef (owner), nameAndType (name, descriptor));
+        }
+
+        int methodRef(String owner, String name, String descriptor) {
+            return entry ("M" + owner + "." + name + descriptor, 10, classRef (owner), nameAndType (name, descriptor));
+        }
+
+        private int nameAndType(String name, String descriptor) {
+            return entry ("N" + name + descriptor, 12, utf8 (name), utf8 (descriptor));
+        }
+
+        private int entry(String key, int tag, int first, int second) {
+            Integer index = entries.get (key);
+            if (index != null) {
+                return index;
+            }
+            try {
+                out.writeByte (tag);
+                out.writeShort (first);
+                if (second >= 0) {
+                    out.writeShort (second);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException (e);
+            }
+            return register (key);
+        }
+
+        private int register(String key) {
+            int index = count++;
+            entries.put (key, index);
+            return index;
+        }
+
+        void writeTo(DataOutputStream classFile) throws IOException {
+            classFile.writeShort (count);
+            bytes.writeTo (classFile);
+        }
+    }
+
+    // 每个生成类使用单独的类加载器，mapper不再使用时可以一起被回收
+    private static class MapperClassLoader extends ClassLoader {
+
+        MapperClassLoader(ClassLoader parent) {
+            super (parent);
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass (name, bytes, 0, bytes.length);
+        }
+    }
+}
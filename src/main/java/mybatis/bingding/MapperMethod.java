@@ -1,9 +1,23 @@
 package mybatis.bingding;
 
-import mybatis.dynamicInterfaceProxy.MapperInterface;
+import mybatis.cursor.Cursor;
+import mybatis.executor.ExecutorException;
+import mybatis.executor.parameter.BoundParameters;
+import mybatis.executor.resultset.RowMapperFactory;
+import mybatis.metrics.StatementMetrics;
 
 import java.lang.reflect.Method;
-import java.util.Optional;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * 类名称: MapperMethod
@@ -17,59 +31,248 @@ public class MapperMethod<T> {
 
     private final SqlCommand command;
 
+    private final MethodSignature method;
+
     private final Configuration configuration;
 
+    // 结果映射，第一次查询时生成，之后同一个方法的查询直接复用
+    private final RowMapperFactory<Object> rowMapperFactory;
+
+    // #{}参数的绑定计划
+    private final ParameterPlan parameterPlan;
+
+    // 语句的调用统计，没有开启时为null
+    private final StatementMetrics metrics;
+
+    @SuppressWarnings("unchecked")
     public MapperMethod(Class<T> mapperInterface, Method method, Configuration configuration) {
 
         this.configuration = configuration;
-        String nameSpace = mapperInterface.getName ();
-        method.getName ();
-        MappedStatement mappedStatement = configuration.mappedStatements.get (mapperInterface.getName () + "." + method.getName ());
-        command = new SqlCommand (mappedStatement.getName (), mappedStatement.getType (), mappedStatement.getSql ());
+        MappedStatement mappedStatement = configuration.getMappedStatement (mapperInterface.getName (), method.getName ());
+        if (mappedStatement == null) {
+            throw new BindingException ("Invalid bound statement (not found): " + mapperInterface.getName () + "." + method.getName ());
+        }
+        this.command = new SqlCommand (mappedStatement);
+        this.method = new MethodSignature (method);
+        // select元素配置了resultType时优先使用，否则按方法的返回类型
+        Class<?> resultType = mappedStatement.getResultType () != null ? mappedStatement.getResultType () : this.method.getResultType ();
+        this.rowMapperFactory = (RowMapperFactory<Object>) RowMapperFactory.forType (resultType);
+        this.parameterPlan = new ParameterPlan (method, mappedStatement, configuration.getJdbcTypeForNull ());
+        this.metrics = configuration.isStatementMetricsEnabled () ? configuration.getStatementMetrics ().statement (mappedStatement.getName ()) : null;
+        if (this.method.returnsPublisher () && command.getType () != SqlCommandType.SELECT) {
+            throw new BindingException ("Mapper method '" + mapperInterface.getName () + "." + method.getName () + "' returns a Publisher but is not a select");
+        }
     }
 
-    public Object execute(SqlSessionFactory sqlSessionFactory ) {
+    public Object execute(SqlSession sqlSession, Object[] args) {
+        BoundParameters parameters = parameterPlan.bind (args);
+        if (method.returnsFuture ()) {
+            // 参数在调用线程上绑定，之后修改参数对象不影响语句
+            return sqlSession.executeAsync (session -> execute (session, parameters));
+        }
+        return execute (sqlSession, parameters);
+    }
+
+    // 异步执行时在执行线程上计时，不包括排队等待的时间；游标只统计打开的耗时，行数不计
+    private Object execute(SqlSession sqlSession, BoundParameters parameters) {
+        if (method.returnsPublisher ()) {
+            // Publisher在订阅时才执行，不计入统计
+            return sqlSession.selectPublisher (command.getMappedStatement (), parameters, rowMapperFactory);
+        }
+        long start = metrics == null ? 0L : System.nanoTime ();
+        long rows = 0L;
         Object result ;
-        switch (command.getType ()) {
-            case INSERT:
-                result = sqlSessionFactory.insert (command.getSql ());
-                break;
+        try {
+            switch (command.getType ()) {
+                case INSERT:
+                    int rowCount = sqlSession.insert (command.getMappedStatement (), parameters);
+                    // 批量模式返回BATCH_UPDATE_RETURN_VALUE，影响行数要到flush时才知道，不计入统计
+                    rows = rowCount < 0 ? 0L : rowCount;
+                    result = rowCountResult (rowCount);
+                    break;
 
-            case SELECT:
-                result = sqlSessionFactory.select (command.getSql ());
-                break;
+                case SELECT:
+                    if (method.returnsCursor ()) {
+                        result = executeForCursor (sqlSession, parameters);
+                    } else if (method.returnsMany ()) {
+                        List<Object> list = sqlSession.select (command.getMappedStatement (), parameters, rowMapperFactory);
+                        rows = list.size ();
+                        result = list;
+                    } else {
+                        result = sqlSession.selectOne (command.getMappedStatement (), parameters, rowMapperFactory);
+                        rows = result == null ? 0L : 1L;
+                    }
+                    break;
 
-            default:
-                // do nothing
-                result = null;
+                default:
+                    // do nothing
+                    result = null;
+            }
+        } catch (RuntimeException | Error e) {
+            if (metrics != null) {
+                metrics.recordError (System.nanoTime () - start);
+            }
+            throw e;
+        }
+        if (metrics != null) {
+            metrics.record (System.nanoTime () - start, rows);
+        }
+        if (result == null && method.getReturnType ().isPrimitive () && method.getReturnType () != void.class) {
+            throw new BindingException ("Mapper method '" + command.getName () + "' attempted to return null from a method with a primitive return type (" + method.getReturnType () + ").");
         }
         return result;
     }
 
-    public static class SqlCommand {
+    // 返回Cursor、Stream或Iterator，结果在遍历时才逐行读取
+    private Object executeForCursor(SqlSession sqlSession, BoundParameters parameters) {
+        Cursor<Object> cursor = sqlSession.selectCursor (command.getMappedStatement (), parameters, rowMapperFactory);
+        Class<?> returnType = method.getReturnType ();
+        if (Stream.class.equals (returnType)) {
+            // 关闭Stream时关闭游标
+            return StreamSupport.stream (Spliterators.spliteratorUnknownSize (cursor.iterator (), Spliterator.ORDERED), false)
+                    .onClose (cursor::close);
+        } else if (Iterator.class.equals (returnType)) {
+            // Iterator没有close方法，只能在遍历完时关闭语句
+            return cursor.iterator ();
+        }
+        return cursor;
+    }
 
-        private final String name;
+    // 按照方法的返回类型转换影响行数
+    private Object rowCountResult(int rowCount) {
+        Class<?> returnType = method.getReturnType ();
+        if (returnType == void.class || returnType == Void.class) {
+            return null;
+        } else if (returnType == Integer.class || returnType == int.class) {
+            return rowCount;
+        } else if (returnType == Long.class || returnType == long.class) {
+            return (long) rowCount;
+        } else if (returnType == Boolean.class || returnType == boolean.class) {
+            return rowCount > 0;
+        } else {
+            throw new ExecutorException ("Mapper method '" + command.getName () + "' has an unsupported return type: " + returnType);
+        }
+    }
 
-        private final SqlCommandType type;
+    public static class SqlCommand {
 
-        private final String sql;
+        private final MappedStatement mappedStatement;
 
-        public SqlCommand(String name, SqlCommandType type,String sql) {
-            this.name = name;
-            this.type = type;
-            this.sql = sql;
+        public SqlCommand(MappedStatement mappedStatement) {
+            this.mappedStatement = mappedStatement;
         }
 
         public String getName() {
-            return name;
+            return mappedStatement.getName ();
         }
 
         public String getSql() {
-            return sql;
+            return mappedStatement.getSql ();
         }
 
         public SqlCommandType getType() {
-            return type;
+            return mappedStatement.getType ();
+        }
+
+        public MappedStatement getMappedStatement() {
+            return mappedStatement;
+        }
+    }
+
+    public static class MethodSignature {
+
+        // 返回CompletableFuture时为它的类型参数
+        private final Class<?> returnType;
+
+        // 返回CompletableFuture时在独立的会话中异步执行
+        private final boolean returnsFuture;
+
+        // 单个结果的类型，集合、游标等取泛型参数
+        private final Class<?> resultType;
+
+        // 返回集合类型时执行select，否则执行selectOne
+        private final boolean returnsMany;
+
+        // 返回Cursor、Stream或Iterator时逐行读取
+        private final boolean returnsCursor;
+
+        // 返回Flow.Publisher时按订阅者的需求逐行读取
+        private final boolean returnsPublisher;
+
+        public MethodSignature(Method method) {
+            Type genericReturnType = method.getGenericReturnType ();
+            this.returnsFuture = CompletableFuture.class.equals (method.getReturnType ());
+            if (returnsFuture) {
+                genericReturnType = typeArgument (genericReturnType);
+                this.returnType = rawType (genericReturnType);
+            } else {
+                this.returnType = method.getReturnType ();
+            }
+            this.returnsMany = Collection.class.isAssignableFrom (returnType);
+            if (returnsMany && !returnType.isAssignableFrom (List.class)) {
+                // 查询结果总是List，Set、Queue等类型在调用方会ClassCastException
+                throw new BindingException ("Mapper method '" + method + "' returns " + returnType.getName ()
+                        + ", only List and Collection results are supported");
+            }
+            this.returnsCursor = Cursor.class.equals (returnType) || Stream.class.equals (returnType) || Iterator.class.equals (returnType);
+            this.returnsPublisher = Flow.Publisher.class.equals (returnType);
+            if (returnsFuture && (returnsCursor || returnsPublisher)) {
+                // 异步执行的会话在语句执行完就关闭了，游标无法继续读取
+                throw new BindingException ("Mapper method '" + method + "' cannot return a cursor inside a CompletableFuture");
+            }
+            this.resultType = returnsMany || returnsCursor || returnsPublisher ? elementType (genericReturnType) : returnType;
+        }
+
+        private static Type typeArgument(Type type) {
+            if (type instanceof ParameterizedType) {
+                return ((ParameterizedType) type).getActualTypeArguments ()[0];
+            }
+            return Object.class;
+        }
+
+        private static Class<?> rawType(Type type) {
+            if (type instanceof Class) {
+                return (Class<?>) type;
+            } else if (type instanceof ParameterizedType) {
+                return (Class<?>) ((ParameterizedType) type).getRawType ();
+            }
+            return Object.class;
+        }
+
+        private static Class<?> elementType(Type type) {
+            if (type instanceof ParameterizedType) {
+                Type argument = ((ParameterizedType) type).getActualTypeArguments ()[0];
+                if (argument instanceof Class) {
+                    return (Class<?>) argument;
+                } else if (argument instanceof ParameterizedType) {
+                    return (Class<?>) ((ParameterizedType) argument).getRawType ();
+                }
+            }
+            return Object.class;
+        }
+
+        public Class<?> getResultType() {
+            return resultType;
+        }
+
+        public Class<?> getReturnType() {
+            return returnType;
+        }
+
+        public boolean returnsMany() {
+            return returnsMany;
+        }
+
+        public boolean returnsCursor() {
+            return returnsCursor;
+        }
+
+        public boolean returnsPublisher() {
+            return returnsPublisher;
+        }
+
+        public boolean returnsFuture() {
+            return returnsFuture;
         }
     }
 
@@ -0,0 +1,65 @@
+package mybatis.bingding;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * 类名称: MapperMethodTable
+ * 功能描述: Method -> MapperMethod 的只读分派表，创建后不再修改。
+ * 开放寻址，按方法名的hash定位（String的hash有缓存），先比较引用再equals，查找不加锁也不分配对象
+ * 日期:  2026/10/18 17:00
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public final class MapperMethodTable {
+
+    private final Method[] keys;
+
+    private final MapperMethod<?>[] values;
+
+    private final int mask;
+
+    private final int size;
+
+    public MapperMethodTable(Map<Method, MapperMethod<?>> methods) {
+        int capacity = 2;
+        while (capacity < methods.size () * 2) {
+            capacity <<= 1;
+        }
+        this.keys = new Method[capacity];
+        this.values = new MapperMethod<?>[capacity];
+        this.mask = capacity - 1;
+        this.size = methods.size ();
+        for (Map.Entry<Method, MapperMethod<?>> entry : methods.entrySet ()) {
+            int index = hash (entry.getKey ()) & mask;
+            while (keys[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = entry.getKey ();
+            values[index] = entry.getValue ();
+        }
+    }
+
+    // 没有找到时返回null
+    public MapperMethod<?> get(Method method) {
+        int index = hash (method) & mask;
+        Method key;
+        while ((key = keys[index]) != null) {
+            if (key == method || key.equals (method)) {
+                return values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static int hash(Method method) {
+        int h = method.getName ().hashCode ();
+        return h ^ (h >>> 16);
+    }
+}
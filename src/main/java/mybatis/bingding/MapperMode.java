@@ -0,0 +1,18 @@
+package mybatis.bingding;
+
+/**
+ * 类名称: MapperMode
+ * 功能描述: mapper接口实例的实现方式
+ * 日期:  2026/10/18 16:40
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public enum MapperMode {
+
+    // java.lang.reflect.Proxy动态代理
+    JDK_PROXY,
+    // 启动时生成实现类，方法直接调用MapperMethod，生成失败时退回动态代理
+    GENERATED_CLASS;
+
+}
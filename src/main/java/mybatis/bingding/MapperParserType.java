@@ -0,0 +1,18 @@
+package mybatis.bingding;
+
+/**
+ * 类名称: MapperParserType
+ * 功能描述: 解析mapper文件的方式
+ * 日期:  2026/10/18 19:20
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public enum MapperParserType {
+
+    // XPathParser构建DOM，再用xpath取出语句
+    XPATH,
+    // StAX流式读取，不构建DOM，一遍读完直接生成MappedStatement
+    STAX;
+
+}
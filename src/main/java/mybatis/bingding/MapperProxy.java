@@ -1,11 +1,12 @@
 package mybatis.bingding;
 
-import mybatis.dynamicProxy.FlyInterface;
-
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -21,33 +22,60 @@ public class MapperProxy<T> implements InvocationHandler, Serializable {
 
     private final Class<T> mapperInterface;
 
-    // MapperMethod缓存
-    private final Map<Method, MapperMethod> methodCache;
+    // MapperMethod分派表，MapperProxyFactroy创建时已经解析好所有方法
+    private final MapperMethodTable methodCache;
+
+    // 接口的default方法，和生成类一样调用接口里的实现，参数为(proxy, Object[] args)
+    private final Map<Method, MethodHandle> defaultMethods;
 
-    private final SqlSessionFactory sqlSessionFactory;
+    private final SqlSession sqlSession;
 
-    public MapperProxy(Class<T> mapperInterface, Map<Method, MapperMethod> methodCache, SqlSessionFactory sqlSessionFactory) {
+    public MapperProxy(Class<T> mapperInterface, MapperMethodTable methodCache, SqlSession sqlSession) {
+        this (mapperInterface, methodCache, defaultMethods (mapperInterface), sqlSession);
+    }
+
+    MapperProxy(Class<T> mapperInterface, MapperMethodTable methodCache, Map<Method, MethodHandle> defaultMethods, SqlSession sqlSession) {
         this.mapperInterface = mapperInterface;
         this.methodCache = methodCache;
-        this.sqlSessionFactory = sqlSessionFactory;
+        this.defaultMethods = defaultMethods;
+        this.sqlSession = sqlSession;
+    }
+
+    // 创建代理前解析一次，之后只读
+    static Map<Method, MethodHandle> defaultMethods(Class<?> mapperInterface) {
+        Map<Method, MethodHandle> handles = new HashMap<> ();
+        for (Method method : mapperInterface.getMethods ()) {
+            if (!method.isDefault () || Modifier.isStatic (method.getModifiers ())) {
+                continue;
+            }
+            Class<?> declaringClass = method.getDeclaringClass ();
+            try {
+                MethodHandle handle = MethodHandles.privateLookupIn (declaringClass, MethodHandles.lookup ())
+                        .unreflectSpecial (method, declaringClass);
+                handles.put (method, handle.asType (handle.type ().generic ()).asSpreader (Object[].class, method.getParameterCount ()));
+            } catch (IllegalAccessException e) {
+                throw new BindingException ("Error accessing default method " + method + ". Cause: " + e, e);
+            }
+        }
+        return handles.isEmpty () ? Collections.emptyMap () : handles;
     }
 
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
 
-        MapperMethod mt = cachedMapperMethod (method);
-        return mt.execute (sqlSessionFactory);
-    }
-
-    // 查找缓存
-    private MapperMethod cachedMapperMethod(Method method) {
-        MapperMethod mapperMethod = methodCache.get (method);
-        if (mapperMethod == null) {
-            // 缓存没有命中，新增
-            mapperMethod = new MapperMethod (mapperInterface, method,sqlSessionFactory.getConfiguration ());
-            methodCache.put (method, mapperMethod);
+        MapperMethod<?> mt = methodCache.get (method);
+        if (mt == null) {
+            // toString、hashCode、equals等Object的方法
+            if (Object.class.equals (method.getDeclaringClass ())) {
+                return method.invoke (this, args);
+            }
+            MethodHandle defaultMethod = defaultMethods.get (method);
+            if (defaultMethod != null) {
+                return defaultMethod.invokeExact (proxy, args);
+            }
+            throw new BindingException ("Method " + method + " is not bound to a mapped statement of " + mapperInterface.getName ());
         }
-        return mapperMethod;
+        return mt.execute (sqlSession, args);
     }
 
 }
@@ -1,10 +1,14 @@
 package mybatis.bingding;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * 类名称: MapperProxyFactroy
@@ -16,18 +20,67 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class MapperProxyFactroy<T> {
 
+    private static final Logger LOGGER = Logger.getLogger (MapperProxyFactroy.class.getName ());
+
     private final Class<T> mapperInterface;
 
-    // 缓存
-    private Map<Method, MapperMethod> methodCache = new ConcurrentHashMap<> ();
+    // 缓存，创建时解析接口的所有方法，之后只读
+    private final MapperMethodTable methodCache;
+
+    // GENERATED_CLASS模式下生成的实现类的构造函数，参数为(MapperMethod[], SqlSession)
+    private final MethodHandle generatedConstructor;
+
+    private final MapperMethod<?>[] generatedMethods;
 
-    public MapperProxyFactroy(Class<T> mapperInterface) {
+    // 动态代理调用default方法的句柄，生成类直接继承接口的实现
+    private final Map<Method, MethodHandle> defaultMethods;
+
+    // 每个方法都必须有对应的MappedStatement，否则创建时直接失败
+    public MapperProxyFactroy(Class<T> mapperInterface, Configuration configuration) {
         this.mapperInterface = mapperInterface;
+        Map<Method, MapperMethod<?>> methods = new LinkedHashMap<> ();
+        for (Method method : mapperInterface.getMethods ()) {
+            if (!Modifier.isStatic (method.getModifiers ()) && !method.isDefault ()) {
+                methods.put (method, new MapperMethod<> (mapperInterface, method, configuration));
+            }
+        }
+        this.methodCache = new MapperMethodTable (methods);
+        this.defaultMethods = MapperProxy.defaultMethods (mapperInterface);
+
+        MethodHandle constructor = null;
+        MapperMethod<?>[] mapperMethods = null;
+        if (configuration.getMapperMode () == MapperMode.GENERATED_CLASS) {
+            MapperClassGenerator generator = new MapperClassGenerator (mapperInterface);
+            List<Method> generatedMethods = generator.getMethods ();
+            mapperMethods = new MapperMethod<?>[generatedMethods.size ()];
+            for (int i = 0; i < mapperMethods.length; i++) {
+                // 和动态代理共用MapperMethod
+                mapperMethods[i] = methodCache.get (generatedMethods.get (i));
+            }
+            try {
+                constructor = generator.generate ();
+            } catch (BindingException e) {
+                // 比如接口或者方法签名中的类型不是public，退回到动态代理
+                LOGGER.log (Level.WARNING, "Generating mapper class failed, using JDK proxy for " + mapperInterface.getName (), e);
+            }
+        }
+        this.generatedConstructor = constructor;
+        this.generatedMethods = mapperMethods;
     }
 
 
-    public T newInstance(SqlSessionFactory sqlSessionFactory){
-        final MapperProxy<T> mapperProxy = new MapperProxy<> (mapperInterface, methodCache,sqlSessionFactory);
+    @SuppressWarnings("unchecked")
+    public T newInstance(SqlSession sqlSession){
+        if (generatedConstructor != null) {
+            try {
+                return (T) generatedConstructor.invoke (generatedMethods, sqlSession);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new BindingException ("Error creating mapper instance for " + mapperInterface.getName () + ". Cause: " + t, t);
+            }
+        }
+        final MapperProxy<T> mapperProxy = new MapperProxy<> (mapperInterface, methodCache, defaultMethods, sqlSession);
         return (T)Proxy.newProxyInstance (mapperInterface.getClassLoader (), new Class[]{mapperInterface}, mapperProxy);
     }
 
@@ -0,0 +1,36 @@
+package mybatis.bingding;
+
+/**
+ * 类名称: ParameterMapping
+ * 功能描述: sql中的一个#{}参数，按出现的顺序对应预编译sql中的一个?
+ * 日期:  2026/10/18 15:05
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class ParameterMapping {
+
+    // 参数名或属性路径，如 id、user.address.city
+    private final String property;
+
+    // jdbcType属性对应的java.sql.Types值，没有配置时为null
+    private final Integer jdbcType;
+
+    public ParameterMapping(String property, Integer jdbcType) {
+        this.property = property;
+        this.jdbcType = jdbcType;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Integer getJdbcType() {
+        return jdbcType;
+    }
+
+    @Override
+    public String toString() {
+        return "ParameterMapping{property='" + property + "', jdbcType=" + jdbcType + "}";
+    }
+}
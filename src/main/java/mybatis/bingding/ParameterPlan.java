@@ -0,0 +1,158 @@
+package mybatis.bingding;
+
+import mybatis.annotations.Param;
+import mybatis.executor.parameter.BoundParameters;
+import mybatis.executor.parameter.ParameterSetter;
+import mybatis.executor.parameter.ParameterSetters;
+import mybatis.reflection.PropertyAccessor;
+import mybatis.reflection.PropertyAccessors;
+import mybatis.reflection.ReflectionException;
+import mybatis.scripting.DynamicSqlSource;
+import mybatis.scripting.ParameterBindings;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 类名称: ParameterPlan
+ * 功能描述: 参数绑定计划。创建MapperMethod时把每个#{}解析为 方法参数下标 + 属性读取链 + setXxx方法，
+ * 每次调用只按位置取值，不再解析参数名和sql。动态sql的#{}在渲染时才确定，只预先生成参数名的对应关系
+ * 日期:  2026/10/18 15:50
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class ParameterPlan {
+
+    private final int[] argIndexes;
+
+    private final PropertyAccessor[] accessors;
+
+    private final ParameterSetter[] setters;
+
+    private final int[] nullTypes;
+
+    private final DynamicSqlSource dynamicSqlSource;
+
+    private final ParameterBindings bindings;
+
+    private final int jdbcTypeForNull;
+
+    public ParameterPlan(Method method, MappedStatement mappedStatement, int jdbcTypeForNull) {
+        this (method, mappedStatement.getParameterMappings (), mappedStatement.getDynamicSqlSource (), jdbcTypeForNull);
+    }
+
+    public ParameterPlan(Method method, List<ParameterMapping> parameterMappings, int jdbcTypeForNull) {
+        this (method, parameterMappings, null, jdbcTypeForNull);
+    }
+
+    private ParameterPlan(Method method, List<ParameterMapping> parameterMappings, DynamicSqlSource dynamicSqlSource, int jdbcTypeForNull) {
+        this.dynamicSqlSource = dynamicSqlSource;
+        this.jdbcTypeForNull = jdbcTypeForNull;
+        int size = parameterMappings.size ();
+        this.argIndexes = new int[size];
+        this.accessors = new PropertyAccessor[size];
+        this.setters = new ParameterSetter[size];
+        this.nullTypes = new int[size];
+
+        Class<?>[] parameterTypes = method.getParameterTypes ();
+        Map<String, Integer> names = parameterNames (method);
+        // 只有一个没有@Param的参数时，#{}直接引用这个参数或它的属性
+        boolean singleParam = parameterTypes.length == 1 && !hasParamAnnotation (method.getParameterAnnotations ()[0]);
+        if (dynamicSqlSource == null) {
+            this.bindings = null;
+        } else {
+            Class<?> singleType = singleParam ? parameterTypes[0] : null;
+            this.bindings = new ParameterBindings (names, singleType,
+                    singleParam && (ParameterSetters.isSimpleType (singleType) || singleType.isPrimitive ()));
+        }
+        for (int i = 0; i < size; i++) {
+            ParameterMapping mapping = parameterMappings.get (i);
+            String property = mapping.getProperty ();
+            int dot = property.indexOf ('.');
+            String root = dot < 0 ? property : property.substring (0, dot);
+            String path = dot < 0 ? null : property.substring (dot + 1);
+            if (singleParam) {
+                argIndexes[i] = 0;
+                Class<?> type = parameterTypes[0];
+                if (ParameterSetters.isSimpleType (type) || type.isPrimitive ()) {
+                    path = null;
+                } else if (!names.containsKey (root) || PropertyAccessors.hasProperty (type, root)) {
+                    path = property;
+                }
+            } else {
+                Integer index = names.get (root);
+                if (index == null) {
+                    throw new BindingException ("Parameter '" + root + "' not found in " + method + ". Available parameters are " + names.keySet ());
+                }
+                argIndexes[i] = index;
+            }
+            Class<?> argType = parameterTypes[argIndexes[i]];
+            Class<?> valueType = argType;
+            if (path == null) {
+                accessors[i] = PropertyAccessors.IDENTITY;
+            } else {
+                try {
+                    PropertyAccessors.CompiledProperty compiled = PropertyAccessors.compile (argType, path);
+                    accessors[i] = compiled.getAccessor ();
+                    valueType = compiled.getType ();
+                } catch (ReflectionException e) {
+                    throw new BindingException ("Error binding parameter '" + property + "' of " + method + ". Cause: " + e.getMessage (), e);
+                }
+            }
+            setters[i] = ParameterSetters.forType (valueType);
+            nullTypes[i] = mapping.getJdbcType () != null ? mapping.getJdbcType () : jdbcTypeForNull;
+        }
+    }
+
+    public BoundParameters bind(Object[] args) {
+        if (dynamicSqlSource != null) {
+            return dynamicSqlSource.bind (args, bindings, jdbcTypeForNull);
+        }
+        if (argIndexes.length == 0) {
+            return BoundParameters.EMPTY;
+        }
+        Object[] values = new Object[argIndexes.length];
+        for (int i = 0; i < argIndexes.length; i++) {
+            Object arg = args[argIndexes[i]];
+            values[i] = arg == null ? null : accessors[i].get (arg);
+        }
+        return new BoundParameters (values, setters, nullTypes);
+    }
+
+    // @Param的值、编译时保留的参数名（-parameters）以及param1、param2...
+    private static Map<String, Integer> parameterNames(Method method) {
+        Map<String, Integer> names = new LinkedHashMap<> ();
+        Parameter[] parameters = method.getParameters ();
+        Annotation[][] annotations = method.getParameterAnnotations ();
+        for (int i = 0; i < parameters.length; i++) {
+            String name = null;
+            for (Annotation annotation : annotations[i]) {
+                if (annotation instanceof Param) {
+                    name = ((Param) annotation).value ();
+                }
+            }
+            if (name == null) {
+                name = parameters[i].getName ();
+            }
+            names.put (name, i);
+        }
+        for (int i = 0; i < parameters.length; i++) {
+            names.putIfAbsent ("param" + (i + 1), i);
+        }
+        return names;
+    }
+
+    private static boolean hasParamAnnotation(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof Param) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,28 @@
+package mybatis.bingding;
+
+import java.sql.ResultSet;
+
+/**
+ * 类名称: ResultSetType
+ * 功能描述: 查询结果集的游标类型，对应select元素的resultSetType属性
+ * 日期:  2026/10/18 10:20
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public enum ResultSetType {
+
+    FORWARD_ONLY (ResultSet.TYPE_FORWARD_ONLY),
+    SCROLL_INSENSITIVE (ResultSet.TYPE_SCROLL_INSENSITIVE),
+    SCROLL_SENSITIVE (ResultSet.TYPE_SCROLL_SENSITIVE);
+
+    private final int value;
+
+    ResultSetType(int value) {
+        this.value = value;
+    }
+
+    public int getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,57 @@
+package mybatis.bingding;
+
+import mybatis.cursor.Cursor;
+import mybatis.executor.BatchResult;
+import mybatis.executor.parameter.BoundParameters;
+import mybatis.executor.resultset.RowMapperFactory;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+
+/**
+ * 类名称: SqlSession
+ * 功能描述: 一次工作单元，由SqlSessionFactory打开，mapper通过MapperProxyFactroy.newInstance绑定到会话上
+ * 日期:  2026/10/18 21:00
+ *
+ * 会话持有一个执行器（连接）直到关闭，查询结果在会话内缓存，任何insert、commit、rollback都会清空；
+ * 不是线程安全的，一个会话只在一个线程中使用
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public interface SqlSession extends Closeable {
+
+    int insert(MappedStatement ms, BoundParameters parameters);
+
+    <E> List<E> select(MappedStatement ms, BoundParameters parameters, RowMapperFactory<E> rowMapperFactory);
+
+    <T> T selectOne(MappedStatement ms, BoundParameters parameters, RowMapperFactory<T> rowMapperFactory);
+
+    // 游标不经过缓存，会话关闭时没有关闭的游标也随之失效
+    <E> Cursor<E> selectCursor(MappedStatement ms, BoundParameters parameters, RowMapperFactory<E> rowMapperFactory);
+
+    // 每次订阅时在SqlSessionFactory的异步执行器上打开一个新的自动提交会话执行查询，按request的数量逐行推送
+    <E> Flow.Publisher<E> selectPublisher(MappedStatement ms, BoundParameters parameters, RowMapperFactory<E> rowMapperFactory);
+
+    // 在SqlSessionFactory的异步执行器上打开一个新的自动提交会话执行statement，看不到这个会话没有提交的修改
+    <T> CompletableFuture<T> executeAsync(Function<SqlSession, T> statement);
+
+    // 执行BATCH会话中缓冲的insert，返回每个批次的影响行数
+    List<BatchResult> flushStatements();
+
+    List<BatchResult> commit();
+
+    void rollback();
+
+    // 清空会话内的查询缓存
+    void clearCache();
+
+    Configuration getConfiguration();
+
+    // 没有提交的修改会回滚，连接归还给SqlSessionFactory
+    @Override
+    void close();
+}
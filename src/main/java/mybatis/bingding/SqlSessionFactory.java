@@ -1,13 +1,25 @@
 package mybatis.bingding;
 
-import mybatis.parsing.XNode;
-import mybatis.parsing.XPathParser;
-import mybatis.util.Resources;
+import mybatis.cursor.Cursor;
+import mybatis.datasource.ReadWriteDataSource;
+import mybatis.executor.BatchExecutor;
+import mybatis.executor.Executor;
+import mybatis.executor.ExecutorException;
+import mybatis.executor.ExecutorType;
+import mybatis.executor.ReuseExecutor;
+import mybatis.executor.SimpleExecutor;
+import mybatis.executor.StatementCacheStats;
+import mybatis.metrics.SlowStatementLog;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.Reader;
-import java.util.List;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * 类名称: SqlSessionFactory
@@ -21,25 +33,259 @@ public class SqlSessionFactory {
 
     private final Configuration configuration;
 
-    public SqlSessionFactory(Configuration configuration) {
+    private final DataSource dataSource;
+
+    // REUSE模式下空闲的执行器，每个执行器独占一个连接和它的语句缓存
+    private final IdleExecutors idleExecutors;
+
+    // 数据源是ReadWriteDataSource时读写分离，否则为null
+    private final ReadWriteDataSource readWriteDataSource;
+
+    // 每个只读副本自己的空闲执行器
+    private final IdleExecutors[] replicaIdleExecutors;
+
+    private final StatementCacheStats statementCacheStats = new StatementCacheStats ();
+
+    // 第一次执行异步语句时创建
+    private volatile AsyncStatementRunner asyncStatementRunner;
+
+    // 由this保护，关闭之后创建的AsyncStatementRunner立即关闭
+    private boolean closed;
+
+    // 慢语句日志，slowStatementLogSize为0时为null
+    private final SlowStatementLog slowStatementLog;
+
+    public SqlSessionFactory(Configuration configuration, DataSource dataSource) {
         this.configuration = configuration;
+        this.dataSource = dataSource;
+        this.idleExecutors = new IdleExecutors (dataSource);
+        if (dataSource instanceof ReadWriteDataSource && ((ReadWriteDataSource) dataSource).getReplicaCount () > 0) {
+            this.readWriteDataSource = (ReadWriteDataSource) dataSource;
+            this.replicaIdleExecutors = new IdleExecutors[readWriteDataSource.getReplicaCount ()];
+            for (int i = 0; i < replicaIdleExecutors.length; i++) {
+                replicaIdleExecutors[i] = new IdleExecutors (readWriteDataSource.getReplica (i));
+            }
+        } else {
+            this.readWriteDataSource = null;
+            this.replicaIdleExecutors = new IdleExecutors[0];
+        }
+        int logSize = configuration.getSlowStatementLogSize ();
+        this.slowStatementLog = logSize == 0 ? null : new SlowStatementLog (configuration.getSlowStatementThresholdMillis (),
+                configuration.getSlowStatementSampleRate (), logSize);
     }
 
     public Configuration getConfiguration() {
         return configuration;
     }
 
-    public int insert(String sql) {
-        System.out.println ( " execute insert ");
-        System.out.println (" execute sql : " + sql);
-        return 1;
+    public DataSource getDataSource() {
+        return dataSource;
     }
 
-    public Object select(String sql) {
-        System.out.println (" execute select ");
-        System.out.println (" execute sql : " + sql);
-        return new Object ();
+    public StatementCacheStats getStatementCacheStats() {
+        return statementCacheStats;
+    }
+
+    public SlowStatementLog getSlowStatementLog() {
+        return slowStatementLog;
+    }
+
+    // 使用默认的执行器类型，每条语句自动提交
+    public SqlSession openSession() {
+        return openSession (configuration.getDefaultExecutorType (), true);
+    }
+
+    public SqlSession openSession(boolean autoCommit) {
+        return openSession (configuration.getDefaultExecutorType (), autoCommit);
+    }
+
+    // BATCH会话中的insert先缓冲，直到flushStatements或commit
+    public SqlSession openSession(ExecutorType executorType) {
+        return openSession (executorType, true);
+    }
+
+    public SqlSession openSession(ExecutorType executorType, boolean autoCommit) {
+        return new DefaultSqlSession (this, executorType, autoCommit);
+    }
+
+    // 关闭所有空闲的执行器以及它们持有的连接和语句，以及内部创建的异步线程池，并注销语句统计的MBean；
+    // 之后提交的异步语句以RejectedExecutionException结束
+    public void close() {
+        configuration.getStatementMetrics ().unregisterMBeans ();
+        AsyncStatementRunner runner;
+        synchronized (this) {
+            closed = true;
+            runner = asyncStatementRunner;
+        }
+        if (runner != null) {
+            runner.shutdown ();
+        }
+        idleExecutors.close ();
+        for (IdleExecutors replica : replicaIdleExecutors) {
+            replica.close ();
+        }
+    }
+
+    // 在独立的会话中异步执行，不参与调用方会话的事务
+    <T> CompletableFuture<T> submitAsync(Function<SqlSession, T> statement) {
+        return asyncStatementRunner ().submit (statement);
+    }
+
+    // 每个订阅在独立的会话中执行查询，按订阅者的需求读取游标
+    <T> Flow.Publisher<T> publish(Function<SqlSession, Cursor<T>> query) {
+        return asyncStatementRunner ().publish (query);
+    }
+
+    private AsyncStatementRunner asyncStatementRunner() {
+        AsyncStatementRunner runner = asyncStatementRunner;
+        if (runner == null) {
+            synchronized (this) {
+                runner = asyncStatementRunner;
+                if (runner == null) {
+                    runner = new AsyncStatementRunner (this, configuration.getAsyncExecutor (), configuration.getMaxInFlightStatements ());
+                    if (closed) {
+                        runner.shutdown ();
+                    }
+                    asyncStatementRunner = runner;
+                }
+            }
+        }
+        return runner;
     }
-}
 
+    // REUSE模式优先复用空闲的执行器，没有时从数据源获取新连接；读写分离时连接来自主库
+    Executor borrowExecutor(ExecutorType executorType, boolean autoCommit) {
+        Executor executor = idleExecutors.borrow (executorType);
+        if (!autoCommit) {
+            try {
+                executor.getConnection ().setAutoCommit (false);
+            } catch (SQLException e) {
+                executor.close ();
+                throw new ExecutorException ("Error opening session. Cause: " + e, e);
+            }
+        }
+        return executor;
+    }
+
+    // 执行出错的执行器直接关闭，连接可能已经不可用；放回空闲队列前回滚没有提交的事务，恢复自动提交
+    void releaseExecutor(Executor executor, boolean broken) {
+        idleExecutors.release (executor, broken);
+    }
+
+    boolean isReadWriteSplit() {
+        return readWriteDataSource != null;
+    }
+
+    // 为会话选一个只读副本，会话关闭时通过releaseReplicaExecutor归还
+    int acquireReplica() {
+        return readWriteDataSource.acquireReplica ();
+    }
+
+    // 副本上只执行查询，BATCH会话的查询也不需要批量执行器；始终自动提交
+    Executor borrowReplicaExecutor(int replica, ExecutorType executorType) {
+        try {
+            return replicaIdleExecutors[replica].borrow (executorType == ExecutorType.BATCH ? ExecutorType.SIMPLE : executorType);
+        } catch (RuntimeException e) {
+            readWriteDataSource.releaseReplica (replica);
+            throw e;
+        }
+    }
+
+    // 归还执行器，同时释放会话对副本的占用
+    void releaseReplicaExecutor(int replica, Executor executor, boolean broken) {
+        try {
+            replicaIdleExecutors[replica].release (executor, broken);
+        } finally {
+            readWriteDataSource.releaseReplica (replica);
+        }
+    }
+
+    private Executor newExecutor(DataSource dataSource, ExecutorType executorType) {
+        Connection connection = openConnection (dataSource);
+        try {
+            if (executorType == ExecutorType.BATCH) {
+                return new BatchExecutor (connection, configuration.getBatchSize ());
+            }
+        } catch (SQLException e) {
+            closeQuietly (connection);
+            throw new ExecutorException ("Error opening batch session. Cause: " + e, e);
+        }
+        if (executorType == ExecutorType.REUSE) {
+            return new ReuseExecutor (connection, configuration.getStatementCacheSize (), statementCacheStats);
+        }
+        return new SimpleExecutor (connection);
+    }
+
+    private static Connection openConnection(DataSource dataSource) {
+        try {
+            return dataSource.getConnection ();
+        } catch (SQLException e) {
+            throw new ExecutorException ("Error opening connection. Cause: " + e, e);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close ();
+        } catch (SQLException e) {
+            // ignore
+        }
+    }
+
+    // 一个数据源的空闲执行器，最多保留maxIdleConnections个
+    private final class IdleExecutors {
+
+        private final DataSource dataSource;
+
+        private final Deque<Executor> executors = new ConcurrentLinkedDeque<> ();
+
+        private final AtomicInteger count = new AtomicInteger ();
+
+        private IdleExecutors(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private Executor borrow(ExecutorType executorType) {
+            if (executorType == ExecutorType.REUSE) {
+                Executor executor = executors.pollFirst ();
+                if (executor != null) {
+                    count.decrementAndGet ();
+                    return executor;
+                }
+            }
+            return newExecutor (dataSource, executorType);
+        }
+
+        private void release(Executor executor, boolean broken) {
+            if (broken || !(executor instanceof ReuseExecutor)) {
+                executor.close ();
+                return;
+            }
+            try {
+                Connection connection = executor.getConnection ();
+                if (!connection.getAutoCommit ()) {
+                    connection.rollback ();
+                    connection.setAutoCommit (true);
+                }
+            } catch (SQLException e) {
+                executor.close ();
+                return;
+            }
+            if (count.incrementAndGet () <= configuration.getMaxIdleConnections ()) {
+                executors.offerFirst (executor);
+            } else {
+                count.decrementAndGet ();
+                executor.close ();
+            }
+        }
+
+        private void close() {
+            Executor executor;
+            while ((executor = executors.pollFirst ()) != null) {
+                count.decrementAndGet ();
+                executor.close ();
+            }
+        }
+    }
+}
 
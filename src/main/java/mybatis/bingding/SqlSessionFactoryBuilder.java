@@ -1,12 +1,28 @@
 package mybatis.bingding;
 
+import mybatis.cache.QueryCache;
+import mybatis.datasource.UnpooledDataSource;
 import mybatis.parsing.XNode;
 import mybatis.parsing.XPathParser;
 import mybatis.util.Resources;
+import org.xml.sax.InputSource;
 
+import javax.sql.DataSource;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * 类名称: SqlSessionFactoryBuilder
@@ -18,45 +34,188 @@ import java.util.List;
  */
 public class SqlSessionFactoryBuilder {
 
-        public SqlSessionFactory buider() {
+        private static final Logger LOGGER = Logger.getLogger (SqlSessionFactoryBuilder.class.getName ());
 
-            String resource = "mybatis/bingding/BindingMapper.xml";
-            final Reader reader;
+        private static final String DEFAULT_RESOURCE = "mybatis/bingding/BindingMapper.xml";
+
+        // 并行解析mapper文件的线程数，1表示在调用线程上逐个解析
+        private final int parallelism;
+
+        public SqlSessionFactoryBuilder() {
+            this (Runtime.getRuntime ().availableProcessors ());
+        }
+
+        public SqlSessionFactoryBuilder(int parallelism) {
+            this.parallelism = Math.max (1, parallelism);
+        }
+
+        public SqlSessionFactory buider(DataSource dataSource) {
+            return buider (new Configuration (), dataSource, Collections.singletonList (DEFAULT_RESOURCE));
+        }
+
+        // mapperResources为classpath下的资源路径，或者file:、http:等URL
+        public SqlSessionFactory buider(Configuration configuration, DataSource dataSource, List<String> mapperResources) {
+            registerParsed (configuration, parseMappers (configuration, mapperResources));
+            // 构建完成，冻结语句注册表
+            configuration.freeze ();
+            return new SqlSessionFactory (configuration, dataSource);
+        }
+
+        // mapper文件和默认配置都没有变化时从snapshot加载，否则解析xml并重新写入snapshot；
+        // 快照读写失败不影响启动，通过java.util.logging记录警告
+        public SqlSessionFactory buider(Configuration configuration, DataSource dataSource, List<String> mapperResources, Path snapshot) {
+            byte[] hash;
+            try {
+                hash = ConfigurationSnapshot.hash (configuration, mapperResources);
+            } catch (IOException e) {
+                throw new BuilderException ("Error reading mappers " + mapperResources + ". Cause: " + e, e);
+            }
+            ConfigurationSnapshot.Contents cached = null;
+            try {
+                cached = ConfigurationSnapshot.read (snapshot, hash);
+            } catch (IOException e) {
+                LOGGER.log (Level.WARNING, "Reading configuration snapshot " + snapshot + " failed, parsing mappers instead", e);
+            }
+            if (cached != null) {
+                for (QueryCache cache : cached.getCaches ()) {
+                    configuration.addCache (cache);
+                }
+                for (MappedStatement mappedStatement : cached.getStatements ()) {
+                    configuration.addMappedStatement (mappedStatement);
+                }
+            } else {
+                registerParsed (configuration, parseMappers (configuration, mapperResources));
+                try {
+                    ConfigurationSnapshot.write (snapshot, hash, configuration.getCaches (), configuration.getMappedStatements ());
+                } catch (IOException e) {
+                    LOGGER.log (Level.WARNING, "Writing configuration snapshot " + snapshot + " failed", e);
+                }
+            }
+            configuration.freeze ();
+            return new SqlSessionFactory (configuration, dataSource);
+        }
+
+        private void registerParsed(Configuration configuration, List<MapperStatements> parsed) {
+            // 按传入的顺序合并，重复的语句总是报告同一个位置
+            for (MapperStatements mapper : parsed) {
+                if (mapper.cache != null) {
+                    configuration.addCache (mapper.cache);
+                }
+                for (MappedStatement mappedStatement : mapper.statements) {
+                    configuration.addMappedStatement (mappedStatement);
+                }
+            }
+        }
+
+        private List<MapperStatements> parseMappers(Configuration configuration, List<String> mapperResources) {
+            List<MapperStatements> parsed = new ArrayList<> (mapperResources.size ());
+            if (parallelism == 1 || mapperResources.size () < 2) {
+                for (String resource : mapperResources) {
+                    parsed.add (parseMapper (configuration, resource));
+                }
+                return parsed;
+            }
+            ForkJoinPool pool = new ForkJoinPool (Math.min (parallelism, mapperResources.size ()));
             try {
-                // 获取xml文件，得到Reader对象
-                reader = Resources.getResourceAsReader (resource);
-                XPathParser parser = new XPathParser (reader);
+                List<ForkJoinTask<MapperStatements>> tasks = new ArrayList<> (mapperResources.size ());
+                for (String resource : mapperResources) {
+                    tasks.add (pool.submit (() -> parseMapper (configuration, resource)));
+                }
+                // 按提交顺序取结果，第一个出错的文件先抛出
+                for (ForkJoinTask<MapperStatements> task : tasks) {
+                    parsed.add (task.join ());
+                }
+                return parsed;
+            } finally {
+                pool.shutdownNow ();
+            }
+        }
+
+        // 解析一个mapper文件，得到它的namespace和所有语句
+        private MapperStatements parseMapper(Configuration configuration, String resource) {
+            try (Reader reader = openResource (resource)) {
+                if (configuration.getMapperParserType () == MapperParserType.STAX) {
+                    StaxMapperParser parser = new StaxMapperParser (reader, resource, null);
+                    List<MappedStatement> statements = parser.parse (configuration);
+                    return new MapperStatements (parser.getNamespace (), statements, parser.getCache ());
+                }
+                // 不做dtd校验，返回空的dtd，避免解析时联网下载
+                XPathParser parser = new XPathParser (reader, false, null, (publicId, systemId) -> new InputSource (new StringReader ("")));
                 // 获取mapper元素，并转换为XNode对象
-                XNode xNode = parser.evalNode ("/mapper");
-                // 生成SqlSeesionFactory对象
-                return parsePendingStatements (xNode);
+                XNode root = parser.evalNode ("/mapper");
+                if (root == null) {
+                    throw new BuilderException ("No <mapper> element found in " + resource);
+                }
+                String namespace = root.getStringAttribute ("namespace");
+                XNode cacheNode = root.evalNode ("cache");
+                QueryCache cache = null;
+                if (cacheNode != null) {
+                    Properties attributes = new Properties ();
+                    for (String name : new String[]{"size", "ttl", "stripes"}) {
+                        String value = cacheNode.getStringAttribute (name);
+                        if (value != null) {
+                            attributes.setProperty (name, value);
+                        }
+                    }
+                    cache = configuration.buildCache (namespace, attributes);
+                }
+                List<XNode> xNodes = root.evalNodes ("select|insert");
+                List<MappedStatement> statements = new ArrayList<> (xNodes.size ());
+                for (XNode xNode : xNodes) {
+                    statements.add (configuration.buildMappedStatement (xNode, namespace, resource));
+                }
+                return new MapperStatements (namespace, statements, cache);
             } catch (IOException e) {
-                e.printStackTrace ();
-                throw new RuntimeException (e);
+                throw new BuilderException ("Error reading mapper " + resource + ". Cause: " + e, e);
+            } catch (RuntimeException e) {
+                if (e instanceof BuilderException && e.getMessage ().contains (resource)) {
+                    throw e;
+                }
+                throw new BuilderException ("Error parsing mapper " + resource + ". Cause: " + e, e);
             }
         }
 
-        private SqlSessionFactory parsePendingStatements(XNode root) {
+        private static Reader openResource(String resource) throws IOException {
+            if (resource.indexOf (':') > 1) {
+                return Resources.getUrlAsReader (resource);
+            }
+            return Resources.getResourceAsReader (resource);
+        }
+
+        // 一个mapper文件解析出的语句
+        private static class MapperStatements {
+
+            private final String namespace;
 
-            // 创建一个SqlSessionFactory对象，并对xnode解析，生成MappedStatement，然后通过namespace+id生成key，放入Configuration的缓存中
-            // 把获取到的Xnode加入到
-            SqlSessionFactory sqlSessionFactory = new SqlSessionFactory (new Configuration ());
-            String namespace = root.getStringAttribute ("namespace");
-            List<XNode> xNodes = root.evalNodes ("select|insert");
-            for (XNode xNode : xNodes) {
-                sqlSessionFactory.getConfiguration ().addMappedStatements (xNode, namespace);
+            private final List<MappedStatement> statements;
+
+            // mapper上没有<cache>时为null
+            private final QueryCache cache;
+
+            MapperStatements(String namespace, List<MappedStatement> statements, QueryCache cache) {
+                this.namespace = namespace;
+                this.statements = statements;
+                this.cache = cache;
             }
-            return sqlSessionFactory;
         }
 
-        public static void main(String[] args) {
+        public static void main(String[] args) throws SQLException {
 
+            // 使用内嵌的h2内存数据库演示
+            DataSource dataSource = new UnpooledDataSource ("jdbc:h2:mem:mybatis;DB_CLOSE_DELAY=-1");
+            try (Connection connection = dataSource.getConnection ();
+                 Statement statement = connection.createStatement ()) {
+                statement.execute ("create table if not exists db (name varchar(32), age varchar(32))");
+            }
             SqlSessionFactoryBuilder builder = new SqlSessionFactoryBuilder ();
-            SqlSessionFactory sessionFactory = builder.buider ();
-            MapperProxyFactroy mapperProxyFactroy = new MapperProxyFactroy (BindingMapper.class);
-            BindingMapper bindingMapper = (BindingMapper)mapperProxyFactroy.newInstance (sessionFactory);
-            int insert = bindingMapper.insert ();
-            Object select = bindingMapper.select ();
+            SqlSessionFactory sessionFactory = builder.buider (dataSource);
+            MapperProxyFactroy mapperProxyFactroy = new MapperProxyFactroy (BindingMapper.class, sessionFactory.getConfiguration ());
+            try (SqlSession session = sessionFactory.openSession ()) {
+                BindingMapper bindingMapper = (BindingMapper)mapperProxyFactroy.newInstance (session);
+                int insert = bindingMapper.insert ();
+                Object select = bindingMapper.select ();
+                System.out.println (" insert : " + insert + ", select : " + select);
+            }
         }
 
 }
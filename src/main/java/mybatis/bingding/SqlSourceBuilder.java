@@ -0,0 +1,75 @@
+package mybatis.bingding;
+
+import mybatis.parsing.GenericTokenParser;
+import mybatis.parsing.TokenHandler;
+
+import java.sql.JDBCType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 类名称: SqlSourceBuilder
+ * 功能描述: 构建时把sql中的#{}替换为?，同时按顺序记录参数，执行时不再扫描sql
+ * 日期:  2026/10/18 15:10
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class SqlSourceBuilder {
+
+    private final String sql;
+
+    private final List<ParameterMapping> parameterMappings;
+
+    public SqlSourceBuilder(String originalSql) {
+        ParameterMappingTokenHandler handler = new ParameterMappingTokenHandler ();
+        GenericTokenParser parser = new GenericTokenParser ("#{", "}", handler);
+        this.sql = parser.parse (originalSql);
+        this.parameterMappings = Collections.unmodifiableList (handler.parameterMappings);
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public List<ParameterMapping> getParameterMappings() {
+        return parameterMappings;
+    }
+
+    // #{user.name, jdbcType=VARCHAR}中大括号里的内容，动态sql构建时也用它解析#{}
+    public static ParameterMapping parseParameterMapping(String content) {
+        String[] parts = content.split (",");
+        String property = parts[0].trim ();
+        if (property.isEmpty ()) {
+            throw new BindingException ("Empty parameter name in #{" + content + "}");
+        }
+        Integer jdbcType = null;
+        for (int i = 1; i < parts.length; i++) {
+            String[] attribute = parts[i].split ("=", 2);
+            String name = attribute[0].trim ();
+            if (attribute.length != 2) {
+                throw new BindingException ("Invalid parameter attribute '" + parts[i].trim () + "' in #{" + content + "}");
+            }
+            if ("jdbcType".equals (name)) {
+                jdbcType = JDBCType.valueOf (attribute[1].trim ().toUpperCase (Locale.ENGLISH)).getVendorTypeNumber ();
+            } else {
+                throw new BindingException ("Unsupported parameter attribute '" + name + "' in #{" + content + "}");
+            }
+        }
+        return new ParameterMapping (property, jdbcType);
+    }
+
+    // #{user.name, jdbcType=VARCHAR} -> ?
+    private static class ParameterMappingTokenHandler implements TokenHandler {
+
+        private final List<ParameterMapping> parameterMappings = new ArrayList<> ();
+
+        @Override
+        public String handleToken(String content) {
+            parameterMappings.add (parseParameterMapping (content));
+            return "?";
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package mybatis.bingding;
+
+/**
+ * 类名称: StatementRoute
+ * 功能描述: 读写分离时语句发往的数据库，对应select、insert元素的route属性
+ * 日期:  2026/10/19 03:30
+ *
+ * 没有配置时select发往只读副本，insert发往主库；查询需要读到刚提交的数据时配置route="primary"
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public enum StatementRoute {
+
+    PRIMARY, REPLICA;
+
+}
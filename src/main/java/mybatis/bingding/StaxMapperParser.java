@@ -0,0 +1,163 @@
+package mybatis.bingding;
+
+import mybatis.cache.QueryCache;
+import mybatis.parsing.PropertyResolver;
+import mybatis.scripting.ScriptBuilder;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * 类名称: StaxMapperParser
+ * 功能描述: 用StAX流式读取mapper文件，直接生成select/insert语句，不构建DOM也不执行xpath
+ * 日期:  2026/10/18 19:20
+ *
+ * 结果和XPathParser + evalNodes("select|insert")一致：只取mapper的直接子元素，
+ * 语句内部的文本和<if>、<foreach>等动态元素按文档顺序交给ScriptBuilder，属性和文本同样替换${}
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class StaxMapperParser {
+
+    // XMLInputFactory不保证线程安全，每个解析线程一个
+    private static final ThreadLocal<XMLInputFactory> FACTORY = ThreadLocal.withInitial (() -> {
+        XMLInputFactory factory = XMLInputFactory.newInstance ();
+        factory.setProperty (XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        factory.setProperty (XMLInputFactory.IS_COALESCING, false);
+        factory.setProperty (XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, true);
+        // 和XPathParser一样不校验，也不联网下载dtd
+        factory.setProperty (XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty (XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    });
+
+    private final Reader reader;
+
+    private final String resource;
+
+    private final PropertyResolver resolver;
+
+    private String namespace;
+
+    private QueryCache cache;
+
+    public StaxMapperParser(Reader reader, String resource, Properties variables) {
+        this.reader = reader;
+        this.resource = resource;
+        this.resolver = PropertyResolver.of (variables);
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    // mapper上没有<cache>时为null
+    public QueryCache getCache() {
+        return cache;
+    }
+
+    public List<MappedStatement> parse(Configuration configuration) {
+        List<MappedStatement> statements = new ArrayList<> ();
+        XMLStreamReader xml = null;
+        try {
+            xml = FACTORY.get ().createXMLStreamReader (reader);
+            int depth = 0;
+            boolean root = false;
+            while (xml.hasNext ()) {
+                int event = xml.next ();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    String name = xml.getLocalName ();
+                    if (depth == 1) {
+                        root = true;
+                        if (!"mapper".equals (name)) {
+                            throw new BuilderException ("No <mapper> element found in " + resource);
+                        }
+                        namespace = attribute (xml.getAttributeValue (null, "namespace"));
+                    } else if (depth == 2 && ("select".equals (name) || "insert".equals (name))) {
+                        Properties attributes = attributes (xml);
+                        ScriptBuilder script = new ScriptBuilder ();
+                        readScript (xml, script);
+                        depth--;
+                        statements.add (configuration.buildMappedStatement (name, namespace, attributes, script, resource));
+                    } else if (depth == 2 && "cache".equals (name) && cache == null) {
+                        cache = configuration.buildCache (namespace, attributes (xml));
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+            }
+            if (!root) {
+                throw new BuilderException ("No <mapper> element found in " + resource);
+            }
+            return statements;
+        } catch (XMLStreamException e) {
+            throw new BuilderException ("Error parsing mapper " + resource + ". Cause: " + e, e);
+        } finally {
+            if (xml != null) {
+                try {
+                    xml.close ();
+                } catch (XMLStreamException ignore) {
+                }
+            }
+        }
+    }
+
+    // 读到语句元素结束为止，按文档顺序把文本和动态元素交给script；相邻的文本、CDATA合并后再替换${}
+    private void readScript(XMLStreamReader xml, ScriptBuilder script) throws XMLStreamException {
+        StringBuilder text = new StringBuilder ();
+        int level = 0;
+        while (true) {
+            int event = xml.next ();
+            switch (event) {
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.SPACE:
+                case XMLStreamConstants.CDATA:
+                    text.append (xml.getTextCharacters (), xml.getTextStart (), xml.getTextLength ());
+                    break;
+                case XMLStreamConstants.START_ELEMENT:
+                    flushText (text, script);
+                    script.startElement (xml.getLocalName (), attributes (xml));
+                    level++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    flushText (text, script);
+                    if (level == 0) {
+                        return;
+                    }
+                    script.endElement ();
+                    level--;
+                    break;
+                default:
+                    // 注释、处理指令不影响sql
+                    break;
+            }
+        }
+    }
+
+    private void flushText(StringBuilder text, ScriptBuilder script) {
+        if (text.length () > 0) {
+            script.text (attribute (text.toString ()));
+            text.setLength (0);
+        }
+    }
+
+    private Properties attributes(XMLStreamReader xml) {
+        Properties attributes = new Properties ();
+        for (int i = 0, n = xml.getAttributeCount (); i < n; i++) {
+            attributes.put (xml.getAttributeLocalName (i), attribute (xml.getAttributeValue (i)));
+        }
+        return attributes;
+    }
+
+    private String attribute(String value) {
+        return resolver.resolve (value);
+    }
+}
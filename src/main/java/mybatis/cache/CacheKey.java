@@ -0,0 +1,48 @@
+package mybatis.cache;
+
+import mybatis.executor.parameter.BoundParameters;
+
+/**
+ * 类名称: CacheKey
+ * 功能描述: 查询缓存的key，语句id加上按?顺序绑定的参数值
+ * 日期:  2026/10/18 20:30
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public final class CacheKey {
+
+    private final String statementId;
+
+    private final BoundParameters parameters;
+
+    private final int hashCode;
+
+    public CacheKey(String statementId, BoundParameters parameters) {
+        this.statementId = statementId;
+        this.parameters = parameters;
+        this.hashCode = 31 * statementId.hashCode () + parameters.hashCode ();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CacheKey)) {
+            return false;
+        }
+        CacheKey other = (CacheKey) o;
+        return hashCode == other.hashCode && statementId.equals (other.statementId) && parameters.equals (other.parameters);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return statementId + parameters;
+    }
+}
@@ -0,0 +1,175 @@
+package mybatis.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 类名称: QueryCache
+ * 功能描述: 一个namespace的查询结果缓存，按key的hash分成多段，每段一把锁，各自按LRU淘汰，
+ *          超过ttl的结果在读到时丢弃
+ * 日期:  2026/10/18 20:30
+ *
+ * 同一namespace的insert调用clear，clear之前开始、之后才完成的查询不会写入缓存
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class QueryCache {
+
+    public static final int DEFAULT_SIZE = 1024;
+
+    public static final int DEFAULT_STRIPES = 16;
+
+    private final String namespace;
+
+    private final int size;
+
+    // 0表示不过期
+    private final long ttlMillis;
+
+    private final Stripe[] stripes;
+
+    private final int mask;
+
+    private final QueryCacheStats stats = new QueryCacheStats ();
+
+    // 每次clear加一，查询开始时记下，写入时不一致说明中间发生过insert
+    private final AtomicLong generation = new AtomicLong ();
+
+    public QueryCache(String namespace, int size, long ttlMillis, int stripes) {
+        if (size <= 0 || ttlMillis < 0 || stripes <= 0) {
+            throw new IllegalArgumentException ("Invalid cache settings for " + namespace + ": size=" + size
+                    + ", ttl=" + ttlMillis + ", stripes=" + stripes);
+        }
+        this.namespace = namespace;
+        this.size = size;
+        this.ttlMillis = ttlMillis;
+        // 段数取不超过size的2的幂，用位运算选段
+        int count = Integer.highestOneBit (Math.min (stripes, size));
+        this.stripes = new Stripe[count];
+        this.mask = count - 1;
+        int capacity = (size + count - 1) / count;
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe (capacity, stats);
+        }
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    public int getStripes() {
+        return stripes.length;
+    }
+
+    public QueryCacheStats getStats() {
+        return stats;
+    }
+
+    public long currentGeneration() {
+        return generation.get ();
+    }
+
+    public Object get(CacheKey key) {
+        Stripe stripe = stripeFor (key);
+        synchronized (stripe) {
+            CachedResult entry = stripe.entries.get (key);
+            if (entry != null && ttlMillis > 0 && System.nanoTime () - entry.createdAt > TimeUnit.MILLISECONDS.toNanos (ttlMillis)) {
+                stripe.entries.remove (key);
+                stats.recordEviction ();
+                entry = null;
+            }
+            if (entry == null) {
+                stats.recordMiss ();
+                return null;
+            }
+            stats.recordHit ();
+            return entry.value;
+        }
+    }
+
+    // generation为查询开始前currentGeneration()的值
+    public void put(CacheKey key, Object value, long generation) {
+        Stripe stripe = stripeFor (key);
+        synchronized (stripe) {
+            if (this.generation.get () != generation) {
+                return;
+            }
+            stripe.entries.put (key, new CachedResult (value, System.nanoTime ()));
+        }
+    }
+
+    public void clear() {
+        generation.incrementAndGet ();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.entries.clear ();
+            }
+        }
+        stats.recordInvalidation ();
+    }
+
+    public int entryCount() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                count += stripe.entries.size ();
+            }
+        }
+        return count;
+    }
+
+    private Stripe stripeFor(CacheKey key) {
+        int h = key.hashCode ();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    // 不叫Entry，避免在LinkedHashMap的匿名子类中和继承来的LinkedHashMap.Entry重名
+    private static final class CachedResult {
+
+        private final Object value;
+
+        private final long createdAt;
+
+        CachedResult(Object value, long createdAt) {
+            this.value = value;
+            this.createdAt = createdAt;
+        }
+    }
+
+    // 一段缓存，访问顺序的LinkedHashMap，超过容量淘汰最久没用的
+    private static final class Stripe {
+
+        private final Map<CacheKey, CachedResult> entries;
+
+        Stripe(final int capacity, final QueryCacheStats stats) {
+            this.entries = new LinkedHashMap<CacheKey, CachedResult> (16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<CacheKey, CachedResult> eldest) {
+                    if (size () > capacity) {
+                        stats.recordEviction ();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "QueryCache{namespace=" + namespace + ", size=" + size + ", ttl=" + ttlMillis + ", stripes=" + stripes.length + ", " + stats + "}";
+    }
+}
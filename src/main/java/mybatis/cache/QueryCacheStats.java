@@ -0,0 +1,67 @@
+package mybatis.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 类名称: QueryCacheStats
+ * 功能描述: 查询缓存的命中、未命中、淘汰（容量和过期）以及整体失效的计数
+ * 日期:  2026/10/18 20:30
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class QueryCacheStats {
+
+    private final LongAdder hits = new LongAdder ();
+
+    private final LongAdder misses = new LongAdder ();
+
+    private final LongAdder evictions = new LongAdder ();
+
+    private final LongAdder invalidations = new LongAdder ();
+
+    void recordHit() {
+        hits.increment ();
+    }
+
+    void recordMiss() {
+        misses.increment ();
+    }
+
+    void recordEviction() {
+        evictions.increment ();
+    }
+
+    void recordInvalidation() {
+        invalidations.increment ();
+    }
+
+    public long getHits() {
+        return hits.sum ();
+    }
+
+    public long getMisses() {
+        return misses.sum ();
+    }
+
+    public long getEvictions() {
+        return evictions.sum ();
+    }
+
+    public long getInvalidations() {
+        return invalidations.sum ();
+    }
+
+    public void reset() {
+        hits.reset ();
+        misses.reset ();
+        evictions.reset ();
+        invalidations.reset ();
+    }
+
+    @Override
+    public String toString() {
+        return "QueryCacheStats{hits=" + getHits () + ", misses=" + getMisses () + ", evictions=" + getEvictions ()
+                + ", invalidations=" + getInvalidations () + "}";
+    }
+}
@@ -0,0 +1,28 @@
+package mybatis.cursor;
+
+import java.io.Closeable;
+
+/**
+ * 类名称: Cursor
+ * 功能描述: 逐行读取的查询结果，遍历时才从数据库取数据并转换，
+ * 遍历完或者调用close后释放语句和连接
+ * 日期:  2026/10/18 13:00
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public interface Cursor<T> extends Closeable, Iterable<T> {
+
+    // 是否已经开始遍历，而且还没关闭
+    boolean isOpen();
+
+    // 是否已经读完所有的行
+    boolean isConsumed();
+
+    // 当前行的下标，从0开始，还没开始遍历时为-1
+    int getCurrentIndex();
+
+    @Override
+    void close();
+
+}
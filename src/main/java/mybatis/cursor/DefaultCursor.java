@@ -0,0 +1,155 @@
+package mybatis.cursor;
+
+import mybatis.executor.ExecutorException;
+import mybatis.executor.resultset.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 类名称: DefaultCursor
+ * 功能描述: 基于ResultSet的Cursor实现，只允许获取一次迭代器
+ * 日期:  2026/10/18 13:05
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class DefaultCursor<T> implements Cursor<T> {
+
+    private final ResultSet rs;
+
+    private final RowMapper<T> rowMapper;
+
+    // 关闭ResultSet之后执行，用来关闭语句、归还连接
+    private final Runnable onClose;
+
+    private CursorStatus status = CursorStatus.CREATED;
+
+    private int currentIndex = -1;
+
+    private boolean iteratorRetrieved;
+
+    // ResultSet已经关闭、onClose已经执行；读完的游标状态是CONSUMED，但同样要关闭一次
+    private boolean closed;
+
+    public DefaultCursor(ResultSet rs, RowMapper<T> rowMapper, Runnable onClose) {
+        this.rs = rs;
+        this.rowMapper = rowMapper;
+        this.onClose = onClose;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return status == CursorStatus.OPEN;
+    }
+
+    @Override
+    public boolean isConsumed() {
+        return status == CursorStatus.CONSUMED;
+    }
+
+    @Override
+    public int getCurrentIndex() {
+        return currentIndex;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        if (iteratorRetrieved) {
+            throw new IllegalStateException ("Cannot open more than one iterator on a Cursor");
+        }
+        if (isClosed ()) {
+            throw new IllegalStateException ("A Cursor is already closed.");
+        }
+        iteratorRetrieved = true;
+        return new CursorIterator ();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            rs.close ();
+        } catch (SQLException e) {
+            // ignore
+        } finally {
+            if (status != CursorStatus.CONSUMED) {
+                status = CursorStatus.CLOSED;
+            }
+            onClose.run ();
+        }
+    }
+
+    private boolean isClosed() {
+        return closed || status == CursorStatus.CONSUMED;
+    }
+
+    // 读取下一行，没有数据时关闭游标
+    private boolean fetchNextRow(CursorIterator iterator) {
+        if (isClosed ()) {
+            return false;
+        }
+        try {
+            status = CursorStatus.OPEN;
+            if (rs.next ()) {
+                iterator.object = rowMapper.mapRow (rs);
+                currentIndex++;
+                return true;
+            }
+            status = CursorStatus.CONSUMED;
+            close ();
+            return false;
+        } catch (SQLException e) {
+            close ();
+            throw new ExecutorException ("Error fetching next row from cursor. Cause: " + e, e);
+        } catch (RuntimeException e) {
+            // 映射失败后游标不能继续使用
+            close ();
+            throw e;
+        }
+    }
+
+    private class CursorIterator implements Iterator<T> {
+
+        // 已经读取但还没有通过next返回的行
+        private T object;
+
+        private boolean fetched;
+
+        @Override
+        public boolean hasNext() {
+            if (!fetched) {
+                fetched = fetchNextRow (this);
+            }
+            return fetched;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext ()) {
+                throw new NoSuchElementException ();
+            }
+            T next = object;
+            object = null;
+            fetched = false;
+            return next;
+        }
+    }
+
+    private enum CursorStatus {
+
+        // 还没有读取任何行
+        CREATED,
+        // 正在遍历
+        OPEN,
+        // 没有读完就被关闭
+        CLOSED,
+        // 所有行都已读完
+        CONSUMED
+    }
+}
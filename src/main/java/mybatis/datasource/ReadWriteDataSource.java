@@ -0,0 +1,164 @@
+package mybatis.datasource;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.logging.Logger;
+
+/**
+ * 类名称: ReadWriteDataSource
+ * 功能描述: 一个主库加若干只读副本，SqlSessionFactory使用它时select发往副本，insert发往主库
+ * 日期:  2026/10/19 03:30
+ *
+ * 作为普通DataSource使用时所有连接都来自主库。副本按会话分配：会话第一次读副本时选一个，
+ * 一直用到会话关闭。ROUND_ROBIN依次轮换，LEAST_IN_FLIGHT选当前被会话占用最少的副本，
+ * 个数相同时从轮换的位置开始找，避免总是落在第一个副本上
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class ReadWriteDataSource implements DataSource {
+
+    public enum Balancing {
+
+        ROUND_ROBIN, LEAST_IN_FLIGHT;
+
+    }
+
+    private final DataSource primary;
+
+    private final List<DataSource> replicas;
+
+    private final Balancing balancing;
+
+    private final AtomicInteger next = new AtomicInteger ();
+
+    // 每个副本当前被多少个会话占用
+    private final AtomicIntegerArray inFlight;
+
+    public ReadWriteDataSource(DataSource primary, List<DataSource> replicas) {
+        this (primary, replicas, Balancing.ROUND_ROBIN);
+    }
+
+    public ReadWriteDataSource(DataSource primary, List<DataSource> replicas, Balancing balancing) {
+        if (primary == null) {
+            throw new IllegalArgumentException ("Primary data source must not be null");
+        }
+        if (balancing == null) {
+            throw new IllegalArgumentException ("Balancing must not be null");
+        }
+        this.primary = primary;
+        this.replicas = Collections.unmodifiableList (new ArrayList<> (replicas));
+        if (this.replicas.contains (null)) {
+            throw new IllegalArgumentException ("Replica data source must not be null");
+        }
+        this.balancing = balancing;
+        this.inFlight = new AtomicIntegerArray (this.replicas.size ());
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public List<DataSource> getReplicas() {
+        return replicas;
+    }
+
+    public int getReplicaCount() {
+        return replicas.size ();
+    }
+
+    public DataSource getReplica(int replica) {
+        return replicas.get (replica);
+    }
+
+    public Balancing getBalancing() {
+        return balancing;
+    }
+
+    public int getInFlight(int replica) {
+        return inFlight.get (replica);
+    }
+
+    // 选一个副本并占用，返回下标；没有副本时返回-1。占用的副本必须调用releaseReplica
+    public int acquireReplica() {
+        int count = replicas.size ();
+        if (count == 0) {
+            return -1;
+        }
+        int start = Math.floorMod (next.getAndIncrement (), count);
+        int chosen = start;
+        if (balancing == Balancing.LEAST_IN_FLIGHT) {
+            int least = inFlight.get (start);
+            for (int i = 1; i < count && least > 0; i++) {
+                int replica = (start + i) % count;
+                int current = inFlight.get (replica);
+                if (current < least) {
+                    least = current;
+                    chosen = replica;
+                }
+            }
+        }
+        inFlight.incrementAndGet (chosen);
+        return chosen;
+    }
+
+    public void releaseReplica(int replica) {
+        inFlight.decrementAndGet (replica);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return primary.getConnection ();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection (username, password);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return primary.getLogWriter ();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        primary.setLogWriter (out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        primary.setLoginTimeout (seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return primary.getLoginTimeout ();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return primary.getParentLogger ();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance (this)) {
+            return iface.cast (this);
+        }
+        return primary.unwrap (iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance (this) || primary.isWrapperFor (iface);
+    }
+}
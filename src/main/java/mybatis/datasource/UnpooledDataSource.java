@@ -0,0 +1,88 @@
+package mybatis.datasource;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * 类名称: UnpooledDataSource
+ * 功能描述: 不带连接池的数据源，每次getConnection都通过DriverManager新建连接
+ * 日期:  2026/10/18 10:40
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class UnpooledDataSource implements DataSource {
+
+    private final String url;
+
+    private final Properties driverProperties = new Properties ();
+
+    public UnpooledDataSource(String url) {
+        this (url, null, null);
+    }
+
+    public UnpooledDataSource(String url, String username, String password) {
+        this.url = url;
+        if (username != null) {
+            driverProperties.setProperty ("user", username);
+        }
+        if (password != null) {
+            driverProperties.setProperty ("password", password);
+        }
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return DriverManager.getConnection (url, driverProperties);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return DriverManager.getConnection (url, username, password);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return DriverManager.getLogWriter ();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        DriverManager.setLogWriter (out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        DriverManager.setLoginTimeout (seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return DriverManager.getLoginTimeout ();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException ();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        throw new SQLException (getClass ().getName () + " is not a wrapper.");
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return false;
+    }
+}
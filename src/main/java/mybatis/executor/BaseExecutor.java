@@ -0,0 +1,166 @@
+package mybatis.executor;
+
+import mybatis.bingding.MappedStatement;
+import mybatis.cursor.Cursor;
+import mybatis.cursor.DefaultCursor;
+import mybatis.executor.parameter.BoundParameters;
+import mybatis.executor.resultset.RowMapper;
+import mybatis.executor.resultset.RowMapperFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 类名称: BaseExecutor
+ * 功能描述: 执行器的公共逻辑，子类决定语句如何prepare以及用完后如何处理
+ * 日期:  2026/10/18 11:05
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public abstract class BaseExecutor implements Executor {
+
+    protected final Connection connection;
+
+    protected BaseExecutor(Connection connection) {
+        this.connection = connection;
+    }
+
+    @Override
+    public Connection getConnection() {
+        return connection;
+    }
+
+    @Override
+    public int update(MappedStatement ms, BoundParameters parameters) throws SQLException {
+        PreparedStatement ps = prepareStatement (ms, ms.getSql (parameters));
+        try {
+            parameters.applyTo (ps);
+            return ps.executeUpdate ();
+        } finally {
+            closeStatement (ps);
+        }
+    }
+
+    @Override
+    public <E> List<E> query(MappedStatement ms, BoundParameters parameters, RowMapperFactory<E> rowMapperFactory) throws SQLException {
+        PreparedStatement ps = prepareStatement (ms, ms.getSql (parameters));
+        try {
+            parameters.applyTo (ps);
+            try (ResultSet rs = ps.executeQuery ()) {
+                return handleResultSet (rs, rowMapperFactory);
+            }
+        } finally {
+            closeStatement (ps);
+        }
+    }
+
+    @Override
+    public <E> Cursor<E> queryCursor(MappedStatement ms, BoundParameters parameters, RowMapperFactory<E> rowMapperFactory, Runnable onClose) throws SQLException {
+        PreparedStatement ps = prepareCursorStatement (ms, ms.getSql (parameters));
+        ResultSet rs = null;
+        try {
+            parameters.applyTo (ps);
+            rs = ps.executeQuery ();
+            RowMapper<E> rowMapper = rowMapperFactory.getRowMapper (rs.getMetaData ());
+            return new DefaultCursor<> (rs, rowMapper, () -> {
+                closeCursorStatement (ps);
+                onClose.run ();
+            });
+        } catch (SQLException e) {
+            if (rs != null) {
+                rs.close ();
+            }
+            closeCursorStatement (ps);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<BatchResult> flushStatements() throws SQLException {
+        return Collections.emptyList ();
+    }
+
+    @Override
+    public void commit() throws SQLException {
+        flushStatements ();
+        if (!connection.getAutoCommit ()) {
+            connection.commit ();
+        }
+    }
+
+    @Override
+    public void rollback() throws SQLException {
+        if (!connection.getAutoCommit ()) {
+            connection.rollback ();
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            closeStatements ();
+            // 没有提交的事务在关闭前回滚
+            if (!connection.getAutoCommit ()) {
+                connection.rollback ();
+            }
+        } catch (SQLException e) {
+            // ignore
+        } finally {
+            try {
+                connection.close ();
+            } catch (SQLException e) {
+                // ignore
+            }
+        }
+    }
+
+    // sql是这次调用要执行的sql，动态sql每次可能不同
+    protected abstract PreparedStatement prepareStatement(MappedStatement ms, String sql) throws SQLException;
+
+    // 语句执行完成后的处理
+    protected abstract void closeStatement(PreparedStatement ps);
+
+    // 游标一直持有语句直到关闭，默认和普通查询一样处理
+    protected PreparedStatement prepareCursorStatement(MappedStatement ms, String sql) throws SQLException {
+        return prepareStatement (ms, sql);
+    }
+
+    protected void closeCursorStatement(PreparedStatement ps) {
+        closeStatement (ps);
+    }
+
+    // 执行器关闭前释放持有的语句
+    protected void closeStatements() {
+    }
+
+    protected PreparedStatement newStatement(MappedStatement ms, String sql) throws SQLException {
+        PreparedStatement ps = connection.prepareStatement (sql, ms.getResultSetType ().getValue (), ResultSet.CONCUR_READ_ONLY);
+        applyStatementSettings (ms, ps);
+        return ps;
+    }
+
+    // 设置语句级别的fetchSize和超时时间
+    protected void applyStatementSettings(MappedStatement ms, PreparedStatement ps) throws SQLException {
+        if (ms.getFetchSize () != null) {
+            ps.setFetchSize (ms.getFetchSize ());
+        }
+        if (ms.getTimeout () != null) {
+            ps.setQueryTimeout (ms.getTimeout ());
+        }
+    }
+
+    protected <E> List<E> handleResultSet(ResultSet rs, RowMapperFactory<E> rowMapperFactory) throws SQLException {
+        List<E> rows = new ArrayList<> ();
+        RowMapper<E> rowMapper = rowMapperFactory.getRowMapper (rs.getMetaData ());
+        while (rs.next ()) {
+            rows.add (rowMapper.mapRow (rs));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,147 @@
+package mybatis.executor;
+
+import mybatis.bingding.MappedStatement;
+import mybatis.cursor.Cursor;
+import mybatis.executor.parameter.BoundParameters;
+import mybatis.executor.resultset.RowMapperFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 类名称: BatchExecutor
+ * 功能描述: 连续执行的同一个insert语句通过addBatch缓冲，
+ * 在commit、达到batchSize或者换了另一个语句时统一executeBatch
+ * 日期:  2026/10/18 11:40
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class BatchExecutor extends BaseExecutor {
+
+    // 批量模式下update的返回值，真正的影响行数在BatchResult中
+    public static final int BATCH_UPDATE_RETURN_VALUE = Integer.MIN_VALUE + 1002;
+
+    private final int batchSize;
+
+    // 正在缓冲的语句
+    private MappedStatement currentStatement;
+
+    // 动态sql同一个语句也可能渲染出不同的sql
+    private String currentSql;
+
+    private PreparedStatement currentPs;
+
+    private int batchCount;
+
+    // 自动flush的结果，等待flushStatements时一起返回
+    private final List<BatchResult> batchResults = new ArrayList<> ();
+
+    public BatchExecutor(Connection connection, int batchSize) throws SQLException {
+        super (connection);
+        this.batchSize = batchSize;
+        connection.setAutoCommit (false);
+    }
+
+    @Override
+    public int update(MappedStatement ms, BoundParameters parameters) throws SQLException {
+        String sql = ms.getSql (parameters);
+        if (ms != currentStatement || !sql.equals (currentSql)) {
+            // 换了语句，先把之前缓冲的执行掉
+            doFlush ();
+            currentPs = newStatement (ms, sql);
+            currentStatement = ms;
+            currentSql = sql;
+        }
+        parameters.applyTo (currentPs);
+        currentPs.addBatch ();
+        if (++batchCount >= batchSize) {
+            // 达到阈值，执行当前批次，语句保留给后续的addBatch
+            executeBatch ();
+        }
+        return BATCH_UPDATE_RETURN_VALUE;
+    }
+
+    @Override
+    public <E> List<E> query(MappedStatement ms, BoundParameters parameters, RowMapperFactory<E> rowMapperFactory) throws SQLException {
+        // 查询前先执行缓冲的insert，保证能读到自己写入的数据
+        doFlush ();
+        return super.query (ms, parameters, rowMapperFactory);
+    }
+
+    @Override
+    public <E> Cursor<E> queryCursor(MappedStatement ms, BoundParameters parameters, RowMapperFactory<E> rowMapperFactory, Runnable onClose) throws SQLException {
+        doFlush ();
+        return super.queryCursor (ms, parameters, rowMapperFactory, onClose);
+    }
+
+    @Override
+    public List<BatchResult> flushStatements() throws SQLException {
+        doFlush ();
+        if (batchResults.isEmpty ()) {
+            return Collections.emptyList ();
+        }
+        List<BatchResult> results = new ArrayList<> (batchResults);
+        batchResults.clear ();
+        return results;
+    }
+
+    @Override
+    public void rollback() throws SQLException {
+        // 丢弃还没执行的批次
+        clearCurrent ();
+        batchResults.clear ();
+        super.rollback ();
+    }
+
+    @Override
+    protected PreparedStatement prepareStatement(MappedStatement ms, String sql) throws SQLException {
+        return newStatement (ms, sql);
+    }
+
+    @Override
+    protected void closeStatement(PreparedStatement ps) {
+        try {
+            ps.close ();
+        } catch (SQLException e) {
+            // ignore
+        }
+    }
+
+    @Override
+    protected void closeStatements() {
+        clearCurrent ();
+    }
+
+    private void executeBatch() throws SQLException {
+        if (batchCount > 0) {
+            batchCount = 0;
+            batchResults.add (new BatchResult (currentStatement, currentSql, currentPs.executeBatch ()));
+        }
+    }
+
+    private void doFlush() throws SQLException {
+        if (currentPs == null) {
+            return;
+        }
+        try {
+            executeBatch ();
+        } finally {
+            clearCurrent ();
+        }
+    }
+
+    private void clearCurrent() {
+        if (currentPs != null) {
+            closeStatement (currentPs);
+        }
+        currentPs = null;
+        currentStatement = null;
+        currentSql = null;
+        batchCount = 0;
+    }
+}
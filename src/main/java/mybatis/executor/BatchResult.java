@@ -0,0 +1,43 @@
+package mybatis.executor;
+
+import mybatis.bingding.MappedStatement;
+
+/**
+ * 类名称: BatchResult
+ * 功能描述: 一次executeBatch的结果，updateCounts和addBatch的顺序一一对应
+ * 日期:  2026/10/18 11:50
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class BatchResult {
+
+    private final MappedStatement mappedStatement;
+
+    // 动态sql渲染出的sql
+    private final String sql;
+
+    private final int[] updateCounts;
+
+    public BatchResult(MappedStatement mappedStatement, int[] updateCounts) {
+        this (mappedStatement, mappedStatement.getSql (), updateCounts);
+    }
+
+    public BatchResult(MappedStatement mappedStatement, String sql, int[] updateCounts) {
+        this.mappedStatement = mappedStatement;
+        this.sql = sql;
+        this.updateCounts = updateCounts;
+    }
+
+    public MappedStatement getMappedStatement() {
+        return mappedStatement;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public int[] getUpdateCounts() {
+        return updateCounts;
+    }
+}
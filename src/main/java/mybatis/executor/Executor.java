@@ -0,0 +1,42 @@
+package mybatis.executor;
+
+import mybatis.bingding.MappedStatement;
+import mybatis.cursor.Cursor;
+import mybatis.executor.parameter.BoundParameters;
+import mybatis.executor.resultset.RowMapperFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * 类名称: Executor
+ * 功能描述: 执行器，负责把MappedStatement交给JDBC执行
+ * 日期:  2026/10/18 10:30
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public interface Executor {
+
+    int update(MappedStatement ms, BoundParameters parameters) throws SQLException;
+
+    <E> List<E> query(MappedStatement ms, BoundParameters parameters, RowMapperFactory<E> rowMapperFactory) throws SQLException;
+
+    // 游标关闭时先关闭语句，再执行onClose
+    <E> Cursor<E> queryCursor(MappedStatement ms, BoundParameters parameters, RowMapperFactory<E> rowMapperFactory, Runnable onClose) throws SQLException;
+
+    // 执行缓冲中的语句，返回每个批次的影响行数
+    List<BatchResult> flushStatements() throws SQLException;
+
+    void commit() throws SQLException;
+
+    void rollback() throws SQLException;
+
+    // 执行器独占的连接
+    Connection getConnection();
+
+    // 关闭执行器，同时释放底层连接
+    void close();
+
+}
@@ -0,0 +1,30 @@
+package mybatis.executor;
+
+/**
+ * 类名称: ExecutorException
+ * 功能描述: 执行语句时出现的异常，包装底层的SQLException
+ * 日期:  2026/10/18 10:32
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class ExecutorException extends RuntimeException {
+
+    private static final long serialVersionUID = 4060977051977364820L;
+
+    public ExecutorException() {
+        super ();
+    }
+
+    public ExecutorException(String message) {
+        super (message);
+    }
+
+    public ExecutorException(String message, Throwable cause) {
+        super (message, cause);
+    }
+
+    public ExecutorException(Throwable cause) {
+        super (cause);
+    }
+}
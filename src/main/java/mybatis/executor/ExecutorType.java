@@ -0,0 +1,20 @@
+package mybatis.executor;
+
+/**
+ * 类名称: ExecutorType
+ * 功能描述: 执行器类型
+ * 日期:  2026/10/18 11:25
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public enum ExecutorType {
+
+    // 每次执行都重新prepare语句
+    SIMPLE,
+    // 连接上缓存prepare过的语句
+    REUSE,
+    // insert语句批量执行，通过SqlSessionFactory.openSession(ExecutorType.BATCH)开启
+    BATCH;
+
+}
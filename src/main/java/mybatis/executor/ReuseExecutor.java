@@ -0,0 +1,63 @@
+package mybatis.executor;
+
+import mybatis.bingding.MappedStatement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * 类名称: ReuseExecutor
+ * 功能描述: 在同一个连接上复用已经prepare过的语句，静态语句按MappedStatement的id缓存，动态sql按渲染出的sql缓存
+ * 日期:  2026/10/18 11:10
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class ReuseExecutor extends BaseExecutor {
+
+    private final StatementCache statementCache;
+
+    public ReuseExecutor(Connection connection, int statementCacheSize, StatementCacheStats stats) {
+        super (connection);
+        this.statementCache = new StatementCache (statementCacheSize, stats);
+    }
+
+    @Override
+    protected PreparedStatement prepareStatement(MappedStatement ms, String sql) throws SQLException {
+        String key = ms.isDynamic () ? sql : ms.getName ();
+        PreparedStatement ps = statementCache.get (key);
+        if (ps == null) {
+            // 缓存没有命中，prepare后放入缓存
+            ps = newStatement (ms, sql);
+            statementCache.put (key, ps);
+        }
+        return ps;
+    }
+
+    @Override
+    protected void closeStatement(PreparedStatement ps) {
+        // 语句留在缓存中，等待下次复用
+    }
+
+    // 游标使用单独prepare的语句，不放入缓存：缓存的语句再次执行或者被淘汰时会关闭游标的ResultSet，
+    // 执行器归还后下一个会话也可能拿到ResultSet还没关闭的语句
+    @Override
+    protected PreparedStatement prepareCursorStatement(MappedStatement ms, String sql) throws SQLException {
+        return newStatement (ms, sql);
+    }
+
+    @Override
+    protected void closeCursorStatement(PreparedStatement ps) {
+        try {
+            ps.close ();
+        } catch (SQLException e) {
+            // ignore
+        }
+    }
+
+    @Override
+    protected void closeStatements() {
+        statementCache.clear ();
+    }
+}
@@ -0,0 +1,36 @@
+package mybatis.executor;
+
+import mybatis.bingding.MappedStatement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * 类名称: SimpleExecutor
+ * 功能描述: 每次执行都重新prepare语句，执行完立即关闭
+ * 日期:  2026/10/18 10:35
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class SimpleExecutor extends BaseExecutor {
+
+    public SimpleExecutor(Connection connection) {
+        super (connection);
+    }
+
+    @Override
+    protected PreparedStatement prepareStatement(MappedStatement ms, String sql) throws SQLException {
+        return newStatement (ms, sql);
+    }
+
+    @Override
+    protected void closeStatement(PreparedStatement ps) {
+        try {
+            ps.close ();
+        } catch (SQLException e) {
+            // ignore
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package mybatis.executor;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 类名称: StatementCache
+ * 功能描述: 单个连接上的PreparedStatement缓存，超过容量时按LRU淘汰并关闭被淘汰的语句
+ * 日期:  2026/10/18 11:15
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class StatementCache {
+
+    private final Map<String, PreparedStatement> statements;
+
+    private final StatementCacheStats stats;
+
+    // 和所属连接一样只在一个线程中使用，不需要同步
+    public StatementCache(final int capacity, StatementCacheStats stats) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException ("Statement cache capacity must be at least 1: " + capacity);
+        }
+        this.stats = stats;
+        this.statements = new LinkedHashMap<String, PreparedStatement> (16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size () > capacity) {
+                    close (eldest.getValue ());
+                    StatementCache.this.stats.recordEviction ();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public PreparedStatement get(String id) {
+        PreparedStatement ps = statements.get (id);
+        if (ps == null) {
+            stats.recordMiss ();
+        } else {
+            stats.recordHit ();
+        }
+        return ps;
+    }
+
+    public void put(String id, PreparedStatement ps) {
+        PreparedStatement previous = statements.put (id, ps);
+        if (previous != null && previous != ps) {
+            close (previous);
+        }
+    }
+
+    public int size() {
+        return statements.size ();
+    }
+
+    // 关闭并清空所有缓存的语句
+    public void clear() {
+        for (PreparedStatement ps : statements.values ()) {
+            close (ps);
+        }
+        statements.clear ();
+    }
+
+    private static void close(PreparedStatement ps) {
+        try {
+            ps.close ();
+        } catch (SQLException e) {
+            // ignore
+        }
+    }
+}
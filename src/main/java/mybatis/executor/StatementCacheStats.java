@@ -0,0 +1,55 @@
+package mybatis.executor;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 类名称: StatementCacheStats
+ * 功能描述: 语句缓存的命中、未命中和淘汰计数，同一个SqlSessionFactory下的所有连接共用一份
+ * 日期:  2026/10/18 11:20
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class StatementCacheStats {
+
+    private final LongAdder hits = new LongAdder ();
+
+    private final LongAdder misses = new LongAdder ();
+
+    private final LongAdder evictions = new LongAdder ();
+
+    void recordHit() {
+        hits.increment ();
+    }
+
+    void recordMiss() {
+        misses.increment ();
+    }
+
+    void recordEviction() {
+        evictions.increment ();
+    }
+
+    public long getHits() {
+        return hits.sum ();
+    }
+
+    public long getMisses() {
+        return misses.sum ();
+    }
+
+    public long getEvictions() {
+        return evictions.sum ();
+    }
+
+    public void reset() {
+        hits.reset ();
+        misses.reset ();
+        evictions.reset ();
+    }
+
+    @Override
+    public String toString() {
+        return "StatementCacheStats{hits=" + getHits () + ", misses=" + getMisses () + ", evictions=" + getEvictions () + "}";
+    }
+}
@@ -0,0 +1,88 @@
+package mybatis.executor.parameter;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 类名称: BoundParameters
+ * 功能描述: 一次调用绑定的参数值，按?的顺序排列，执行时按位置直接设置到PreparedStatement
+ * 日期:  2026/10/18 15:45
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public final class BoundParameters {
+
+    public static final BoundParameters EMPTY = new BoundParameters (new Object[0], new ParameterSetter[0], new int[0]);
+
+    private final Object[] values;
+
+    private final ParameterSetter[] setters;
+
+    // 值为null时setNull使用的类型
+    private final int[] nullTypes;
+
+    // 动态sql本次渲染出的sql，静态语句为null，使用MappedStatement的sql
+    private final String sql;
+
+    // setters和nullTypes来自编译好的参数计划，所有调用共用，不会被修改
+    public BoundParameters(Object[] values, ParameterSetter[] setters, int[] nullTypes) {
+        this (null, values, setters, nullTypes);
+    }
+
+    // setters可以比values长，只使用前values.length个
+    public BoundParameters(String sql, Object[] values, ParameterSetter[] setters, int[] nullTypes) {
+        this.sql = sql;
+        this.values = values;
+        this.setters = setters;
+        this.nullTypes = nullTypes;
+    }
+
+    public void applyTo(PreparedStatement ps) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                ps.setNull (i + 1, nullTypes[i]);
+            } else {
+                setters[i].set (ps, i + 1, value);
+            }
+        }
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public Object getValue(int index) {
+        return values[index];
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    // 作为查询缓存key的一部分，比较参数值和动态sql渲染出的sql
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BoundParameters)) {
+            return false;
+        }
+        BoundParameters that = (BoundParameters) o;
+        return Objects.equals (sql, that.sql) && Arrays.deepEquals (values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hashCode (sql) + Arrays.deepHashCode (values);
+    }
+
+    @Override
+    public String toString() {
+        return sql == null ? Arrays.toString (values) : sql + " " + Arrays.toString (values);
+    }
+}
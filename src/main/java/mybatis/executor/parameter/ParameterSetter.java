@@ -0,0 +1,18 @@
+package mybatis.executor.parameter;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * 类名称: ParameterSetter
+ * 功能描述: 按参数类型调用PreparedStatement的setXxx方法，value不为null
+ * 日期:  2026/10/18 15:40
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public interface ParameterSetter {
+
+    void set(PreparedStatement ps, int index, Object value) throws SQLException;
+
+}
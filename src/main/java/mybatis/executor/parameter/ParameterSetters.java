@@ -0,0 +1,86 @@
+package mybatis.executor.parameter;
+
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 类名称: ParameterSetters
+ * 功能描述: 为每种参数类型选择对应的setXxx方法，类型在构建时未知的参数按运行时的类选择
+ * 日期:  2026/10/18 15:42
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public final class ParameterSetters {
+
+    private static final Map<Class<?>, ParameterSetter> SETTERS = new HashMap<> ();
+
+    private static final ParameterSetter OBJECT_SETTER = (ps, index, value) -> ps.setObject (index, value);
+
+    // 按值的实际类型选择
+    private static final ParameterSetter RUNTIME_SETTER = (ps, index, value) -> {
+        ParameterSetter setter = SETTERS.get (value.getClass ());
+        (setter != null ? setter : OBJECT_SETTER).set (ps, index, value);
+    };
+
+    static {
+        ParameterSetter intSetter = (ps, index, value) -> ps.setInt (index, (Integer) value);
+        ParameterSetter longSetter = (ps, index, value) -> ps.setLong (index, (Long) value);
+        ParameterSetter shortSetter = (ps, index, value) -> ps.setShort (index, (Short) value);
+        ParameterSetter byteSetter = (ps, index, value) -> ps.setByte (index, (Byte) value);
+        ParameterSetter doubleSetter = (ps, index, value) -> ps.setDouble (index, (Double) value);
+        ParameterSetter floatSetter = (ps, index, value) -> ps.setFloat (index, (Float) value);
+        ParameterSetter booleanSetter = (ps, index, value) -> ps.setBoolean (index, (Boolean) value);
+        SETTERS.put (int.class, intSetter);
+        SETTERS.put (Integer.class, intSetter);
+        SETTERS.put (long.class, longSetter);
+        SETTERS.put (Long.class, longSetter);
+        SETTERS.put (short.class, shortSetter);
+        SETTERS.put (Short.class, shortSetter);
+        SETTERS.put (byte.class, byteSetter);
+        SETTERS.put (Byte.class, byteSetter);
+        SETTERS.put (double.class, doubleSetter);
+        SETTERS.put (Double.class, doubleSetter);
+        SETTERS.put (float.class, floatSetter);
+        SETTERS.put (Float.class, floatSetter);
+        SETTERS.put (boolean.class, booleanSetter);
+        SETTERS.put (Boolean.class, booleanSetter);
+        SETTERS.put (char.class, (ps, index, value) -> ps.setString (index, value.toString ()));
+        SETTERS.put (Character.class, (ps, index, value) -> ps.setString (index, value.toString ()));
+        SETTERS.put (String.class, (ps, index, value) -> ps.setString (index, (String) value));
+        SETTERS.put (BigDecimal.class, (ps, index, value) -> ps.setBigDecimal (index, (BigDecimal) value));
+        SETTERS.put (byte[].class, (ps, index, value) -> ps.setBytes (index, (byte[]) value));
+        SETTERS.put (java.util.Date.class, (ps, index, value) -> ps.setTimestamp (index, new Timestamp (((java.util.Date) value).getTime ())));
+        SETTERS.put (java.sql.Date.class, (ps, index, value) -> ps.setDate (index, (java.sql.Date) value));
+        SETTERS.put (java.sql.Time.class, (ps, index, value) -> ps.setTime (index, (java.sql.Time) value));
+        SETTERS.put (Timestamp.class, (ps, index, value) -> ps.setTimestamp (index, (Timestamp) value));
+    }
+
+    private ParameterSetters() {
+        // Prevent Instantiation
+    }
+
+    // 可以直接作为一个?绑定的类型
+    public static boolean isSimpleType(Class<?> type) {
+        return SETTERS.containsKey (type) || Number.class.isAssignableFrom (type) || type.isEnum ()
+                || type.getName ().startsWith ("java.time.");
+    }
+
+    public static ParameterSetter forType(Class<?> type) {
+        ParameterSetter setter = SETTERS.get (type);
+        if (setter != null) {
+            return setter;
+        }
+        if (type.isEnum ()) {
+            return (ps, index, value) -> ps.setString (index, ((Enum<?>) value).name ());
+        }
+        if (type == Object.class || !Modifier.isFinal (type.getModifiers ())) {
+            // 声明类型可能是父类，按实际类型选择
+            return RUNTIME_SETTER;
+        }
+        return OBJECT_SETTER;
+    }
+}
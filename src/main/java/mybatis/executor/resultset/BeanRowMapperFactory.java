@@ -0,0 +1,283 @@
+package mybatis.executor.resultset;
+
+import mybatis.executor.ExecutorException;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * 类名称: BeanRowMapperFactory
+ * 功能描述: 把每一行映射为JavaBean。setter和无参构造函数在创建时通过LambdaMetafactory生成调用类，
+ * 第一次查询时按列名解析出 列下标->setter 的映射，之后每一行直接按下标读取并调用setter，不再走反射。
+ * 没有无参构造函数时，按列的顺序调用参数个数相同的构造函数
+ * 日期:  2026/10/18 14:20
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class BeanRowMapperFactory<E> implements RowMapperFactory<E> {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup ();
+
+    private final Class<E> type;
+
+    // 无参构造函数，没有时为null
+    private final Supplier<Object> constructor;
+
+    // 属性名（小写）-> setter
+    private final Map<String, PropertySetter> setters = new HashMap<> ();
+
+    // 上一次解析的结果，列不变时直接复用
+    private volatile CompiledMapper<E> compiled;
+
+    public BeanRowMapperFactory(Class<E> type) {
+        this.type = type;
+        this.constructor = defaultConstructor (type);
+        for (Method method : type.getMethods ()) {
+            if (isSetter (method)) {
+                String property = method.getName ().substring (3).toLowerCase (Locale.ENGLISH);
+                if (!setters.containsKey (property)) {
+                    setters.put (property, new PropertySetter (method.getParameterTypes ()[0], setter (type, method)));
+                }
+            }
+        }
+    }
+
+    @Override
+    public RowMapper<E> getRowMapper(ResultSetMetaData metaData) throws SQLException {
+        CompiledMapper<E> current = compiled;
+        if (current == null || !current.matches (metaData)) {
+            current = compile (metaData);
+            compiled = current;
+        }
+        return current.rowMapper;
+    }
+
+    private CompiledMapper<E> compile(ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount ();
+        String[] labels = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            labels[i] = metaData.getColumnLabel (i + 1);
+        }
+        RowMapper<E> rowMapper = constructor != null ? setterMapper (labels) : constructorMapper (labels);
+        return new CompiledMapper<> (labels, rowMapper);
+    }
+
+    // 列名忽略大小写和下划线匹配属性，如 USER_NAME -> userName，没有对应属性的列忽略
+    @SuppressWarnings("unchecked")
+    private RowMapper<E> setterMapper(String[] labels) {
+        List<Integer> columns = new ArrayList<> ();
+        List<PropertySetter> matched = new ArrayList<> ();
+        for (int i = 0; i < labels.length; i++) {
+            PropertySetter setter = setters.get (labels[i].replace ("_", "").toLowerCase (Locale.ENGLISH));
+            if (setter != null) {
+                columns.add (i + 1);
+                matched.add (setter);
+            }
+        }
+        final int size = matched.size ();
+        final int[] columnIndexes = new int[size];
+        final ColumnReader[] readers = new ColumnReader[size];
+        @SuppressWarnings("unchecked")
+        final BiConsumer<Object, Object>[] writers = (BiConsumer<Object, Object>[]) new BiConsumer<?, ?>[size];
+        for (int i = 0; i < size; i++) {
+            columnIndexes[i] = columns.get (i);
+            readers[i] = ColumnReaders.forType (matched.get (i).type);
+            writers[i] = matched.get (i).writer;
+        }
+        final Supplier<Object> factory = constructor;
+        return rs -> {
+            Object result = factory.get ();
+            for (int i = 0; i < size; i++) {
+                Object value = readers[i].read (rs, columnIndexes[i]);
+                // NULL不赋值，基本类型保留默认值
+                if (value != null) {
+                    writers[i].accept (result, value);
+                }
+            }
+            return (E) result;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private RowMapper<E> constructorMapper(String[] labels) {
+        Constructor<?> target = null;
+        // getConstructors的顺序不确定，参数个数相同的构造函数有多个时无法按列的位置选择
+        for (Constructor<?> candidate : type.getConstructors ()) {
+            if (candidate.getParameterCount () == labels.length) {
+                if (target != null) {
+                    throw new ExecutorException ("Ambiguous constructors with " + labels.length + " arguments found for " + type.getName ()
+                            + ", add a default constructor with setters");
+                }
+                target = candidate;
+            }
+        }
+        if (target == null) {
+            throw new ExecutorException ("No default constructor or constructor with " + labels.length + " arguments found for " + type.getName ());
+        }
+        final MethodHandle handle;
+        try {
+            handle = LOOKUP.unreflectConstructor (target)
+                    .asSpreader (Object[].class, labels.length)
+                    .asType (MethodType.methodType (Object.class, Object[].class));
+        } catch (IllegalAccessException e) {
+            throw new ExecutorException ("Error accessing constructor of " + type.getName () + ". Cause: " + e, e);
+        }
+        Class<?>[] parameterTypes = target.getParameterTypes ();
+        final int size = parameterTypes.length;
+        final ColumnReader[] readers = new ColumnReader[size];
+        final Object[] defaults = new Object[size];
+        for (int i = 0; i < size; i++) {
+            readers[i] = ColumnReaders.forType (parameterTypes[i]);
+            defaults[i] = defaultValue (parameterTypes[i]);
+        }
+        return rs -> {
+            Object[] args = new Object[size];
+            for (int i = 0; i < size; i++) {
+                Object value = readers[i].read (rs, i + 1);
+                args[i] = value != null ? value : defaults[i];
+            }
+            try {
+                return (E) handle.invokeExact (args);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new ExecutorException ("Error creating instance of " + type.getName () + ". Cause: " + t, t);
+            }
+        };
+    }
+
+    private static boolean isSetter(Method method) {
+        return method.getName ().startsWith ("set") && method.getName ().length () > 3
+                && method.getParameterCount () == 1 && !Modifier.isStatic (method.getModifiers ());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> defaultConstructor(Class<?> type) {
+        MethodHandle handle;
+        try {
+            handle = LOOKUP.findConstructor (type, MethodType.methodType (void.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+        try {
+            CallSite site = LambdaMetafactory.metafactory (LOOKUP, "get", MethodType.methodType (Supplier.class),
+                    MethodType.methodType (Object.class), handle, MethodType.methodType (type));
+            return (Supplier<Object>) site.getTarget ().invokeExact ();
+        } catch (Throwable t) {
+            // 类加载器不可见等情况下退回到MethodHandle调用
+            final MethodHandle generic = handle.asType (MethodType.methodType (Object.class));
+            return () -> {
+                try {
+                    return generic.invokeExact ();
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new ExecutorException ("Error creating instance of " + type.getName () + ". Cause: " + e, e);
+                }
+            };
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> setter(Class<?> type, Method method) {
+        MethodHandle handle;
+        try {
+            handle = LOOKUP.unreflect (method);
+        } catch (IllegalAccessException e) {
+            throw new ExecutorException ("Error accessing setter " + method + ". Cause: " + e, e);
+        }
+        Class<?> parameterType = MethodType.methodType (method.getParameterTypes ()[0]).wrap ().returnType ();
+        try {
+            CallSite site = LambdaMetafactory.metafactory (LOOKUP, "accept", MethodType.methodType (BiConsumer.class),
+                    MethodType.methodType (void.class, Object.class, Object.class), handle,
+                    MethodType.methodType (void.class, type, parameterType));
+            return (BiConsumer<Object, Object>) site.getTarget ().invokeExact ();
+        } catch (Throwable t) {
+            final MethodHandle generic = handle.asType (MethodType.methodType (void.class, Object.class, Object.class));
+            return (target, value) -> {
+                try {
+                    generic.invokeExact (target, value);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new ExecutorException ("Error invoking setter " + method + ". Cause: " + e, e);
+                }
+            };
+        }
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive ()) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        } else if (type == char.class) {
+            return '\0';
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == double.class) {
+            return 0d;
+        } else if (type == float.class) {
+            return 0f;
+        } else if (type == short.class) {
+            return (short) 0;
+        }
+        return (byte) 0;
+    }
+
+    private static class PropertySetter {
+
+        private final Class<?> type;
+
+        private final BiConsumer<Object, Object> writer;
+
+        PropertySetter(Class<?> type, BiConsumer<Object, Object> writer) {
+            this.type = type;
+            this.writer = writer;
+        }
+    }
+
+    private static class CompiledMapper<E> {
+
+        private final String[] labels;
+
+        private final RowMapper<E> rowMapper;
+
+        CompiledMapper(String[] labels, RowMapper<E> rowMapper) {
+            this.labels = labels;
+            this.rowMapper = rowMapper;
+        }
+
+        // 列的个数和列名都相同时复用
+        boolean matches(ResultSetMetaData metaData) throws SQLException {
+            if (metaData.getColumnCount () != labels.length) {
+                return false;
+            }
+            for (int i = 0; i < labels.length; i++) {
+                if (!labels[i].equals (metaData.getColumnLabel (i + 1))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
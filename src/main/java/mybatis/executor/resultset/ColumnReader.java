@@ -0,0 +1,18 @@
+package mybatis.executor.resultset;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 类名称: ColumnReader
+ * 功能描述: 按目标类型读取一列，SQL NULL返回null
+ * 日期:  2026/10/18 14:10
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public interface ColumnReader {
+
+    Object read(ResultSet rs, int column) throws SQLException;
+
+}
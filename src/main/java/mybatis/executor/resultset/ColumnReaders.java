@@ -0,0 +1,116 @@
+package mybatis.executor.resultset;
+
+import mybatis.executor.ExecutorException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 类名称: ColumnReaders
+ * 功能描述: 为每种目标类型选择对应的ResultSet getXxx方法，避免先getObject再转换
+ * 日期:  2026/10/18 14:12
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public final class ColumnReaders {
+
+    private static final Map<Class<?>, ColumnReader> READERS = new HashMap<> ();
+
+    static {
+        ColumnReader intReader = (rs, column) -> {
+            int value = rs.getInt (column);
+            return value == 0 && rs.wasNull () ? null : value;
+        };
+        ColumnReader longReader = (rs, column) -> {
+            long value = rs.getLong (column);
+            return value == 0 && rs.wasNull () ? null : value;
+        };
+        ColumnReader shortReader = (rs, column) -> {
+            short value = rs.getShort (column);
+            return value == 0 && rs.wasNull () ? null : value;
+        };
+        ColumnReader byteReader = (rs, column) -> {
+            byte value = rs.getByte (column);
+            return value == 0 && rs.wasNull () ? null : value;
+        };
+        ColumnReader doubleReader = (rs, column) -> {
+            double value = rs.getDouble (column);
+            return value == 0 && rs.wasNull () ? null : value;
+        };
+        ColumnReader floatReader = (rs, column) -> {
+            float value = rs.getFloat (column);
+            return value == 0 && rs.wasNull () ? null : value;
+        };
+        ColumnReader booleanReader = (rs, column) -> {
+            boolean value = rs.getBoolean (column);
+            return !value && rs.wasNull () ? null : value;
+        };
+        READERS.put (int.class, intReader);
+        READERS.put (Integer.class, intReader);
+        READERS.put (long.class, longReader);
+        READERS.put (Long.class, longReader);
+        READERS.put (short.class, shortReader);
+        READERS.put (Short.class, shortReader);
+        READERS.put (byte.class, byteReader);
+        READERS.put (Byte.class, byteReader);
+        READERS.put (double.class, doubleReader);
+        READERS.put (Double.class, doubleReader);
+        READERS.put (float.class, floatReader);
+        READERS.put (Float.class, floatReader);
+        READERS.put (boolean.class, booleanReader);
+        READERS.put (Boolean.class, booleanReader);
+        READERS.put (String.class, (rs, column) -> rs.getString (column));
+        READERS.put (BigDecimal.class, (rs, column) -> rs.getBigDecimal (column));
+        READERS.put (BigInteger.class, (rs, column) -> {
+            BigDecimal value = rs.getBigDecimal (column);
+            return value == null ? null : value.toBigInteger ();
+        });
+        READERS.put (byte[].class, (rs, column) -> rs.getBytes (column));
+        READERS.put (java.util.Date.class, (rs, column) -> {
+            java.sql.Timestamp value = rs.getTimestamp (column);
+            return value == null ? null : new java.util.Date (value.getTime ());
+        });
+        READERS.put (java.sql.Date.class, (rs, column) -> rs.getDate (column));
+        READERS.put (java.sql.Time.class, (rs, column) -> rs.getTime (column));
+        READERS.put (java.sql.Timestamp.class, (rs, column) -> rs.getTimestamp (column));
+        READERS.put (Object.class, (rs, column) -> rs.getObject (column));
+    }
+
+    private ColumnReaders() {
+        // Prevent Instantiation
+    }
+
+    public static boolean isSimpleType(Class<?> type) {
+        return (READERS.containsKey (type) && type != Object.class) || type.isEnum ();
+    }
+
+    // 枚举按name()读取，和ParameterSetters写入的方式一致；没有专门的读取方法时，交给驱动按JDBC 4.2的getObject(int, Class)转换，如LocalDate等
+    public static ColumnReader forType(Class<?> type) {
+        ColumnReader reader = READERS.get (type);
+        if (reader != null) {
+            return reader;
+        }
+        if (type.isEnum ()) {
+            return enumReader (type.asSubclass (Enum.class));
+        }
+        return (rs, column) -> rs.getObject (column, type);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ColumnReader enumReader(Class<? extends Enum> type) {
+        return (rs, column) -> {
+            String name = rs.getString (column);
+            if (name == null) {
+                return null;
+            }
+            try {
+                return Enum.valueOf (type, name);
+            } catch (IllegalArgumentException e) {
+                throw new ExecutorException ("No enum constant " + type.getName () + "." + name + " for column " + column);
+            }
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package mybatis.executor.resultset;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 类名称: MapRowMapper
+ * 功能描述: 每一行转换为 列名->值 的Map，列名在创建时从ResultSetMetaData中一次性取出
+ * 日期:  2026/10/18 13:12
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class MapRowMapper implements RowMapper<Map<String, Object>> {
+
+    private final String[] columns;
+
+    public MapRowMapper(ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount ();
+        this.columns = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columns[i] = metaData.getColumnLabel (i + 1);
+        }
+    }
+
+    @Override
+    public Map<String, Object> mapRow(ResultSet rs) throws SQLException {
+        Map<String, Object> row = new LinkedHashMap<> (columns.length * 2);
+        for (int i = 0; i < columns.length; i++) {
+            row.put (columns[i], rs.getObject (i + 1));
+        }
+        return row;
+    }
+}
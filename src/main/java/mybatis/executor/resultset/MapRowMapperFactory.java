@@ -0,0 +1,26 @@
+package mybatis.executor.resultset;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * 类名称: MapRowMapperFactory
+ * 功能描述: 结果为 列名->值 的Map
+ * 日期:  2026/10/18 14:05
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class MapRowMapperFactory implements RowMapperFactory<Map<String, Object>> {
+
+    public static final MapRowMapperFactory INSTANCE = new MapRowMapperFactory ();
+
+    private MapRowMapperFactory() {
+    }
+
+    @Override
+    public RowMapper<Map<String, Object>> getRowMapper(ResultSetMetaData metaData) throws SQLException {
+        return new MapRowMapper (metaData);
+    }
+}
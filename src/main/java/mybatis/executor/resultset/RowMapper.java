@@ -0,0 +1,18 @@
+package mybatis.executor.resultset;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 类名称: RowMapper
+ * 功能描述: 把ResultSet的当前行转换为结果对象
+ * 日期:  2026/10/18 13:10
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public interface RowMapper<E> {
+
+    E mapRow(ResultSet rs) throws SQLException;
+
+}
@@ -0,0 +1,30 @@
+package mybatis.executor.resultset;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * 类名称: RowMapperFactory
+ * 功能描述: 根据结果集的列生成RowMapper，列下标只在第一次使用时解析，之后列不变就直接复用
+ * 日期:  2026/10/18 14:00
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public interface RowMapperFactory<E> {
+
+    RowMapper<E> getRowMapper(ResultSetMetaData metaData) throws SQLException;
+
+    // 按结果类型选择：Map或未指定时返回列名->值，简单类型取第一列，其它按JavaBean映射
+    @SuppressWarnings("unchecked")
+    static <E> RowMapperFactory<E> forType(Class<E> resultType) {
+        if (resultType == null || resultType == Object.class || Map.class.isAssignableFrom (resultType)) {
+            return (RowMapperFactory<E>) MapRowMapperFactory.INSTANCE;
+        }
+        if (ColumnReaders.isSimpleType (resultType)) {
+            return new SingleColumnRowMapperFactory<> (resultType);
+        }
+        return new BeanRowMapperFactory<> (resultType);
+    }
+}
@@ -0,0 +1,27 @@
+package mybatis.executor.resultset;
+
+import java.sql.ResultSetMetaData;
+
+/**
+ * 类名称: SingleColumnRowMapperFactory
+ * 功能描述: 结果为String、Integer等简单类型时，取每一行的第一列
+ * 日期:  2026/10/18 14:08
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class SingleColumnRowMapperFactory<E> implements RowMapperFactory<E> {
+
+    private final RowMapper<E> rowMapper;
+
+    @SuppressWarnings("unchecked")
+    public SingleColumnRowMapperFactory(Class<E> resultType) {
+        ColumnReader reader = ColumnReaders.forType (resultType);
+        this.rowMapper = rs -> (E) reader.read (rs, 1);
+    }
+
+    @Override
+    public RowMapper<E> getRowMapper(ResultSetMetaData metaData) {
+        return rowMapper;
+    }
+}
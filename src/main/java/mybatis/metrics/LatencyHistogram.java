@@ -0,0 +1,188 @@
+package mybatis.metrics;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * 类名称: LatencyHistogram
+ * 功能描述: 固定桶的对数线性直方图，记录纳秒耗时，记录时只有一次CAS或原子加，不加锁
+ * 日期:  2026/10/19 01:00
+ *
+ * 小于8ns每个值一个桶，之后每个2的幂区间平均分成8个桶，相对误差不超过12.5%，
+ * 超过2^41ns（约36分钟）的都记在最后一个桶。第一次记录时才分配一组桶，
+ * 只有CAS失败（多个线程同时记录）时才扩展成多组，之后每次记录随机选一组，减少多核下对同一缓存行的争用，
+ * 读取时再合并；没有执行过的语句不占用桶的内存。reset和并发的记录之间不保证原子性
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public final class LatencyHistogram {
+
+    // 每个2的幂区间分成 2^SUB_BITS 个桶
+    private static final int SUB_BITS = 3;
+
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+
+    private static final int MAX_EXPONENT = 40;
+
+    static final int BUCKET_COUNT = ((MAX_EXPONENT - SUB_BITS + 1) << SUB_BITS) + SUB_COUNT;
+
+    private static final int MAX_STRIPES = maxStripes ();
+
+    private static final AtomicReferenceFieldUpdater<LatencyHistogram, AtomicLongArray[]> STRIPES =
+            AtomicReferenceFieldUpdater.newUpdater (LatencyHistogram.class, AtomicLongArray[].class, "stripes");
+
+    // 没有记录过时为null；扩展时保留原来的第0组，并发的记录不会丢失
+    private volatile AtomicLongArray[] stripes;
+
+    private final AtomicLong max = new AtomicLong ();
+
+    private static int maxStripes() {
+        int processors = Math.min (Runtime.getRuntime ().availableProcessors (), 8);
+        return Integer.highestOneBit (processors * 2 - 1);
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        int bucket = bucket (nanos);
+        AtomicLongArray[] current = stripes;
+        if (current == null) {
+            current = initialize ();
+        }
+        if (current.length == 1) {
+            AtomicLongArray buckets = current[0];
+            long count = buckets.get (bucket);
+            if (!buckets.compareAndSet (bucket, count, count + 1)) {
+                expand (current)[ThreadLocalRandom.current ().nextInt (MAX_STRIPES)].getAndIncrement (bucket);
+            }
+        } else {
+            current[ThreadLocalRandom.current ().nextInt (current.length)].getAndIncrement (bucket);
+        }
+        long currentMax = max.get ();
+        while (nanos > currentMax && !max.compareAndSet (currentMax, nanos)) {
+            currentMax = max.get ();
+        }
+    }
+
+    private AtomicLongArray[] initialize() {
+        STRIPES.compareAndSet (this, null, new AtomicLongArray[]{new AtomicLongArray (BUCKET_COUNT)});
+        return stripes;
+    }
+
+    // 返回MAX_STRIPES组桶；单核时MAX_STRIPES为1，不扩展
+    private AtomicLongArray[] expand(AtomicLongArray[] current) {
+        if (MAX_STRIPES == 1) {
+            return current;
+        }
+        AtomicLongArray[] expanded = new AtomicLongArray[MAX_STRIPES];
+        expanded[0] = current[0];
+        for (int i = 1; i < expanded.length; i++) {
+            expanded[i] = new AtomicLongArray (BUCKET_COUNT);
+        }
+        // 其他线程先扩展了就用它的
+        STRIPES.compareAndSet (this, current, expanded);
+        return stripes;
+    }
+
+    // 当前分成的组数，没有记录过时为0
+    int getStripeCount() {
+        AtomicLongArray[] current = stripes;
+        return current == null ? 0 : current.length;
+    }
+
+    static int bucket(long nanos) {
+        if (nanos < SUB_COUNT) {
+            return (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros (nanos);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int sub = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+        return ((exponent - SUB_BITS + 1) << SUB_BITS) + sub;
+    }
+
+    // 桶内的最大值
+    static long upperBound(int bucket) {
+        if (bucket < SUB_COUNT) {
+            return bucket;
+        }
+        int exponent = (bucket >>> SUB_BITS) + SUB_BITS - 1;
+        long sub = bucket & (SUB_COUNT - 1);
+        long width = 1L << (exponent - SUB_BITS);
+        return ((SUB_COUNT + sub) << (exponent - SUB_BITS)) + width - 1;
+    }
+
+    // 合并后的各桶计数
+    long[] counts() {
+        long[] counts = new long[BUCKET_COUNT];
+        AtomicLongArray[] current = stripes;
+        if (current != null) {
+            for (AtomicLongArray buckets : current) {
+                for (int i = 0; i < BUCKET_COUNT; i++) {
+                    counts[i] += buckets.get (i);
+                }
+            }
+        }
+        return counts;
+    }
+
+    public long getCount() {
+        long count = 0;
+        AtomicLongArray[] current = stripes;
+        if (current != null) {
+            for (AtomicLongArray buckets : current) {
+                for (int i = 0; i < BUCKET_COUNT; i++) {
+                    count += buckets.get (i);
+                }
+            }
+        }
+        return count;
+    }
+
+    public long getMax() {
+        return max.get ();
+    }
+
+    // 每个分位数（0到1之间）所在桶的上界，不超过记录过的最大值；没有记录时为0
+    public long[] percentiles(double... quantiles) {
+        return percentiles (counts (), max.get (), quantiles);
+    }
+
+    static long[] percentiles(long[] counts, long max, double... quantiles) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        long[] values = new long[quantiles.length];
+        if (total == 0) {
+            return values;
+        }
+        for (int q = 0; q < quantiles.length; q++) {
+            long rank = Math.max (1L, (long) Math.ceil (quantiles[q] * total));
+            long seen = 0;
+            int bucket = 0;
+            while (bucket < counts.length - 1 && (seen += counts[bucket]) < rank) {
+                bucket++;
+            }
+            values[q] = Math.min (upperBound (bucket), max);
+        }
+        return values;
+    }
+
+    public void reset() {
+        AtomicLongArray[] current = stripes;
+        if (current != null) {
+            for (AtomicLongArray buckets : current) {
+                for (int i = 0; i < BUCKET_COUNT; i++) {
+                    buckets.set (i, 0L);
+                }
+            }
+        }
+        max.set (0L);
+    }
+}
@@ -0,0 +1,85 @@
+package mybatis.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 类名称: NamespaceMetrics
+ * 功能描述: 一个namespace下按语句id划分的StatementMetrics
+ * 日期:  2026/10/19 01:25
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public final class NamespaceMetrics implements NamespaceMetricsMXBean {
+
+    private final String namespace;
+
+    private final ConcurrentMap<String, StatementMetrics> statements = new ConcurrentHashMap<> ();
+
+    NamespaceMetrics(String namespace) {
+        this.namespace = namespace;
+    }
+
+    // 创建MapperMethod时调用，同一条语句的多个方法共用一份统计
+    public StatementMetrics statement(String id) {
+        StatementMetrics metrics = statements.get (id);
+        return metrics != null ? metrics : statements.computeIfAbsent (id, StatementMetrics::new);
+    }
+
+    public StatementMetrics getStatement(String id) {
+        return statements.get (id);
+    }
+
+    public Collection<StatementMetrics> getStatementMetrics() {
+        return Collections.unmodifiableCollection (statements.values ());
+    }
+
+    @Override
+    public String getNamespace() {
+        return namespace;
+    }
+
+    @Override
+    public long getCalls() {
+        long calls = 0;
+        for (StatementMetrics metrics : statements.values ()) {
+            calls += metrics.getCalls ();
+        }
+        return calls;
+    }
+
+    @Override
+    public long getErrors() {
+        long errors = 0;
+        for (StatementMetrics metrics : statements.values ()) {
+            errors += metrics.getErrors ();
+        }
+        return errors;
+    }
+
+    @Override
+    public List<StatementStats> getStatements() {
+        List<StatementStats> stats = new ArrayList<> (statements.size ());
+        for (StatementMetrics metrics : statements.values ()) {
+            stats.add (metrics.snapshot ());
+        }
+        return stats;
+    }
+
+    @Override
+    public void reset() {
+        for (StatementMetrics metrics : statements.values ()) {
+            metrics.reset ();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "NamespaceMetrics{namespace=" + namespace + ", statements=" + getStatements () + "}";
+    }
+}
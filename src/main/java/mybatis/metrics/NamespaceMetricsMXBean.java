@@ -0,0 +1,28 @@
+package mybatis.metrics;
+
+import java.util.List;
+
+/**
+ * 类名称: NamespaceMetricsMXBean
+ * 功能描述: 一个namespace下所有语句的统计，每个namespace注册一个MBean
+ * 日期:  2026/10/19 01:20
+ *
+ * ObjectName为 mybatis.metrics:type=NamespaceMetrics,configuration=..,namespace=".."
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public interface NamespaceMetricsMXBean {
+
+    String getNamespace();
+
+    long getCalls();
+
+    long getErrors();
+
+    // 每条执行过的语句一项
+    List<StatementStats> getStatements();
+
+    // 清空这个namespace下所有语句的统计
+    void reset();
+}
@@ -0,0 +1,75 @@
+package mybatis.metrics;
+
+import java.time.Instant;
+
+/**
+ * 类名称: SlowStatement
+ * 功能描述: 慢语句日志中的一条记录，不保存参数值本身，只保存参数的摘要（hashCode），相同参数的摘要相同
+ * 日期:  2026/10/19 02:00
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public final class SlowStatement {
+
+    private final long sequence;
+
+    private final String statementId;
+
+    private final int parameterDigest;
+
+    private final long durationNanos;
+
+    private final String threadName;
+
+    private final long timestampMillis;
+
+    // 没有超过阈值、按采样记录的
+    private final boolean sampled;
+
+    SlowStatement(long sequence, String statementId, int parameterDigest, long durationNanos, String threadName,
+                  long timestampMillis, boolean sampled) {
+        this.sequence = sequence;
+        this.statementId = statementId;
+        this.parameterDigest = parameterDigest;
+        this.durationNanos = durationNanos;
+        this.threadName = threadName;
+        this.timestampMillis = timestampMillis;
+        this.sampled = sampled;
+    }
+
+    // 记录的顺序号，从0开始
+    public long getSequence() {
+        return sequence;
+    }
+
+    public String getStatementId() {
+        return statementId;
+    }
+
+    public int getParameterDigest() {
+        return parameterDigest;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    @Override
+    public String toString() {
+        return Instant.ofEpochMilli (timestampMillis) + " [" + threadName + "] " + statementId + " params#"
+                + Integer.toHexString (parameterDigest) + " " + (durationNanos / 1000) + "us" + (sampled ? " (sampled)" : "");
+    }
+}
@@ -0,0 +1,100 @@
+package mybatis.metrics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 类名称: SlowStatementLog
+ * 功能描述: 慢语句日志，耗时超过阈值的语句写入固定大小的环形缓冲区，满了以后覆盖最早的记录
+ * 日期:  2026/10/19 02:05
+ *
+ * 写入只有一次原子自增和一次数组写，不加锁；没有超过阈值的调用只比较一次耗时，
+ * 开启采样时每sampleRate次随机记录一次，用来对比正常的耗时。
+ * 并发写入时落后一圈的线程可能覆盖较新的记录，dump按顺序号排序，不影响其余记录
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public final class SlowStatementLog {
+
+    private final long thresholdNanos;
+
+    private final int sampleRate;
+
+    private final AtomicReferenceArray<SlowStatement> entries;
+
+    private final int mask;
+
+    private final AtomicLong sequence = new AtomicLong ();
+
+    // thresholdMillis小于0时只按采样记录；sampleRate为0时不采样；capacity向上取2的幂
+    public SlowStatementLog(long thresholdMillis, int sampleRate, int capacity) {
+        if (capacity <= 0 || capacity > 1 << 20) {
+            throw new IllegalArgumentException ("Slow statement log capacity must be between 1 and " + (1 << 20) + ": " + capacity);
+        }
+        if (sampleRate < 0) {
+            throw new IllegalArgumentException ("Slow statement sample rate must not be negative: " + sampleRate);
+        }
+        int size = Integer.highestOneBit (capacity * 2 - 1);
+        this.thresholdNanos = thresholdMillis < 0 ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos (thresholdMillis);
+        this.sampleRate = sampleRate;
+        this.entries = new AtomicReferenceArray<> (size);
+        this.mask = size - 1;
+    }
+
+    // parameters只在需要记录时才用hashCode计算摘要
+    public void record(String statementId, Object parameters, long durationNanos) {
+        boolean sampled = false;
+        if (durationNanos < thresholdNanos) {
+            if (sampleRate == 0 || ThreadLocalRandom.current ().nextInt (sampleRate) != 0) {
+                return;
+            }
+            sampled = true;
+        }
+        long next = sequence.getAndIncrement ();
+        entries.set ((int) next & mask, new SlowStatement (next, statementId, Objects.hashCode (parameters), durationNanos,
+                Thread.currentThread ().getName (), System.currentTimeMillis (), sampled));
+    }
+
+    // 缓冲区中的记录，从旧到新
+    public List<SlowStatement> dump() {
+        List<SlowStatement> dump = new ArrayList<> (entries.length ());
+        for (int i = 0; i < entries.length (); i++) {
+            SlowStatement entry = entries.get (i);
+            if (entry != null) {
+                dump.add (entry);
+            }
+        }
+        dump.sort (Comparator.comparingLong (SlowStatement::getSequence));
+        return dump;
+    }
+
+    // 写到out，每条记录一行
+    public void dump(Appendable out) throws IOException {
+        for (SlowStatement entry : dump ()) {
+            out.append (entry.toString ()).append (System.lineSeparator ());
+        }
+    }
+
+    // 一共记录过的条数，包括已经被覆盖的
+    public long getRecorded() {
+        return sequence.get ();
+    }
+
+    public int getCapacity() {
+        return entries.length ();
+    }
+
+    public void clear() {
+        for (int i = 0; i < entries.length (); i++) {
+            entries.set (i, null);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package mybatis.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 类名称: StatementMetrics
+ * 功能描述: 一条语句的调用次数、失败次数、影响或返回的行数以及耗时分布，由MapperMethod在每次执行后记录
+ * 日期:  2026/10/19 01:10
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public final class StatementMetrics {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final String id;
+
+    private final LongAdder errors = new LongAdder ();
+
+    private final LongAdder rows = new LongAdder ();
+
+    private final LatencyHistogram latency = new LatencyHistogram ();
+
+    StatementMetrics(String id) {
+        this.id = id;
+    }
+
+    // 调用次数就是直方图的总数，不单独计数
+    public void record(long nanos, long rowCount) {
+        if (rowCount != 0) {
+            rows.add (rowCount);
+        }
+        latency.record (nanos);
+    }
+
+    // 失败的调用也计入耗时分布
+    public void recordError(long nanos) {
+        errors.increment ();
+        latency.record (nanos);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public long getCalls() {
+        return latency.getCount ();
+    }
+
+    public long getErrors() {
+        return errors.sum ();
+    }
+
+    public long getRows() {
+        return rows.sum ();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public StatementStats snapshot() {
+        long[] counts = latency.counts ();
+        long max = latency.getMax ();
+        long[] percentiles = LatencyHistogram.percentiles (counts, max, QUANTILES);
+        long calls = 0;
+        for (long count : counts) {
+            calls += count;
+        }
+        return new StatementStats (id, calls, getErrors (), getRows (), percentiles[0], percentiles[1], percentiles[2],
+                percentiles[3], max);
+    }
+
+    public void reset() {
+        errors.reset ();
+        rows.reset ();
+        latency.reset ();
+    }
+
+    @Override
+    public String toString() {
+        return snapshot ().toString ();
+    }
+}
@@ -0,0 +1,108 @@
+package mybatis.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 类名称: StatementMetricsRegistry
+ * 功能描述: 一个Configuration下所有namespace的语句统计，namespace第一次用到时创建，开启registerMBeans时注册到平台MBeanServer
+ * 日期:  2026/10/19 01:30
+ *
+ * ObjectName里带上Configuration的序号，同一个JVM里的多个Configuration不会冲突；
+ * 注册失败（比如没有权限）记录警告，不影响统计本身，仍然可以通过getNamespace读取
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public final class StatementMetricsRegistry {
+
+    private static final Logger LOGGER = Logger.getLogger (StatementMetricsRegistry.class.getName ());
+
+    public static final String DOMAIN = "mybatis.metrics";
+
+    private final String configurationId;
+
+    private final boolean registerMBeans;
+
+    private final ConcurrentMap<String, NamespaceMetrics> namespaces = new ConcurrentHashMap<> ();
+
+    private final ConcurrentMap<String, ObjectName> registered = new ConcurrentHashMap<> ();
+
+    public StatementMetricsRegistry(String configurationId, boolean registerMBeans) {
+        this.configurationId = configurationId;
+        this.registerMBeans = registerMBeans;
+    }
+
+    // statementName为namespace + "." + id
+    public StatementMetrics statement(String statementName) {
+        int dot = statementName.lastIndexOf ('.');
+        String namespace = dot < 0 ? "" : statementName.substring (0, dot);
+        return namespace (namespace).statement (statementName.substring (dot + 1));
+    }
+
+    public NamespaceMetrics namespace(String namespace) {
+        NamespaceMetrics metrics = namespaces.get (namespace);
+        if (metrics != null) {
+            return metrics;
+        }
+        boolean[] created = new boolean[1];
+        metrics = namespaces.computeIfAbsent (namespace, key -> {
+            created[0] = true;
+            return new NamespaceMetrics (key);
+        });
+        if (created[0] && registerMBeans) {
+            register (metrics);
+        }
+        return metrics;
+    }
+
+    public NamespaceMetrics getNamespace(String namespace) {
+        return namespaces.get (namespace);
+    }
+
+    public Collection<NamespaceMetrics> getNamespaces() {
+        return Collections.unmodifiableCollection (namespaces.values ());
+    }
+
+    public ObjectName getObjectName(String namespace) {
+        return registered.get (namespace);
+    }
+
+    public void reset() {
+        for (NamespaceMetrics metrics : namespaces.values ()) {
+            metrics.reset ();
+        }
+    }
+
+    private void register(NamespaceMetrics metrics) {
+        try {
+            ObjectName name = new ObjectName (DOMAIN + ":type=NamespaceMetrics,configuration=" + configurationId
+                    + ",namespace=" + ObjectName.quote (metrics.getNamespace ()));
+            ManagementFactory.getPlatformMBeanServer ().registerMBean (metrics, name);
+            registered.put (metrics.getNamespace (), name);
+        } catch (JMException | SecurityException e) {
+            LOGGER.log (Level.WARNING, "Registering statement metrics MBean for namespace " + metrics.getNamespace () + " failed", e);
+        }
+    }
+
+    // SqlSessionFactory关闭时注销，统计数据保留
+    public void unregisterMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer ();
+        for (ObjectName name : registered.values ()) {
+            try {
+                server.unregisterMBean (name);
+            } catch (JMException | SecurityException e) {
+                // ignore
+            }
+        }
+        registered.clear ();
+    }
+}
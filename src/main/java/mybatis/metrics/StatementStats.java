@@ -0,0 +1,88 @@
+package mybatis.metrics;
+
+/**
+ * 类名称: StatementStats
+ * 功能描述: StatementMetrics某一时刻的快照，耗时单位纳秒，分位数是所在直方图桶的上界
+ * 日期:  2026/10/19 01:15
+ *
+ * 通过MXBean暴露时转换成CompositeData
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public final class StatementStats {
+
+    private final String id;
+
+    private final long calls;
+
+    private final long errors;
+
+    private final long rows;
+
+    private final long p50Nanos;
+
+    private final long p90Nanos;
+
+    private final long p99Nanos;
+
+    private final long p999Nanos;
+
+    private final long maxNanos;
+
+    StatementStats(String id, long calls, long errors, long rows, long p50Nanos, long p90Nanos,
+                   long p99Nanos, long p999Nanos, long maxNanos) {
+        this.id = id;
+        this.calls = calls;
+        this.errors = errors;
+        this.rows = rows;
+        this.p50Nanos = p50Nanos;
+        this.p90Nanos = p90Nanos;
+        this.p99Nanos = p99Nanos;
+        this.p999Nanos = p999Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public long getP90Nanos() {
+        return p90Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public long getP999Nanos() {
+        return p999Nanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "StatementStats{id=" + id + ", calls=" + calls + ", errors=" + errors + ", rows=" + rows
+                + ", p50=" + p50Nanos + "ns, p90=" + p90Nanos + "ns, p99=" + p99Nanos
+                + "ns, p999=" + p999Nanos + "ns, max=" + maxNanos + "ns}";
+    }
+}
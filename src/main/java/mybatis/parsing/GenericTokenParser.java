@@ -36,6 +36,11 @@ public class GenericTokenParser {
     this.handler = handler;
   }
 
+  //预编译为模板，同一段文本反复渲染时不用再扫描
+  public TokenTemplate compile(String text) {
+    return TokenTemplate.compile(text, new TokenTemplate.TokenKind(openToken, closeToken));
+  }
+
   public String parse(String text) {
     StringBuilder builder = new StringBuilder();
     if (text != null && text.length() > 0) {
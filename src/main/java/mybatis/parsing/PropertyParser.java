@@ -15,6 +15,7 @@
  */
 package mybatis.parsing;
 
+import java.util.Collections;
 import java.util.Properties;
 
 /**
@@ -23,6 +24,8 @@ import java.util.Properties;
 
 /**
  * 属性解析器
+ *
+ * 需要反复解析时使用PropertyResolver，绑定一份Properties并缓存结果
  */
 public class PropertyParser {
 
@@ -30,26 +33,14 @@ public class PropertyParser {
     // Prevent Instantiation
   }
 
+  //没有${时直接返回传入的字符串，规则见PropertyResolver；和以前一样null返回空串
   public static String parse(String string, Properties variables) {
-    VariableTokenHandler handler = new VariableTokenHandler(variables);
-    GenericTokenParser parser = new GenericTokenParser("${", "}", handler);
-    return parser.parse(string);
-  }
-
-  //就是一个map，用相应的value替换key
-  private static class VariableTokenHandler implements TokenHandler {
-    private Properties variables;
-
-    public VariableTokenHandler(Properties variables) {
-      this.variables = variables;
+    if (string == null) {
+      return "";
     }
-
-    @Override
-    public String handleToken(String content) {
-      if (variables != null && variables.containsKey(content)) {
-        return variables.getProperty(content);
-      }
-      return "${" + content + "}";
+    if (string.indexOf("${") < 0) {
+      return string;
     }
+    return PropertyResolver.resolve(string, variables == null ? Collections.emptyMap() : variables);
   }
 }
@@ -0,0 +1,136 @@
+/*
+ *    Copyright 2009-2012 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package mybatis.parsing;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 绑定到一份Properties快照的${}解析器，解析结果会缓存，可以在多个线程间共享
+ *
+ * 支持${key:default}：没有key（也没有整个"key:default"）时使用default；
+ * 支持嵌套，如${db.${env}.url}、${a:${b}}，先解析里层，整个文本只扫描一遍；
+ * 和以前一样，\${原样输出${，找不到的key原样保留这个${...}的原文，没有结束的}时剩余部分原样输出
+ */
+public final class PropertyResolver {
+
+  //缓存上限，防止动态文本把缓存撑大
+  private static final int MAX_CACHED = 4096;
+
+  private static final PropertyResolver EMPTY = new PropertyResolver(Collections.<String, String>emptyMap());
+
+  //构造时复制，之后Properties再修改不影响这个resolver
+  private final Map<String, String> variables;
+  private final Map<String, String> cache = new ConcurrentHashMap<String, String>();
+
+  private PropertyResolver(Map<String, String> variables) {
+    this.variables = variables;
+  }
+
+  public static PropertyResolver of(Properties properties) {
+    if (properties == null || properties.isEmpty()) {
+      return EMPTY;
+    }
+    Map<String, String> variables = new HashMap<String, String>();
+    for (String name : properties.stringPropertyNames()) {
+      variables.put(name, properties.getProperty(name));
+    }
+    return new PropertyResolver(variables);
+  }
+
+  //没有${时直接返回传入的字符串
+  public String resolve(String text) {
+    if (text == null || text.indexOf("${") < 0) {
+      return text;
+    }
+    String resolved = cache.get(text);
+    if (resolved == null) {
+      resolved = resolve(text, variables);
+      if (cache.size() < MAX_CACHED) {
+        cache.put(text, resolved);
+      }
+    }
+    return resolved;
+  }
+
+  //不缓存，直接从variables取值，PropertyParser.parse使用
+  //从左到右扫描一遍，用栈保存外层已经输出的部分，嵌套再深也不递归、不重复扫描
+  static String resolve(String text, Map<?, ?> variables) {
+    int length = text.length();
+    StringBuilder out = new StringBuilder(length + 16);
+    StringBuilder current = out;
+    //外层的缓冲区，以及每一层${在text中的位置
+    Deque<StringBuilder> outer = new ArrayDeque<StringBuilder>();
+    int[] opens = new int[4];
+    int depth = 0;
+    int i = 0;
+    while (i < length) {
+      char c = text.charAt(i);
+      if (c == '$' && i + 1 < length && text.charAt(i + 1) == '{') {
+        if (i > 0 && text.charAt(i - 1) == '\\') {
+          //转义，去掉已经输出的反斜杠；和以前一样，${}里面的\${不处理，原样作为key的一部分
+          if (depth == 0) {
+            current.setLength(current.length() - 1);
+          }
+          current.append("${");
+        } else {
+          if (depth == opens.length) {
+            opens = Arrays.copyOf(opens, depth * 2);
+          }
+          opens[depth++] = i;
+          outer.push(current);
+          current = new StringBuilder();
+        }
+        i += 2;
+      } else if (c == '}' && depth > 0) {
+        String value = lookup(current.toString(), variables);
+        current = outer.pop();
+        int open = opens[--depth];
+        //找不到时原样保留这一层的原文，而不是解析过的key
+        current.append(value != null ? value : text.substring(open, i + 1));
+        i++;
+      } else {
+        current.append(c);
+        i++;
+      }
+    }
+    if (depth > 0) {
+      //最外层的${没有结束，从它开始原样输出
+      out.append(text, opens[0], length);
+    }
+    return out.toString();
+  }
+
+  //找不到时返回null
+  private static String lookup(String key, Map<?, ?> variables) {
+    Object value = variables.get(key);
+    if (value != null) {
+      return value.toString();
+    }
+    int separator = key.indexOf(':');
+    if (separator > 0) {
+      value = variables.get(key.substring(0, separator));
+      return value != null ? value.toString() : key.substring(separator + 1);
+    }
+    return null;
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ *    Copyright 2009-2012 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package mybatis.parsing;
+
+import org.w3c.dom.Node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 只由元素名、/和|组成的xpath，如 /mapper、select|insert、mapper/select，
+ * 直接遍历DOM的子节点求值，不经过javax.xml.xpath
+ *
+ * 不可变，可以在多个线程间共享
+ */
+final class SimpleXPath {
+
+  //不能走快速路径的表达式
+  static final SimpleXPath NOT_SIMPLE = new SimpleXPath(null, null);
+
+  private final Step[] branches;
+
+  //所有分支都是相对的单个元素名时，遍历一次孩子即可，并且天然是文档顺序
+  private final Set<String> childNames;
+
+  private SimpleXPath(Step[] branches, Set<String> childNames) {
+    this.branches = branches;
+    this.childNames = childNames;
+  }
+
+  boolean isSimple() {
+    return branches != null;
+  }
+
+  static SimpleXPath compile(String expression) {
+    String[] parts = expression.split("\\|", -1);
+    Step[] branches = new Step[parts.length];
+    Set<String> childNames = new LinkedHashSet<String>();
+    for (int i = 0; i < parts.length; i++) {
+      String part = parts[i].trim();
+      boolean absolute = part.startsWith("/");
+      if (absolute) {
+        part = part.substring(1);
+      }
+      String[] names = part.split("/", -1);
+      for (String name : names) {
+        if (!isName(name)) {
+          return NOT_SIMPLE;
+        }
+      }
+      branches[i] = new Step(absolute, names);
+      if (childNames != null && !absolute && names.length == 1) {
+        childNames.add(names[0]);
+      } else {
+        childNames = null;
+      }
+    }
+    return new SimpleXPath(branches, childNames);
+  }
+
+  //按文档顺序返回匹配的元素
+  List<Node> select(Node context) {
+    if (childNames != null) {
+      List<Node> result = new ArrayList<Node>();
+      for (Node child = context.getFirstChild(); child != null; child = child.getNextSibling()) {
+        if (child.getNodeType() == Node.ELEMENT_NODE && childNames.contains(child.getNodeName())) {
+          result.add(child);
+        }
+      }
+      return result;
+    }
+    if (branches.length == 1) {
+      return branches[0].select(context);
+    }
+    Set<Node> union = new LinkedHashSet<Node>();
+    for (Step branch : branches) {
+      union.addAll(branch.select(context));
+    }
+    List<Node> result = new ArrayList<Node>(union);
+    Collections.sort(result, (a, b) -> {
+      if (a == b) {
+        return 0;
+      }
+      return (a.compareDocumentPosition(b) & Node.DOCUMENT_POSITION_FOLLOWING) != 0 ? -1 : 1;
+    });
+    return result;
+  }
+
+  Node selectFirst(Node context) {
+    List<Node> nodes = select(context);
+    return nodes.isEmpty() ? null : nodes.get(0);
+  }
+
+  //xpath的NCName，不含命名空间前缀
+  private static boolean isName(String name) {
+    if (name.isEmpty()) {
+      return false;
+    }
+    char first = name.charAt(0);
+    if (!Character.isLetter(first) && first != '_') {
+      return false;
+    }
+    for (int i = 1; i < name.length(); i++) {
+      char c = name.charAt(i);
+      if (!Character.isLetterOrDigit(c) && c != '_' && c != '-' && c != '.') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  //一个分支：可选的开头/加上若干层元素名
+  private static final class Step {
+
+    private final boolean absolute;
+    private final String[] names;
+
+    Step(boolean absolute, String[] names) {
+      this.absolute = absolute;
+      this.names = names;
+    }
+
+    List<Node> select(Node context) {
+      Node start = context;
+      if (absolute && context.getNodeType() != Node.DOCUMENT_NODE) {
+        start = context.getOwnerDocument();
+      }
+      List<Node> current = Collections.singletonList(start);
+      for (String name : names) {
+        List<Node> next = new ArrayList<Node>();
+        //同一层的节点子树互不相交，按顺序展开仍是文档顺序
+        for (Node node : current) {
+          for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE && name.equals(child.getNodeName())) {
+              next.add(child);
+            }
+          }
+        }
+        current = next;
+      }
+      return current;
+    }
+  }
+}
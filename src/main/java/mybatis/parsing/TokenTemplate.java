@@ -0,0 +1,220 @@
+/*
+ *    Copyright 2009-2012 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package mybatis.parsing;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * 预编译的记号模板
+ *
+ * 一次扫描把文本拆成不可变的片段：原文中的字面量区间和记号引用，之后可以反复渲染，
+ * 不再扫描文本。可以同时识别多种记号，如${}和#{}，记号的规则和GenericTokenParser一致：
+ * 开始记号前面是反斜杠时按字面量输出，找不到结束记号时剩余部分按字面量输出
+ *
+ * 不可变，可以在多个线程间共享
+ */
+public final class TokenTemplate {
+
+  //记号的种类，一对开始和结束记号
+  public static final class TokenKind {
+    private final String openToken;
+    private final String closeToken;
+
+    public TokenKind(String openToken, String closeToken) {
+      if (openToken == null || openToken.isEmpty() || closeToken == null || closeToken.isEmpty()) {
+        throw new IllegalArgumentException("Token delimiters must not be empty");
+      }
+      this.openToken = openToken;
+      this.closeToken = closeToken;
+    }
+
+    public String getOpenToken() {
+      return openToken;
+    }
+
+    public String getCloseToken() {
+      return closeToken;
+    }
+  }
+
+  //渲染记号，直接写到out里，kind是记号种类在compile参数中的下标
+  public interface TokenWriter {
+    void write(int kind, String content, Appendable out) throws IOException;
+  }
+
+  private final String text;
+  private final TokenKind[] kinds;
+  //片段：kind为-1时是text中[start, end)的字面量，否则是记号，content为大括号里的字符串
+  private final int[] segmentKinds;
+  private final int[] starts;
+  private final int[] ends;
+  private final String[] contents;
+  private final int literalLength;
+
+  private TokenTemplate(String text, TokenKind[] kinds, Segments segments) {
+    this.text = text;
+    this.kinds = kinds;
+    int n = segments.size;
+    this.segmentKinds = Arrays.copyOf(segments.kinds, n);
+    this.starts = Arrays.copyOf(segments.starts, n);
+    this.ends = Arrays.copyOf(segments.ends, n);
+    this.contents = Arrays.copyOf(segments.contents, n);
+    int length = 0;
+    for (int i = 0; i < n; i++) {
+      length += ends[i] - starts[i];
+    }
+    this.literalLength = length;
+  }
+
+  public static TokenTemplate compile(String text, TokenKind... kinds) {
+    if (text == null) {
+      text = "";
+    }
+    Segments segments = new Segments();
+    int length = text.length();
+    int offset = 0;
+    //每种记号下一次出现的位置，只有被越过时才重新查找
+    int[] next = new int[kinds.length];
+    for (int k = 0; k < kinds.length; k++) {
+      next[k] = text.indexOf(kinds[k].openToken);
+    }
+    while (true) {
+      int kind = -1;
+      int start = -1;
+      for (int k = 0; k < kinds.length; k++) {
+        if (next[k] > -1 && next[k] < offset) {
+          next[k] = text.indexOf(kinds[k].openToken, offset);
+        }
+        if (next[k] > -1 && (start == -1 || next[k] < start)) {
+          start = next[k];
+          kind = k;
+        }
+      }
+      if (start == -1) {
+        break;
+      }
+      TokenKind token = kinds[kind];
+      if (start > 0 && text.charAt(start - 1) == '\\') {
+        //开始记号被转义，去掉反斜杠，记号原样输出
+        segments.addLiteral(offset, start - 1);
+        segments.addLiteral(start, start + token.openToken.length());
+        offset = start + token.openToken.length();
+      } else {
+        int end = text.indexOf(token.closeToken, start);
+        if (end == -1) {
+          segments.addLiteral(offset, length);
+          offset = length;
+        } else {
+          segments.addLiteral(offset, start);
+          segments.addToken(kind, text.substring(start + token.openToken.length(), end));
+          offset = end + token.closeToken.length();
+        }
+      }
+      next[kind] = text.indexOf(token.openToken, offset);
+    }
+    segments.addLiteral(offset, length);
+    return new TokenTemplate(text, kinds, segments);
+  }
+
+  //编译过程中收集片段
+  private static final class Segments {
+    private int[] kinds = new int[8];
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private String[] contents = new String[8];
+    private int size;
+
+    void addLiteral(int start, int end) {
+      if (start >= end) {
+        return;
+      }
+      //和前一个字面量相邻时合并
+      if (size > 0 && kinds[size - 1] == -1 && ends[size - 1] == start) {
+        ends[size - 1] = end;
+        return;
+      }
+      add(-1, start, end, null);
+    }
+
+    void addToken(int kind, String content) {
+      add(kind, 0, 0, content);
+    }
+
+    private void add(int kind, int start, int end, String content) {
+      if (size == kinds.length) {
+        kinds = Arrays.copyOf(kinds, size * 2);
+        starts = Arrays.copyOf(starts, size * 2);
+        ends = Arrays.copyOf(ends, size * 2);
+        contents = Arrays.copyOf(contents, size * 2);
+      }
+      kinds[size] = kind;
+      starts[size] = start;
+      ends[size] = end;
+      contents[size] = content;
+      size++;
+    }
+  }
+
+  //没有任何记号
+  public boolean isStatic() {
+    for (int kind : segmentKinds) {
+      if (kind != -1) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public int getSegmentCount() {
+    return segmentKinds.length;
+  }
+
+  public TokenKind[] getTokenKinds() {
+    return kinds.clone();
+  }
+
+  public void render(Appendable out, TokenWriter writer) throws IOException {
+    for (int i = 0; i < segmentKinds.length; i++) {
+      int kind = segmentKinds[i];
+      if (kind == -1) {
+        out.append(text, starts[i], ends[i]);
+      } else {
+        writer.write(kind, contents[i], out);
+      }
+    }
+  }
+
+  //每种记号一个handler，和GenericTokenParser.parse的结果相同
+  public String render(TokenHandler... handlers) {
+    if (handlers.length != kinds.length) {
+      throw new IllegalArgumentException("Expected " + kinds.length + " token handlers but got " + handlers.length);
+    }
+    if (segmentKinds.length == 1 && segmentKinds[0] == -1 && starts[0] == 0 && ends[0] == text.length()) {
+      return text;
+    }
+    StringBuilder builder = new StringBuilder(literalLength + 16 * (segmentKinds.length / 2 + 1));
+    for (int i = 0; i < segmentKinds.length; i++) {
+      int kind = segmentKinds[i];
+      if (kind == -1) {
+        builder.append(text, starts[i], ends[i]);
+      } else {
+        builder.append(handlers[kind].handleToken(contents[i]));
+      }
+    }
+    return builder.toString();
+  }
+}
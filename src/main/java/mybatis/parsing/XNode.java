@@ -19,6 +19,7 @@ import org.w3c.dom.CharacterData;
 import org.w3c.dom.*;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -30,54 +31,75 @@ import java.util.Properties;
 /**
  * 对org.w3c.dom.Node的包装
  *
+ * 属性、body、孩子和父节点都在第一次用到时才解析，之后一直复用；不是线程安全的
  */
 public class XNode {
 
   //org.w3c.dom.Node
-  private Node node;
-  //以下都是预先把信息都解析好，放到map等数据结构中（内存中）
-  private String name;
+  private final Node node;
+  private final String name;
+  private final Properties variables;
+  private PropertyResolver resolver;
+  //XPathParser方便xpath解析
+  private final XPathParser xpathParser;
+
+  //以下第一次用到时才解析，放到内存中
   private String body;
+  private boolean bodyParsed;
   private Properties attributes;
-  private Properties variables;
-  //XPathParser方便xpath解析
-  private XPathParser xpathParser;
+  private List<XNode> children;
+  private XNode parent;
+  private boolean parentResolved;
 
-  //在构造时就把一些信息（属性，body）全部解析好，以便我们直接通过getter函数取得
   public XNode(XPathParser xpathParser, Node node, Properties variables) {
     this.xpathParser = xpathParser;
     this.node = node;
     this.name = node.getNodeName();
     this.variables = variables;
-    this.attributes = parseAttributes(node);
-    this.body = parseBody(node);
+  }
+
+  //getChildren创建的孩子直接记住父节点，不用再包装一次
+  private XNode(XNode parent, Node node) {
+    this(parent.xpathParser, node, parent.variables);
+    this.resolver = parent.resolver;
+    this.parent = parent;
+    this.parentResolved = true;
   }
 
   public XNode newXNode(Node node) {
-    return new XNode(xpathParser, node, variables);
+    XNode xnode = new XNode(xpathParser, node, variables);
+    xnode.resolver = resolver;
+    return xnode;
   }
 
   public XNode getParent() {
-		//调用Node.getParentNode,如果取到，包装一下，返回XNode
-    Node parent = node.getParentNode();
-    if (parent == null || !(parent instanceof Element)) {
-      return null;
-    } else {
-      return new XNode(xpathParser, parent, variables);
+    if (!parentResolved) {
+		//调用Node.getParentNode,如果取到，包装一下
+      Node parentNode = node.getParentNode();
+      if (parentNode instanceof Element) {
+        parent = new XNode(xpathParser, parentNode, variables);
+      }
+      parentResolved = true;
     }
+    return parent;
   }
 
   //取得完全的path (a/b/c)
   public String getPath() {
-    //循环依次取得节点的父节点，然后倒序打印,也可以用一个堆栈实现
-    StringBuilder builder = new StringBuilder();
-    Node current = node;
-    while (current != null && current instanceof Element) {
-      if (current != node) {
-        builder.insert(0, "/");
+    //先从下往上收集节点名，再正序拼接，避免反复insert(0, ...)
+    List<String> names = new ArrayList<String>();
+    int length = 0;
+    for (Node current = node; current instanceof Element; current = current.getParentNode()) {
+      String nodeName = current.getNodeName();
+      names.add(nodeName);
+      length += nodeName.length() + 1;
+    }
+    StringBuilder builder = new StringBuilder(length);
+    for (int i = names.size() - 1; i >= 0; i--) {
+      builder.append(names.get(i));
+      if (i > 0) {
+        builder.append('/');
       }
-      builder.insert(0, current.getNodeName());
-      current = current.getParentNode();
     }
     return builder.toString();
   }
@@ -92,25 +114,24 @@ public class XNode {
 //	  <result property="bio" column="author_bio"/>
 //	</resultMap>
   public String getValueBasedIdentifier() {
+    List<XNode> nodes = new ArrayList<XNode>();
+    for (XNode current = this; current != null; current = current.getParent()) {
+      nodes.add(current);
+    }
     StringBuilder builder = new StringBuilder();
-    XNode current = this;
-    while (current != null) {
-      if (current != this) {
-        builder.insert(0, "_");
-      }
+    for (int i = nodes.size() - 1; i >= 0; i--) {
+      XNode current = nodes.get(i);
+      builder.append(current.getName());
       //先拿id，拿不到再拿value,再拿不到拿property
       String value = current.getStringAttribute("id",
           current.getStringAttribute("value",
               current.getStringAttribute("property", null)));
       if (value != null) {
-        value = value.replace('.', '_');
-        builder.insert(0, "]");
-        builder.insert(0,
-            value);
-        builder.insert(0, "[");
+        builder.append('[').append(value.replace('.', '_')).append(']');
+      }
+      if (i > 0) {
+        builder.append('_');
       }
-      builder.insert(0, current.getName());
-      current = current.getParent();
     }
     return builder.toString();
   }
@@ -150,6 +171,7 @@ public class XNode {
   }
 
   public String getStringBody(String def) {
+    String body = getBody();
     if (body == null) {
       return def;
     } else {
@@ -162,6 +184,7 @@ public class XNode {
   }
 
   public Boolean getBooleanBody(Boolean def) {
+    String body = getBody();
     if (body == null) {
       return def;
     } else {
@@ -174,6 +197,7 @@ public class XNode {
   }
 
   public Integer getIntBody(Integer def) {
+    String body = getBody();
     if (body == null) {
       return def;
     } else {
@@ -186,6 +210,7 @@ public class XNode {
   }
 
   public Long getLongBody(Long def) {
+    String body = getBody();
     if (body == null) {
       return def;
     } else {
@@ -198,6 +223,7 @@ public class XNode {
   }
 
   public Double getDoubleBody(Double def) {
+    String body = getBody();
     if (body == null) {
       return def;
     } else {
@@ -210,6 +236,7 @@ public class XNode {
   }
 
   public Float getFloatBody(Float def) {
+    String body = getBody();
     if (body == null) {
       return def;
     } else {
@@ -236,7 +263,7 @@ public class XNode {
   }
 
   public String getStringAttribute(String name, String def) {
-    String value = attributes.getProperty(name);
+    String value = getAttributes().getProperty(name);
     if (value == null) {
       return def;
     } else {
@@ -249,7 +276,7 @@ public class XNode {
   }
 
   public Boolean getBooleanAttribute(String name, Boolean def) {
-    String value = attributes.getProperty(name);
+    String value = getAttributes().getProperty(name);
     if (value == null) {
       return def;
     } else {
@@ -262,7 +289,7 @@ public class XNode {
   }
 
   public Integer getIntAttribute(String name, Integer def) {
-    String value = attributes.getProperty(name);
+    String value = getAttributes().getProperty(name);
     if (value == null) {
       return def;
     } else {
@@ -275,7 +302,7 @@ public class XNode {
   }
 
   public Long getLongAttribute(String name, Long def) {
-    String value = attributes.getProperty(name);
+    String value = getAttributes().getProperty(name);
     if (value == null) {
       return def;
     } else {
@@ -288,7 +315,7 @@ public class XNode {
   }
 
   public Double getDoubleAttribute(String name, Double def) {
-    String value = attributes.getProperty(name);
+    String value = getAttributes().getProperty(name);
     if (value == null) {
       return def;
     } else {
@@ -301,7 +328,7 @@ public class XNode {
   }
 
   public Float getFloatAttribute(String name, Float def) {
-    String value = attributes.getProperty(name);
+    String value = getAttributes().getProperty(name);
     if (value == null) {
       return def;
     } else {
@@ -309,17 +336,16 @@ public class XNode {
     }
   }
 
-  //得到孩子，原理是调用Node.getChildNodes
+  //得到孩子，原理是遍历Node的子节点，只包装一次，返回只读的列表
   public List<XNode> getChildren() {
-    List<XNode> children = new ArrayList<XNode>();
-    NodeList nodeList = node.getChildNodes();
-    if (nodeList != null) {
-      for (int i = 0, n = nodeList.getLength(); i < n; i++) {
-        Node node = nodeList.item(i);
-        if (node.getNodeType() == Node.ELEMENT_NODE) {
-          children.add(new XNode(xpathParser, node, variables));
+    if (children == null) {
+      List<XNode> list = new ArrayList<XNode>();
+      for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+        if (child.getNodeType() == Node.ELEMENT_NODE) {
+          list.add(new XNode(this, child));
         }
       }
+      children = list.isEmpty() ? Collections.<XNode>emptyList() : Collections.unmodifiableList(list);
     }
     return children;
   }
@@ -343,7 +369,7 @@ public class XNode {
     StringBuilder builder = new StringBuilder();
     builder.append("<");
     builder.append(name);
-    for (Map.Entry<Object, Object> entry : attributes.entrySet()) {
+    for (Map.Entry<Object, Object> entry : getAttributes().entrySet()) {
       builder.append(" ");
       builder.append(entry.getKey());
       builder.append("=\"");
@@ -360,9 +386,9 @@ public class XNode {
       builder.append("</");
       builder.append(name);
       builder.append(">");
-    } else if (body != null) {
+    } else if (getBody() != null) {
       builder.append(">");
-      builder.append(body);
+      builder.append(getBody());
       builder.append("</");
       builder.append(name);
       builder.append(">");
@@ -373,14 +399,36 @@ public class XNode {
     return builder.toString();
   }
 
-  //以下2个方法在构造时就解析
+  private Properties getAttributes() {
+    if (attributes == null) {
+      attributes = parseAttributes(node);
+    }
+    return attributes;
+  }
+
+  private String getBody() {
+    if (!bodyParsed) {
+      body = parseBody(node);
+      bodyParsed = true;
+    }
+    return body;
+  }
+
+  private PropertyResolver resolver() {
+    if (resolver == null) {
+      resolver = xpathParser != null ? xpathParser.getResolver(variables) : PropertyResolver.of(variables);
+    }
+    return resolver;
+  }
+
+  //以下2个方法在第一次用到时解析
   private Properties parseAttributes(Node n) {
     Properties attributes = new Properties();
     NamedNodeMap attributeNodes = n.getAttributes();
     if (attributeNodes != null) {
       for (int i = 0; i < attributeNodes.getLength(); i++) {
         Node attribute = attributeNodes.item(i);
-        String value = PropertyParser.parse(attribute.getNodeValue(), variables);
+        String value = resolver().resolve(attribute.getNodeValue());
         attributes.put(attribute.getNodeName(), value);
       }
     }
@@ -391,9 +439,7 @@ public class XNode {
     //取不到body，循环取孩子的body，只要取到第一个，立即返回
     String data = getBodyData(node);
     if (data == null) {
-      NodeList children = node.getChildNodes();
-      for (int i = 0; i < children.getLength(); i++) {
-        Node child = children.item(i);
+      for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
         data = getBodyData(child);
         if (data != null) {
           break;
@@ -407,7 +453,7 @@ public class XNode {
     if (child.getNodeType() == Node.CDATA_SECTION_NODE
         || child.getNodeType() == Node.TEXT_NODE) {
       String data = ((CharacterData) child).getData();
-      data = PropertyParser.parse(data, variables);
+      data = resolver().resolve(data);
       return data;
     }
     return null;
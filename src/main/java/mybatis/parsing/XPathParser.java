@@ -25,13 +25,18 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author Clinton Begin
@@ -47,7 +52,29 @@ public class XPathParser {
   private boolean validation;
   private EntityResolver entityResolver;
   private Properties variables;
-  private XPath xpath;
+  //绑定variables的${}解析器，XNode共用
+  private PropertyResolver resolver;
+
+  //表达式上限，防止动态拼接的表达式把缓存撑大
+  private static final int MAX_CACHED_EXPRESSIONS = 1024;
+
+  //能直接遍历DOM的简单表达式，不可变，所有线程共享
+  private static final Map<String, SimpleXPath> SIMPLE_EXPRESSIONS = new ConcurrentHashMap<String, SimpleXPath>();
+
+  //XPath和XPathExpression都不是线程安全的，每个线程一份编译好的表达式，所有parser共享
+  private static final ThreadLocal<Map<String, XPathExpression>> COMPILED_EXPRESSIONS = new ThreadLocal<Map<String, XPathExpression>>() {
+    @Override
+    protected Map<String, XPathExpression> initialValue() {
+      return new HashMap<String, XPathExpression>();
+    }
+  };
+
+  private static final ThreadLocal<XPath> XPATH = new ThreadLocal<XPath>() {
+    @Override
+    protected XPath initialValue() {
+      return XPathFactory.newInstance().newXPath();
+    }
+  };
 
 	//一些构造函数,全部调用commonConstructor以及createDocument
 	//1~4,默认不需要验证
@@ -137,6 +164,7 @@ public class XPathParser {
 	//17.设置Properties
   public void setVariables(Properties variables) {
     this.variables = variables;
+    this.resolver = PropertyResolver.of(variables);
   }
 
   public String evalString(String expression) {
@@ -147,7 +175,7 @@ public class XPathParser {
 	//1.先用xpath解析
     String result = (String) evaluate(expression, root, XPathConstants.STRING);
 	//2.再调用PropertyParser去解析,也就是替换 ${} 这种格式的字符串
-    result = PropertyParser.parse(result, variables);
+    result = result == null ? "" : resolver.resolve(result);
     return result;
   }
 
@@ -207,6 +235,13 @@ public class XPathParser {
 	//返回节点List
   public List<XNode> evalNodes(Object root, String expression) {
     List<XNode> xnodes = new ArrayList<XNode>();
+    SimpleXPath simple = simpleExpression(expression);
+    if (simple.isSimple() && root instanceof Node) {
+      for (Node node : simple.select((Node) root)) {
+        xnodes.add(new XNode(this, node, variables));
+      }
+      return xnodes;
+    }
     NodeList nodes = (NodeList) evaluate(expression, root, XPathConstants.NODESET);
     for (int i = 0; i < nodes.getLength(); i++) {
       xnodes.add(new XNode(this, nodes.item(i), variables));
@@ -220,7 +255,13 @@ public class XPathParser {
 
 	//返回节点
   public XNode evalNode(Object root, String expression) {
-    Node node = (Node) evaluate(expression, root, XPathConstants.NODE);
+    SimpleXPath simple = simpleExpression(expression);
+    Node node;
+    if (simple.isSimple() && root instanceof Node) {
+      node = simple.selectFirst((Node) root);
+    } else {
+      node = (Node) evaluate(expression, root, XPathConstants.NODE);
+    }
     if (node == null) {
       return null;
     }
@@ -230,12 +271,36 @@ public class XPathParser {
   private Object evaluate(String expression, Object root, QName returnType) {
     try {
 		//最终合流到这儿，直接调用XPath.evaluate
-      return xpath.evaluate(expression, root, returnType);
+      return compile(expression).evaluate(root, returnType);
     } catch (Exception e) {
       return null;
     }
   }
 
+  private static SimpleXPath simpleExpression(String expression) {
+    SimpleXPath simple = SIMPLE_EXPRESSIONS.get(expression);
+    if (simple == null) {
+      simple = SimpleXPath.compile(expression);
+      if (SIMPLE_EXPRESSIONS.size() < MAX_CACHED_EXPRESSIONS) {
+        SIMPLE_EXPRESSIONS.putIfAbsent(expression, simple);
+      }
+    }
+    return simple;
+  }
+
+  private static XPathExpression compile(String expression) throws XPathExpressionException {
+    Map<String, XPathExpression> compiled = COMPILED_EXPRESSIONS.get();
+    XPathExpression xpathExpression = compiled.get(expression);
+    if (xpathExpression == null) {
+      xpathExpression = XPATH.get().compile(expression);
+      if (compiled.size() >= MAX_CACHED_EXPRESSIONS) {
+        compiled.clear();
+      }
+      compiled.put(expression, xpathExpression);
+    }
+    return xpathExpression;
+  }
+
   private Document createDocument(InputSource inputSource) {
     // important: this must only be called AFTER common constructor
     try {
@@ -281,12 +346,16 @@ public class XPathParser {
   }
 
   private void commonConstructor(boolean validation, Properties variables, EntityResolver entityResolver) {
+	//共通构造函数，只把参数设置到实例变量里面去，XPath和编译好的表达式按线程共享
     this.validation = validation;
     this.entityResolver = entityResolver;
     this.variables = variables;
-	//共通构造函数，除了把参数都设置到实例变量里面去以外，还初始化了XPath
-    XPathFactory factory = XPathFactory.newInstance();
-    this.xpath = factory.newXPath();
+    this.resolver = PropertyResolver.of(variables);
+  }
+
+  //variables是构造或setVariables时传入的这一份时才能共用resolver
+  PropertyResolver getResolver(Properties variables) {
+    return variables == this.variables ? resolver : PropertyResolver.of(variables);
   }
 
 }
@@ -0,0 +1,15 @@
+package mybatis.reflection;
+
+/**
+ * 类名称: PropertyAccessor
+ * 功能描述: 读取对象的一个属性（或属性路径）
+ * 日期:  2026/10/18 15:20
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public interface PropertyAccessor {
+
+    Object get(Object target);
+
+}
@@ -0,0 +1,196 @@
+package mybatis.reflection;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 类名称: PropertyAccessors
+ * 功能描述: 把属性路径（如 user.address.city）编译成getter调用链。
+ * 声明类型已知时直接通过LambdaMetafactory生成getter，类型未知（Object、接口上没有getter）时按运行时的类解析并缓存
+ * 日期:  2026/10/18 15:25
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public final class PropertyAccessors {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup ();
+
+    public static final PropertyAccessor IDENTITY = target -> target;
+
+    // 运行时才能确定类型的属性，按 类 -> 属性名 缓存
+    private static final ClassValue<Map<String, CompiledProperty>> RUNTIME_PROPERTIES = new ClassValue<Map<String, CompiledProperty>> () {
+        @Override
+        protected Map<String, CompiledProperty> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<> ();
+        }
+    };
+
+    private PropertyAccessors() {
+        // Prevent Instantiation
+    }
+
+    // 按声明类型编译属性路径，中间任何一级为null时结果为null
+    public static CompiledProperty compile(Class<?> type, String path) {
+        PropertyAccessor accessor = IDENTITY;
+        Class<?> currentType = type;
+        for (String name : path.split ("\\.")) {
+            CompiledProperty next = property (currentType, name);
+            accessor = chain (accessor, next.getAccessor ());
+            currentType = next.getType ();
+        }
+        return new CompiledProperty (accessor, currentType);
+    }
+
+    // 判断声明类型上是否能静态解析出这个属性
+    public static boolean hasProperty(Class<?> type, String name) {
+        return Map.class.isAssignableFrom (type) || findGetter (type, name) != null || findField (type, name) != null;
+    }
+
+    private static PropertyAccessor chain(PropertyAccessor first, PropertyAccessor second) {
+        if (first == IDENTITY) {
+            return second;
+        }
+        return target -> {
+            Object value = first.get (target);
+            return value == null ? null : second.get (value);
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CompiledProperty property(Class<?> type, String name) {
+        if (Map.class.isAssignableFrom (type)) {
+            return new CompiledProperty (target -> ((Map<String, Object>) target).get (name), Object.class);
+        }
+        Method getter = findGetter (type, name);
+        if (getter != null) {
+            return new CompiledProperty (getterAccessor (getter), getter.getReturnType ());
+        }
+        Field field = findField (type, name);
+        if (field != null) {
+            return new CompiledProperty (fieldAccessor (field), field.getType ());
+        }
+        if (type != Object.class && !type.isInterface () && Modifier.isFinal (type.getModifiers ())) {
+            throw new ReflectionException ("There is no getter for property named '" + name + "' in '" + type.getName () + "'");
+        }
+        // 声明类型上没有这个属性，可能在子类上，运行时再解析
+        return new CompiledProperty (target -> runtimeProperty (target.getClass (), name).getAccessor ().get (target), Object.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CompiledProperty runtimeProperty(Class<?> type, String name) {
+        return RUNTIME_PROPERTIES.get (type).computeIfAbsent (name, key -> {
+            if (Map.class.isAssignableFrom (type)) {
+                return new CompiledProperty (target -> ((Map<String, Object>) target).get (key), Object.class);
+            }
+            Method getter = findGetter (type, key);
+            if (getter != null) {
+                return new CompiledProperty (getterAccessor (getter), getter.getReturnType ());
+            }
+            Field field = findField (type, key);
+            if (field != null) {
+                return new CompiledProperty (fieldAccessor (field), field.getType ());
+            }
+            throw new ReflectionException ("There is no getter for property named '" + key + "' in '" + type.getName () + "'");
+        });
+    }
+
+    private static Method findGetter(Class<?> type, String name) {
+        String suffix = Character.toUpperCase (name.charAt (0)) + name.substring (1);
+        for (String prefix : new String[]{"get", "is"}) {
+            try {
+                Method method = type.getMethod (prefix + suffix);
+                if (method.getReturnType () != void.class && !Modifier.isStatic (method.getModifiers ())
+                        && ("get".equals (prefix) || method.getReturnType () == boolean.class)) {
+                    return method;
+                }
+            } catch (NoSuchMethodException e) {
+                // try next
+            }
+        }
+        return null;
+    }
+
+    private static Field findField(Class<?> type, String name) {
+        try {
+            Field field = type.getField (name);
+            return Modifier.isStatic (field.getModifiers ()) ? null : field;
+        } catch (NoSuchFieldException e) {
+            return null;
+        }
+    }
+
+    private static PropertyAccessor getterAccessor(Method getter) {
+        MethodHandle handle;
+        try {
+            handle = LOOKUP.unreflect (getter);
+        } catch (IllegalAccessException e) {
+            try {
+                // 非public类上的public方法
+                getter.setAccessible (true);
+                handle = LOOKUP.unreflect (getter);
+            } catch (IllegalAccessException | RuntimeException ex) {
+                throw new ReflectionException ("Error accessing getter " + getter + ". Cause: " + ex, ex);
+            }
+        }
+        try {
+            CallSite site = LambdaMetafactory.metafactory (LOOKUP, "get", MethodType.methodType (PropertyAccessor.class),
+                    MethodType.methodType (Object.class, Object.class), handle,
+                    handle.type ().wrap ());
+            return (PropertyAccessor) site.getTarget ().invokeExact ();
+        } catch (Throwable t) {
+            return handleAccessor (handle, getter.toString ());
+        }
+    }
+
+    private static PropertyAccessor fieldAccessor(Field field) {
+        try {
+            return handleAccessor (LOOKUP.unreflectGetter (field), field.toString ());
+        } catch (IllegalAccessException e) {
+            throw new ReflectionException ("Error accessing field " + field + ". Cause: " + e, e);
+        }
+    }
+
+    // LambdaMetafactory不可用时（如类加载器不可见）直接调用MethodHandle
+    private static PropertyAccessor handleAccessor(MethodHandle handle, String description) {
+        final MethodHandle generic = handle.asType (MethodType.methodType (Object.class, Object.class));
+        return target -> {
+            try {
+                return generic.invokeExact (target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new ReflectionException ("Error invoking " + description + ". Cause: " + e, e);
+            }
+        };
+    }
+
+    public static class CompiledProperty {
+
+        private final PropertyAccessor accessor;
+
+        // 属性的声明类型，运行时才能确定时为Object
+        private final Class<?> type;
+
+        public CompiledProperty(PropertyAccessor accessor, Class<?> type) {
+            this.accessor = accessor;
+            this.type = type;
+        }
+
+        public PropertyAccessor getAccessor() {
+            return accessor;
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+    }
+}
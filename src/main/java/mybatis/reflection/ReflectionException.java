@@ -0,0 +1,30 @@
+package mybatis.reflection;
+
+/**
+ * 类名称: ReflectionException
+ * 功能描述: 解析或读取属性时出现的异常
+ * 日期:  2026/10/18 15:21
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class ReflectionException extends RuntimeException {
+
+    private static final long serialVersionUID = 7642570221267566591L;
+
+    public ReflectionException() {
+        super ();
+    }
+
+    public ReflectionException(String message) {
+        super (message);
+    }
+
+    public ReflectionException(String message, Throwable cause) {
+        super (message, cause);
+    }
+
+    public ReflectionException(Throwable cause) {
+        super (cause);
+    }
+}
@@ -0,0 +1,52 @@
+package mybatis.scripting;
+
+import java.util.Properties;
+
+/**
+ * 类名称: ChooseSqlNode
+ * 功能描述: <choose>，只渲染第一个条件成立的<when>，都不成立时渲染<otherwise>
+ * 日期:  2026/10/18 22:50
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+final class ChooseSqlNode implements SqlNode {
+
+    private static final Properties NO_ATTRIBUTES = new Properties ();
+
+    private final IfSqlNode[] whens;
+
+    // 没有<otherwise>时为null
+    private final SqlNode otherwise;
+
+    ChooseSqlNode(IfSqlNode[] whens, SqlNode otherwise) {
+        this.whens = whens;
+        this.otherwise = otherwise;
+    }
+
+    @Override
+    public void apply(DynamicContext context) {
+        for (IfSqlNode when : whens) {
+            if (when.applyIf (context)) {
+                return;
+            }
+        }
+        if (otherwise != null) {
+            otherwise.apply (context);
+        }
+    }
+
+    @Override
+    public void replay(ScriptHandler handler) {
+        handler.startElement ("choose", NO_ATTRIBUTES);
+        for (IfSqlNode when : whens) {
+            when.replay (handler);
+        }
+        if (otherwise != null) {
+            handler.startElement ("otherwise", NO_ATTRIBUTES);
+            otherwise.replay (handler);
+            handler.endElement ();
+        }
+        handler.endElement ();
+    }
+}
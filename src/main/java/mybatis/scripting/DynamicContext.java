@@ -0,0 +1,152 @@
+package mybatis.scripting;
+
+import mybatis.executor.parameter.BoundParameters;
+import mybatis.executor.parameter.ParameterSetter;
+import mybatis.executor.parameter.ParameterSetters;
+
+import java.util.Arrays;
+
+/**
+ * 类名称: DynamicContext
+ * 功能描述: 一次动态sql渲染的状态：sql缓冲区、按?顺序绑定的参数值以及<foreach>的item、index变量
+ * 日期:  2026/10/18 22:15
+ *
+ * 每个线程复用一个，渲染完只复制出sql和参数，不是线程安全的
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public final class DynamicContext {
+
+    // 超过这个大小的缓冲区用完后丢掉，避免一次特别大的<foreach>让线程一直占着内存；
+    // 上万个参数的批量语句仍然可以复用
+    private static final int MAX_RETAINED_SQL = 256 * 1024;
+
+    private static final int MAX_RETAINED_PARAMETERS = 32 * 1024;
+
+    private static final ThreadLocal<DynamicContext> CONTEXT = ThreadLocal.withInitial (DynamicContext::new);
+
+    private static final ParameterSetter RUNTIME_SETTER = ParameterSetters.forType (Object.class);
+
+    // 参数值的类型在渲染时才知道，全部按实际类型设置；所有调用共用一个只增长的数组
+    private static volatile ParameterSetter[] setters = new ParameterSetter[0];
+
+    private static final Object[] NO_VALUES = new Object[0];
+
+    private static final int[] NO_TYPES = new int[0];
+
+    private final StringBuilder sql = new StringBuilder (256);
+
+    private Object[] values = new Object[16];
+
+    private int[] nullTypes = new int[16];
+
+    private int size;
+
+    // <foreach>定义的变量，后定义的覆盖先定义的
+    private String[] localNames = new String[8];
+
+    private Object[] localValues = new Object[8];
+
+    private int localCount;
+
+    private Object[] args;
+
+    private ParameterBindings bindings;
+
+    private int jdbcTypeForNull;
+
+    private boolean inUse;
+
+    private DynamicContext() {
+    }
+
+    // 渲染时调用的getter里可能又执行了动态sql，这时不复用线程的context
+    static DynamicContext acquire(Object[] args, ParameterBindings bindings, int jdbcTypeForNull) {
+        DynamicContext context = CONTEXT.get ();
+        if (context.inUse) {
+            context = new DynamicContext ();
+        }
+        context.inUse = true;
+        context.args = args;
+        context.bindings = bindings;
+        context.jdbcTypeForNull = jdbcTypeForNull;
+        return context;
+    }
+
+    void release() {
+        args = null;
+        bindings = null;
+        Arrays.fill (values, 0, size, null);
+        Arrays.fill (localValues, 0, localCount, null);
+        size = 0;
+        localCount = 0;
+        sql.setLength (0);
+        inUse = false;
+        if (sql.capacity () > MAX_RETAINED_SQL || values.length > MAX_RETAINED_PARAMETERS) {
+            CONTEXT.remove ();
+        }
+    }
+
+    public StringBuilder sql() {
+        return sql;
+    }
+
+    // 追加一个?并绑定参数值，jdbcType为null时使用jdbcTypeForNull
+    public void bind(Object value, Integer jdbcType) {
+        if (size == values.length) {
+            values = Arrays.copyOf (values, size << 1);
+            nullTypes = Arrays.copyOf (nullTypes, size << 1);
+        }
+        values[size] = value;
+        nullTypes[size] = jdbcType != null ? jdbcType : jdbcTypeForNull;
+        size++;
+        sql.append ('?');
+    }
+
+    // 返回变量的槽位，渲染过程中用setLocal修改值
+    int pushLocal(String name) {
+        if (localCount == localNames.length) {
+            localNames = Arrays.copyOf (localNames, localCount << 1);
+            localValues = Arrays.copyOf (localValues, localCount << 1);
+        }
+        localNames[localCount] = name;
+        return localCount++;
+    }
+
+    void setLocal(int slot, Object value) {
+        localValues[slot] = value;
+    }
+
+    void popLocals(int count) {
+        Arrays.fill (localValues, localCount - count, localCount, null);
+        localCount -= count;
+    }
+
+    Object resolve(VariableExpression variable) {
+        String root = variable.getRoot ();
+        for (int i = localCount - 1; i >= 0; i--) {
+            if (localNames[i].equals (root)) {
+                return variable.fromRoot (localValues[i]);
+            }
+        }
+        return bindings.resolve (args, variable);
+    }
+
+    BoundParameters toBoundParameters() {
+        if (size == 0) {
+            return new BoundParameters (sql.toString (), NO_VALUES, setters, NO_TYPES);
+        }
+        return new BoundParameters (sql.toString (), Arrays.copyOf (values, size), setters (size), Arrays.copyOf (nullTypes, size));
+    }
+
+    private static ParameterSetter[] setters(int size) {
+        ParameterSetter[] current = setters;
+        if (current.length < size) {
+            current = new ParameterSetter[Math.max (size, current.length << 1)];
+            Arrays.fill (current, RUNTIME_SETTER);
+            setters = current;
+        }
+        return current;
+    }
+}
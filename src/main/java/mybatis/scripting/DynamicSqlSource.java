@@ -0,0 +1,39 @@
+package mybatis.scripting;
+
+import mybatis.bingding.BindingException;
+import mybatis.executor.parameter.BoundParameters;
+import mybatis.reflection.ReflectionException;
+
+/**
+ * 类名称: DynamicSqlSource
+ * 功能描述: 包含动态元素的语句，构建时生成不可变的节点树，每次调用按参数渲染出sql和按?顺序的参数值
+ * 日期:  2026/10/18 23:05
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public final class DynamicSqlSource {
+
+    private final SqlNode root;
+
+    DynamicSqlSource(SqlNode root) {
+        this.root = root;
+    }
+
+    public BoundParameters bind(Object[] args, ParameterBindings bindings, int jdbcTypeForNull) {
+        DynamicContext context = DynamicContext.acquire (args, bindings, jdbcTypeForNull);
+        try {
+            root.apply (context);
+            return context.toBoundParameters ();
+        } catch (ReflectionException e) {
+            throw new BindingException ("Error evaluating dynamic sql. Cause: " + e.getMessage (), e);
+        } finally {
+            context.release ();
+        }
+    }
+
+    // 按构建时的顺序输出语句内部的元素和文本
+    public void replay(ScriptHandler handler) {
+        root.replay (handler);
+    }
+}
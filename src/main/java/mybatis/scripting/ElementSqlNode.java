@@ -0,0 +1,33 @@
+package mybatis.scripting;
+
+import java.util.Properties;
+
+/**
+ * 类名称: ElementSqlNode
+ * 功能描述: 由一个动态元素生成的节点，保留元素名和属性，写配置快照时原样输出
+ * 日期:  2026/10/18 22:45
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+abstract class ElementSqlNode implements SqlNode {
+
+    private final String element;
+
+    private final Properties attributes;
+
+    protected final SqlNode contents;
+
+    ElementSqlNode(String element, Properties attributes, SqlNode contents) {
+        this.element = element;
+        this.attributes = attributes;
+        this.contents = contents;
+    }
+
+    @Override
+    public void replay(ScriptHandler handler) {
+        handler.startElement (element, attributes);
+        contents.replay (handler);
+        handler.endElement ();
+    }
+}
@@ -0,0 +1,249 @@
+package mybatis.scripting;
+
+import mybatis.bingding.BindingException;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 类名称: Expression
+ * 功能描述: <if test>、<when test>以及<foreach collection>的表达式，构建时编译成对象树，渲染时直接求值
+ * 日期:  2026/10/18 22:20
+ *
+ * 支持 and/or/not（&&、||、!），== != < <= > >=（eq neq lt lte gt gte），括号，
+ * null、true、false、数字和字符串字面量，属性路径，以及结尾的 size()、isEmpty()、length()
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+abstract class Expression {
+
+    private final String source;
+
+    Expression(String source) {
+        this.source = source;
+    }
+
+    abstract Object evaluate(DynamicContext context);
+
+    // 和OGNL一致：null为false，Boolean取值，数字非0为true，其他非null的值为true
+    boolean test(DynamicContext context) {
+        Object value = evaluate (context);
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value instanceof Number) {
+            return compareNumbers ((Number) value, 0L) != 0;
+        }
+        return value != null;
+    }
+
+    String getSource() {
+        return source;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    static Expression compile(String source) {
+        return new ExpressionParser (source).parse ();
+    }
+
+    static final class Literal extends Expression {
+
+        private final Object value;
+
+        Literal(String source, Object value) {
+            super (source);
+            this.value = value;
+        }
+
+        @Override
+        Object evaluate(DynamicContext context) {
+            return value;
+        }
+    }
+
+    static final class Not extends Expression {
+
+        private final Expression operand;
+
+        Not(String source, Expression operand) {
+            super (source);
+            this.operand = operand;
+        }
+
+        @Override
+        Object evaluate(DynamicContext context) {
+            return !operand.test (context);
+        }
+    }
+
+    static final class And extends Expression {
+
+        private final Expression left;
+
+        private final Expression right;
+
+        And(String source, Expression left, Expression right) {
+            super (source);
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Object evaluate(DynamicContext context) {
+            return left.test (context) && right.test (context);
+        }
+    }
+
+    static final class Or extends Expression {
+
+        private final Expression left;
+
+        private final Expression right;
+
+        Or(String source, Expression left, Expression right) {
+            super (source);
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Object evaluate(DynamicContext context) {
+            return left.test (context) || right.test (context);
+        }
+    }
+
+    enum Operator {
+        EQ, NE, LT, LE, GT, GE
+    }
+
+    static final class Compare extends Expression {
+
+        private final Operator operator;
+
+        private final Expression left;
+
+        private final Expression right;
+
+        Compare(String source, Operator operator, Expression left, Expression right) {
+            super (source);
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Object evaluate(DynamicContext context) {
+            Object l = left.evaluate (context);
+            Object r = right.evaluate (context);
+            switch (operator) {
+                case EQ:
+                    return isEqual (l, r);
+                case NE:
+                    return !isEqual (l, r);
+                default:
+                    if (l == null || r == null) {
+                        return false;
+                    }
+                    int c = compare (l, r);
+                    switch (operator) {
+                        case LT:
+                            return c < 0;
+                        case LE:
+                            return c <= 0;
+                        case GT:
+                            return c > 0;
+                        default:
+                            return c >= 0;
+                    }
+            }
+        }
+
+        private boolean isEqual(Object l, Object r) {
+            if (l == r) {
+                return true;
+            }
+            if (l == null || r == null) {
+                return false;
+            }
+            if (l instanceof Number && r instanceof Number) {
+                return compareNumbers ((Number) l, (Number) r) == 0;
+            }
+            // 枚举和字符串按名字比较，字符和单字符的字符串相等
+            if (l instanceof Enum && r instanceof String || l instanceof Character) {
+                return l.toString ().equals (r.toString ());
+            }
+            if (r instanceof Enum && l instanceof String || r instanceof Character) {
+                return r.toString ().equals (l.toString ());
+            }
+            return l.equals (r);
+        }
+
+        @SuppressWarnings ({"unchecked", "rawtypes"})
+        private int compare(Object l, Object r) {
+            if (l instanceof Number && r instanceof Number) {
+                return compareNumbers ((Number) l, (Number) r);
+            }
+            if (l instanceof Comparable && l.getClass ().isInstance (r)) {
+                return ((Comparable) l).compareTo (r);
+            }
+            throw new BindingException ("Cannot compare " + l.getClass ().getName () + " with " + r.getClass ().getName () + " in '" + getSource () + "'");
+        }
+    }
+
+    // size()、isEmpty()、length()，目标为null时结果为null
+    static final class Size extends Expression {
+
+        private final Expression target;
+
+        private final boolean isEmpty;
+
+        Size(String source, Expression target, boolean isEmpty) {
+            super (source);
+            this.target = target;
+            this.isEmpty = isEmpty;
+        }
+
+        @Override
+        Object evaluate(DynamicContext context) {
+            Object value = target.evaluate (context);
+            if (value == null) {
+                return null;
+            }
+            int size;
+            if (value instanceof Collection) {
+                size = ((Collection<?>) value).size ();
+            } else if (value instanceof Map) {
+                size = ((Map<?, ?>) value).size ();
+            } else if (value instanceof CharSequence) {
+                size = ((CharSequence) value).length ();
+            } else if (value.getClass ().isArray ()) {
+                size = Array.getLength (value);
+            } else {
+                throw new BindingException ("Cannot get the size of " + value.getClass ().getName () + " in '" + getSource () + "'");
+            }
+            return isEmpty ? (Object) (size == 0) : (Object) size;
+        }
+    }
+
+    static int compareNumbers(Number l, Number r) {
+        if (isIntegral (l) && isIntegral (r)) {
+            return Long.compare (l.longValue (), r.longValue ());
+        }
+        if (l instanceof BigDecimal || r instanceof BigDecimal || l instanceof BigInteger || r instanceof BigInteger) {
+            return new BigDecimal (l.toString ()).compareTo (new BigDecimal (r.toString ()));
+        }
+        return Double.compare (l.doubleValue (), r.doubleValue ());
+    }
+
+    private static boolean isIntegral(Number n) {
+        return n instanceof Integer || n instanceof Long || n instanceof Short || n instanceof Byte;
+    }
+}
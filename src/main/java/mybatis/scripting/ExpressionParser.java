@@ -0,0 +1,223 @@
+package mybatis.scripting;
+
+import mybatis.bingding.BuilderException;
+
+import java.math.BigDecimal;
+
+/**
+ * 类名称: ExpressionParser
+ * 功能描述: 递归下降解析test表达式，只在构建时使用
+ * 日期:  2026/10/18 22:30
+ *
+ * or      := and (('or' | '||') and)*
+ * and     := not (('and' | '&&') not)*
+ * not     := ('not' | '!') not | compare
+ * compare := primary (op primary)?
+ * primary := '(' or ')' | literal | path ('.' ('size' | 'isEmpty' | 'length') '()')?
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+final class ExpressionParser {
+
+    private final String source;
+
+    private int position;
+
+    ExpressionParser(String source) {
+        this.source = source;
+    }
+
+    Expression parse() {
+        if (source == null || source.trim ().isEmpty ()) {
+            throw error ("Empty expression");
+        }
+        Expression expression = parseOr ();
+        skipWhitespace ();
+        if (position < source.length ()) {
+            throw error ("Unexpected '" + source.substring (position) + "'");
+        }
+        return expression;
+    }
+
+    private Expression parseOr() {
+        int start = skipWhitespace ();
+        Expression left = parseAnd ();
+        while (acceptKeyword ("or") || accept ("||")) {
+            left = new Expression.Or (text (start), left, parseAnd ());
+        }
+        return left;
+    }
+
+    private Expression parseAnd() {
+        int start = skipWhitespace ();
+        Expression left = parseNot ();
+        while (acceptKeyword ("and") || accept ("&&")) {
+            left = new Expression.And (text (start), left, parseNot ());
+        }
+        return left;
+    }
+
+    private Expression parseNot() {
+        int start = skipWhitespace ();
+        if (acceptKeyword ("not") || (!lookingAt ("!=") && accept ("!"))) {
+            Expression operand = parseNot ();
+            return new Expression.Not (text (start), operand);
+        }
+        return parseCompare ();
+    }
+
+    private Expression parseCompare() {
+        int start = skipWhitespace ();
+        Expression left = parsePrimary ();
+        Expression.Operator operator = parseOperator ();
+        if (operator == null) {
+            return left;
+        }
+        Expression right = parsePrimary ();
+        return new Expression.Compare (text (start), operator, left, right);
+    }
+
+    private Expression.Operator parseOperator() {
+        skipWhitespace ();
+        if (accept ("==") || acceptKeyword ("eq")) {
+            return Expression.Operator.EQ;
+        } else if (accept ("!=") || acceptKeyword ("neq")) {
+            return Expression.Operator.NE;
+        } else if (accept ("<=") || acceptKeyword ("lte")) {
+            return Expression.Operator.LE;
+        } else if (accept (">=") || acceptKeyword ("gte")) {
+            return Expression.Operator.GE;
+        } else if (accept ("<") || acceptKeyword ("lt")) {
+            return Expression.Operator.LT;
+        } else if (accept (">") || acceptKeyword ("gt")) {
+            return Expression.Operator.GT;
+        }
+        return null;
+    }
+
+    private Expression parsePrimary() {
+        int start = skipWhitespace ();
+        if (position >= source.length ()) {
+            throw error ("Unexpected end of expression");
+        }
+        char c = source.charAt (position);
+        if (c == '(') {
+            position++;
+            Expression inner = parseOr ();
+            skipWhitespace ();
+            if (!accept (")")) {
+                throw error ("Missing ')'");
+            }
+            return inner;
+        }
+        if (c == '\'' || c == '"') {
+            int end = source.indexOf (c, position + 1);
+            if (end < 0) {
+                throw error ("Unterminated string literal");
+            }
+            String value = source.substring (position + 1, end);
+            position = end + 1;
+            return new Expression.Literal (text (start), value);
+        }
+        if (Character.isDigit (c) || (c == '-' && position + 1 < source.length () && Character.isDigit (source.charAt (position + 1)))) {
+            position++;
+            while (position < source.length () && (Character.isDigit (source.charAt (position)) || source.charAt (position) == '.')) {
+                position++;
+            }
+            String number = text (start);
+            return new Expression.Literal (number, number.indexOf ('.') < 0 ? (Object) Long.valueOf (number) : new BigDecimal (number));
+        }
+        if (!Character.isJavaIdentifierStart (c)) {
+            throw error ("Unexpected '" + c + "'");
+        }
+        StringBuilder path = new StringBuilder ();
+        path.append (identifier ());
+        while (lookingAt (".")) {
+            position++;
+            String name = identifier ();
+            if (lookingAt ("()")) {
+                position += 2;
+                Expression target = variable (path.toString ());
+                if ("size".equals (name) || "length".equals (name)) {
+                    return new Expression.Size (text (start), target, false);
+                } else if ("isEmpty".equals (name)) {
+                    return new Expression.Size (text (start), target, true);
+                }
+                throw error ("Unsupported method '" + name + "()'");
+            }
+            path.append ('.').append (name);
+        }
+        String name = path.toString ();
+        switch (name) {
+            case "null":
+                return new Expression.Literal (name, null);
+            case "true":
+                return new Expression.Literal (name, Boolean.TRUE);
+            case "false":
+                return new Expression.Literal (name, Boolean.FALSE);
+            default:
+                return variable (name);
+        }
+    }
+
+    private Expression variable(String path) {
+        try {
+            return new VariableExpression (path);
+        } catch (RuntimeException e) {
+            throw new BuilderException ("Invalid property '" + path + "' in expression '" + source + "'. Cause: " + e, e);
+        }
+    }
+
+    private String identifier() {
+        int start = position;
+        if (position >= source.length () || !Character.isJavaIdentifierStart (source.charAt (position))) {
+            throw error ("Expected a property name");
+        }
+        position++;
+        while (position < source.length () && Character.isJavaIdentifierPart (source.charAt (position))) {
+            position++;
+        }
+        return source.substring (start, position);
+    }
+
+    private int skipWhitespace() {
+        while (position < source.length () && Character.isWhitespace (source.charAt (position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private boolean lookingAt(String token) {
+        return source.startsWith (token, position);
+    }
+
+    private boolean accept(String token) {
+        skipWhitespace ();
+        if (lookingAt (token)) {
+            position += token.length ();
+            return true;
+        }
+        return false;
+    }
+
+    // 关键字后面不能紧跟标识符字符，避免把 order、android 之类的属性名当成 or、and
+    private boolean acceptKeyword(String keyword) {
+        skipWhitespace ();
+        int end = position + keyword.length ();
+        if (source.startsWith (keyword, position)
+                && (end == source.length () || !Character.isJavaIdentifierPart (source.charAt (end)))) {
+            position = end;
+            return true;
+        }
+        return false;
+    }
+
+    private String text(int start) {
+        return source.substring (start, position).trim ();
+    }
+
+    private BuilderException error(String message) {
+        return new BuilderException (message + " in expression '" + source + "' at position " + position);
+    }
+}
@@ -0,0 +1,120 @@
+package mybatis.scripting;
+
+import mybatis.bingding.BindingException;
+
+import java.lang.reflect.Array;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.RandomAccess;
+
+/**
+ * 类名称: ForEachSqlNode
+ * 功能描述: <foreach collection="..." item="..." index="..." open="..." separator="..." close="...">
+ * 日期:  2026/10/18 23:00
+ *
+ * item和index放在context的变量槽位里，每个元素只改槽位的值，不为每个元素生成新的参数名和绑定；
+ * 元素里的#{item}直接追加?并绑定值，上万个元素也只是线性的追加。
+ * 集合为空时什么都不输出，包括open和close
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+final class ForEachSqlNode extends ElementSqlNode {
+
+    private static final Object POSITION = new Object ();
+
+    private final VariableExpression collection;
+
+    private final String item;
+
+    private final String index;
+
+    private final String open;
+
+    private final String close;
+
+    private final String separator;
+
+    ForEachSqlNode(Properties attributes, VariableExpression collection, SqlNode contents) {
+        super ("foreach", attributes, contents);
+        this.collection = collection;
+        this.item = intern (attributes.getProperty ("item"));
+        this.index = intern (attributes.getProperty ("index"));
+        this.open = attributes.getProperty ("open");
+        this.close = attributes.getProperty ("close");
+        this.separator = attributes.getProperty ("separator");
+    }
+
+    private static String intern(String name) {
+        return name == null ? null : name.intern ();
+    }
+
+    @Override
+    public void apply(DynamicContext context) {
+        Object value = collection.evaluate (context);
+        if (value == null) {
+            throw new BindingException ("The expression '" + collection + "' of <foreach> evaluated to a null value.");
+        }
+        int count = 0;
+        int itemSlot = item == null ? -1 : context.pushLocal (item);
+        int indexSlot = index == null ? -1 : context.pushLocal (index);
+        try {
+            if (value instanceof List && value instanceof RandomAccess) {
+                List<?> list = (List<?>) value;
+                for (int n = list.size (); count < n; count++) {
+                    applyItem (context, count, POSITION, list.get (count), itemSlot, indexSlot);
+                }
+            } else if (value instanceof Iterable) {
+                for (Object element : (Iterable<?>) value) {
+                    applyItem (context, count++, POSITION, element, itemSlot, indexSlot);
+                }
+            } else if (value instanceof Map) {
+                // index是key，item是value
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet ()) {
+                    applyItem (context, count++, entry.getKey (), entry.getValue (), itemSlot, indexSlot);
+                }
+            } else if (value instanceof Object[]) {
+                Object[] array = (Object[]) value;
+                for (; count < array.length; count++) {
+                    applyItem (context, count, POSITION, array[count], itemSlot, indexSlot);
+                }
+            } else if (value.getClass ().isArray ()) {
+                for (int n = Array.getLength (value); count < n; count++) {
+                    applyItem (context, count, POSITION, Array.get (value, count), itemSlot, indexSlot);
+                }
+            } else if (value instanceof Iterator) {
+                for (Iterator<?> iterator = (Iterator<?>) value; iterator.hasNext (); count++) {
+                    applyItem (context, count, POSITION, iterator.next (), itemSlot, indexSlot);
+                }
+            } else {
+                throw new BindingException ("The expression '" + collection + "' of <foreach> evaluated to "
+                        + value.getClass ().getName () + ", which is not iterable.");
+            }
+            if (count > 0) {
+                append (context, close);
+            }
+        } finally {
+            context.popLocals ((itemSlot < 0 ? 0 : 1) + (indexSlot < 0 ? 0 : 1));
+        }
+    }
+
+    // key为POSITION时index是元素的下标，只在用到index时才装箱
+    private void applyItem(DynamicContext context, int position, Object key, Object itemValue, int itemSlot, int indexSlot) {
+        append (context, position == 0 ? open : separator);
+        if (itemSlot >= 0) {
+            context.setLocal (itemSlot, itemValue);
+        }
+        if (indexSlot >= 0) {
+            context.setLocal (indexSlot, key == POSITION ? (Object) position : key);
+        }
+        contents.apply (context);
+    }
+
+    private static void append(DynamicContext context, String text) {
+        if (text != null) {
+            context.sql ().append (text);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package mybatis.scripting;
+
+import java.util.Properties;
+
+/**
+ * 类名称: IfSqlNode
+ * 功能描述: <if test="...">，也用于<choose>中的<when>
+ * 日期:  2026/10/18 22:45
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+final class IfSqlNode extends ElementSqlNode {
+
+    private final Expression test;
+
+    IfSqlNode(String element, Properties attributes, Expression test, SqlNode contents) {
+        super (element, attributes, contents);
+        this.test = test;
+    }
+
+    // 条件成立并渲染了内容时返回true
+    boolean applyIf(DynamicContext context) {
+        if (test.test (context)) {
+            contents.apply (context);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void apply(DynamicContext context) {
+        applyIf (context);
+    }
+}
@@ -0,0 +1,34 @@
+package mybatis.scripting;
+
+import java.util.List;
+
+/**
+ * 类名称: MixedSqlNode
+ * 功能描述: 按顺序渲染的一组节点，语句本身以及每个动态元素的内容都是一个MixedSqlNode
+ * 日期:  2026/10/18 22:40
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+final class MixedSqlNode implements SqlNode {
+
+    private final SqlNode[] contents;
+
+    MixedSqlNode(List<SqlNode> contents) {
+        this.contents = contents.toArray (new SqlNode[0]);
+    }
+
+    @Override
+    public void apply(DynamicContext context) {
+        for (SqlNode node : contents) {
+            node.apply (context);
+        }
+    }
+
+    @Override
+    public void replay(ScriptHandler handler) {
+        for (SqlNode node : contents) {
+            node.replay (handler);
+        }
+    }
+}
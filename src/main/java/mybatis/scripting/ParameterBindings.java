@@ -0,0 +1,81 @@
+package mybatis.scripting;
+
+import mybatis.bingding.BindingException;
+import mybatis.reflection.PropertyAccessors;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 类名称: ParameterBindings
+ * 功能描述: 动态sql中的参数名如何对应到mapper方法的参数，创建MapperMethod时按方法签名生成一次
+ * 日期:  2026/10/18 22:35
+ *
+ * 规则和#{}的参数绑定一致：多个参数时按@Param、参数名或param1、param2...查找；
+ * 只有一个没有@Param的参数时，简单类型直接使用参数本身，JavaBean和Map从参数上取属性，
+ * 集合和数组还可以用collection、list、array引用
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public final class ParameterBindings {
+
+    private final Map<String, Integer> names;
+
+    // 只有一个没有@Param的参数时的参数类型，否则为null
+    private final Class<?> singleParamType;
+
+    private final boolean singleSimpleParam;
+
+    // 单个JavaBean参数时，参数名同时也是它的属性名的话按属性处理
+    private final Map<String, Boolean> beanProperties = new ConcurrentHashMap<> ();
+
+    public ParameterBindings(Map<String, Integer> names, Class<?> singleParamType, boolean singleSimpleParam) {
+        this.names = new HashMap<> (names);
+        this.singleParamType = singleParamType;
+        this.singleSimpleParam = singleSimpleParam;
+        if (singleParamType != null) {
+            if (Collection.class.isAssignableFrom (singleParamType)) {
+                this.names.putIfAbsent ("collection", 0);
+            }
+            if (List.class.isAssignableFrom (singleParamType)) {
+                this.names.putIfAbsent ("list", 0);
+            }
+            if (singleParamType.isArray ()) {
+                this.names.putIfAbsent ("array", 0);
+            }
+        }
+    }
+
+    Object resolve(Object[] args, VariableExpression variable) {
+        String root = variable.getRoot ();
+        Integer index = names.get (root);
+        if (singleParamType != null) {
+            Object arg = args[0];
+            if (singleSimpleParam) {
+                return arg;
+            }
+            if (index != null && !isBeanProperty (root)) {
+                return variable.fromRoot (arg);
+            }
+            return variable.fromTarget (arg);
+        }
+        if (index == null) {
+            throw new BindingException ("Parameter '" + root + "' not found. Available parameters are " + names.keySet ());
+        }
+        return variable.fromRoot (args[index]);
+    }
+
+    private boolean isBeanProperty(String name) {
+        Boolean property = beanProperties.get (name);
+        if (property == null) {
+            property = !Collection.class.isAssignableFrom (singleParamType) && !singleParamType.isArray ()
+                    && PropertyAccessors.hasProperty (singleParamType, name);
+            beanProperties.put (name, property);
+        }
+        return property;
+    }
+}
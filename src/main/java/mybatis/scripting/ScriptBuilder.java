@@ -0,0 +1,187 @@
+package mybatis.scripting;
+
+import mybatis.bingding.BuilderException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * 类名称: ScriptBuilder
+ * 功能描述: 把语句元素内部的文本和<if>、<where>、<set>、<trim>、<foreach>、<choose>元素构建成DynamicSqlSource
+ * 日期:  2026/10/18 23:10
+ *
+ * 没有任何元素时是静态语句，getText返回全部文本，仍然按静态sql在构建时替换#{}
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public final class ScriptBuilder implements ScriptHandler {
+
+    private static final class Frame {
+
+        private final String name;
+
+        private final Properties attributes;
+
+        private final List<SqlNode> contents = new ArrayList<> ();
+
+        private StringBuilder text;
+
+        // 只有<choose>使用
+        private List<IfSqlNode> whens;
+
+        private SqlNode otherwise;
+
+        private Frame(String name, Properties attributes) {
+            this.name = name;
+            this.attributes = attributes;
+        }
+    }
+
+    private final Frame root = new Frame (null, null);
+
+    private final Deque<Frame> stack = new ArrayDeque<> ();
+
+    private boolean dynamic;
+
+    public ScriptBuilder() {
+        stack.push (root);
+    }
+
+    @Override
+    public void startElement(String name, Properties attributes) {
+        flushText (stack.peek ());
+        stack.push (new Frame (name, attributes));
+        dynamic = true;
+    }
+
+    @Override
+    public void text(String text) {
+        if (text == null || text.isEmpty ()) {
+            return;
+        }
+        Frame frame = stack.peek ();
+        if (frame.text == null) {
+            frame.text = new StringBuilder (text.length ());
+        }
+        frame.text.append (text);
+    }
+
+    @Override
+    public void endElement() {
+        if (stack.size () == 1) {
+            throw new BuilderException ("Unbalanced end of element in SQL statement");
+        }
+        Frame frame = stack.pop ();
+        flushText (frame);
+        Frame parent = stack.peek ();
+        String name = frame.name;
+        if ("when".equals (name) || "otherwise".equals (name)) {
+            if (!"choose".equals (parent.name)) {
+                throw new BuilderException ("<" + name + "> must be inside <choose>");
+            }
+            if (parent.whens == null) {
+                parent.whens = new ArrayList<> ();
+            }
+            if ("when".equals (name)) {
+                if (parent.otherwise != null) {
+                    throw new BuilderException ("<when> must come before <otherwise>");
+                }
+                parent.whens.add (new IfSqlNode (name, frame.attributes, test (frame), contents (frame)));
+            } else if (parent.otherwise != null) {
+                throw new BuilderException ("<choose> can only have one <otherwise>");
+            } else {
+                parent.otherwise = contents (frame);
+            }
+            return;
+        }
+        parent.contents.add (createNode (frame));
+    }
+
+    public boolean isDynamic() {
+        return dynamic;
+    }
+
+    // 静态语句的全部文本，没有文本时为null
+    public String getText() {
+        if (dynamic) {
+            throw new IllegalStateException ("Dynamic SQL has no static text");
+        }
+        return root.text == null ? null : root.text.toString ();
+    }
+
+    public DynamicSqlSource build() {
+        if (stack.size () != 1) {
+            throw new BuilderException ("Element <" + stack.peek ().name + "> is not closed");
+        }
+        flushText (root);
+        return new DynamicSqlSource (contents (root));
+    }
+
+    private SqlNode createNode(Frame frame) {
+        Properties attributes = frame.attributes;
+        switch (frame.name) {
+            case "if":
+                return new IfSqlNode ("if", attributes, test (frame), contents (frame));
+            case "where":
+                return TrimSqlNode.where (attributes, contents (frame));
+            case "set":
+                return TrimSqlNode.set (attributes, contents (frame));
+            case "trim":
+                return TrimSqlNode.trim (attributes, contents (frame));
+            case "foreach":
+                return new ForEachSqlNode (attributes, collection (attributes), contents (frame));
+            case "choose":
+                if (!frame.contents.isEmpty ()) {
+                    throw new BuilderException ("<choose> can only contain <when> and <otherwise>");
+                }
+                List<IfSqlNode> whens = frame.whens == null ? new ArrayList<> () : frame.whens;
+                return new ChooseSqlNode (whens.toArray (new IfSqlNode[0]), frame.otherwise);
+            default:
+                throw new BuilderException ("Unknown element <" + frame.name + "> in SQL statement");
+        }
+    }
+
+    private static Expression test(Frame frame) {
+        String test = frame.attributes.getProperty ("test");
+        if (test == null) {
+            throw new BuilderException ("<" + frame.name + "> requires a test attribute");
+        }
+        return Expression.compile (test);
+    }
+
+    private static VariableExpression collection(Properties attributes) {
+        String collection = attributes.getProperty ("collection");
+        if (collection == null) {
+            throw new BuilderException ("<foreach> requires a collection attribute");
+        }
+        try {
+            return new VariableExpression (collection.trim ());
+        } catch (RuntimeException e) {
+            throw new BuilderException ("Invalid collection '" + collection + "' in <foreach>. Cause: " + e, e);
+        }
+    }
+
+    private static SqlNode contents(Frame frame) {
+        return frame.contents.size () == 1 ? frame.contents.get (0) : new MixedSqlNode (frame.contents);
+    }
+
+    // <choose>里元素之间的空白忽略
+    private static void flushText(Frame frame) {
+        StringBuilder text = frame.text;
+        if (text == null) {
+            return;
+        }
+        frame.text = null;
+        if ("choose".equals (frame.name)) {
+            if (text.toString ().trim ().isEmpty ()) {
+                return;
+            }
+            throw new BuilderException ("<choose> can only contain <when> and <otherwise>");
+        }
+        frame.contents.add (new TextSqlNode (text.toString ()));
+    }
+}
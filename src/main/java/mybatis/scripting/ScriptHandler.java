@@ -0,0 +1,23 @@
+package mybatis.scripting;
+
+import java.util.Properties;
+
+/**
+ * 类名称: ScriptHandler
+ * 功能描述: 接收语句元素内部的元素和文本，DOM、StAX和配置快照都按文档顺序调用
+ * 日期:  2026/10/18 22:10
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public interface ScriptHandler {
+
+    // attributes已经替换过${}
+    void startElement(String name, Properties attributes);
+
+    // 文本或CDATA，已经替换过${}
+    void text(String text);
+
+    void endElement();
+
+}
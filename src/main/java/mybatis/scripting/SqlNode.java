@@ -0,0 +1,19 @@
+package mybatis.scripting;
+
+/**
+ * 类名称: SqlNode
+ * 功能描述: 动态sql中的一个节点，构建时生成，不可变，所有线程共享
+ * 日期:  2026/10/18 22:10
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public interface SqlNode {
+
+    // sql追加到context的缓冲区，#{}追加?并按顺序绑定参数值
+    void apply(DynamicContext context);
+
+    // 按构建时的元素和文本重新输出一遍，写配置快照时使用
+    void replay(ScriptHandler handler);
+
+}
@@ -0,0 +1,71 @@
+package mybatis.scripting;
+
+import mybatis.bingding.ParameterMapping;
+import mybatis.bingding.SqlSourceBuilder;
+import mybatis.parsing.TokenTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 类名称: TextSqlNode
+ * 功能描述: 一段sql文本，构建时拆成字面量和#{}参数，渲染时依次追加字面量和?，不再扫描文本
+ * 日期:  2026/10/18 22:40
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+final class TextSqlNode implements SqlNode {
+
+    private static final TokenTemplate.TokenKind PARAMETER = new TokenTemplate.TokenKind ("#{", "}");
+
+    private final String text;
+
+    // 比parameters多一个，第i个参数在literals[i]和literals[i + 1]之间
+    private final String[] literals;
+
+    private final VariableExpression[] parameters;
+
+    private final Integer[] jdbcTypes;
+
+    TextSqlNode(String text) {
+        this.text = text;
+        List<String> literals = new ArrayList<> ();
+        List<ParameterMapping> mappings = new ArrayList<> ();
+        StringBuilder current = new StringBuilder ();
+        try {
+            TokenTemplate.compile (text, PARAMETER).render (current, (kind, content, out) -> {
+                literals.add (current.toString ());
+                current.setLength (0);
+                mappings.add (SqlSourceBuilder.parseParameterMapping (content));
+            });
+        } catch (IOException e) {
+            // StringBuilder不会抛出IOException
+            throw new IllegalStateException (e);
+        }
+        literals.add (current.toString ());
+        this.literals = literals.toArray (new String[0]);
+        this.parameters = new VariableExpression[mappings.size ()];
+        this.jdbcTypes = new Integer[mappings.size ()];
+        for (int i = 0; i < parameters.length; i++) {
+            parameters[i] = new VariableExpression (mappings.get (i).getProperty ());
+            jdbcTypes[i] = mappings.get (i).getJdbcType ();
+        }
+    }
+
+    @Override
+    public void apply(DynamicContext context) {
+        StringBuilder sql = context.sql ();
+        sql.append (literals[0]);
+        for (int i = 0; i < parameters.length; i++) {
+            context.bind (parameters[i].evaluate (context), jdbcTypes[i]);
+            sql.append (literals[i + 1]);
+        }
+    }
+
+    @Override
+    public void replay(ScriptHandler handler) {
+        handler.text (text);
+    }
+}
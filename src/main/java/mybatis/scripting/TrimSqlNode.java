@@ -0,0 +1,110 @@
+package mybatis.scripting;
+
+import java.util.Properties;
+
+/**
+ * 类名称: TrimSqlNode
+ * 功能描述: <trim>、<where>和<set>。内容为空时什么都不输出，否则去掉开头、结尾多余的关键字再加上前缀、后缀
+ * 日期:  2026/10/18 22:55
+ *
+ * 内容直接渲染到同一个缓冲区，渲染完在原地修剪，不为内容单独分配缓冲区
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+final class TrimSqlNode extends ElementSqlNode {
+
+    private static final String[] WHERE_OVERRIDES = {"AND ", "OR ", "AND\n", "OR\n", "AND\r", "OR\r", "AND\t", "OR\t"};
+
+    private static final String[] SET_OVERRIDES = {","};
+
+    private static final String[] NONE = new String[0];
+
+    // 替换开头空白和多余关键字的文本，前后各一个空格
+    private final String head;
+
+    private final String suffix;
+
+    private final String[] prefixOverrides;
+
+    private final String[] suffixOverrides;
+
+    private TrimSqlNode(String element, Properties attributes, SqlNode contents, String prefix, String[] prefixOverrides,
+                        String suffix, String[] suffixOverrides) {
+        super (element, attributes, contents);
+        this.head = prefix == null ? " " : " " + prefix + " ";
+        this.suffix = suffix;
+        this.prefixOverrides = prefixOverrides;
+        this.suffixOverrides = suffixOverrides;
+    }
+
+    static TrimSqlNode where(Properties attributes, SqlNode contents) {
+        return new TrimSqlNode ("where", attributes, contents, "WHERE", WHERE_OVERRIDES, null, NONE);
+    }
+
+    static TrimSqlNode set(Properties attributes, SqlNode contents) {
+        return new TrimSqlNode ("set", attributes, contents, "SET", NONE, null, SET_OVERRIDES);
+    }
+
+    // prefixOverrides、suffixOverrides用|分隔，如 "AND |OR "
+    static TrimSqlNode trim(Properties attributes, SqlNode contents) {
+        return new TrimSqlNode ("trim", attributes, contents, attributes.getProperty ("prefix"),
+                overrides (attributes.getProperty ("prefixOverrides")), attributes.getProperty ("suffix"),
+                overrides (attributes.getProperty ("suffixOverrides")));
+    }
+
+    private static String[] overrides(String value) {
+        return value == null ? NONE : value.split ("\\|");
+    }
+
+    @Override
+    public void apply(DynamicContext context) {
+        StringBuilder sql = context.sql ();
+        int start = sql.length ();
+        contents.apply (context);
+        int end = sql.length ();
+        int first = start;
+        while (first < end && Character.isWhitespace (sql.charAt (first))) {
+            first++;
+        }
+        if (first == end) {
+            sql.setLength (start);
+            return;
+        }
+        while (Character.isWhitespace (sql.charAt (end - 1))) {
+            end--;
+        }
+        for (String override : suffixOverrides) {
+            if (end - first >= override.length () && regionMatches (sql, end - override.length (), override)) {
+                end -= override.length ();
+                break;
+            }
+        }
+        sql.setLength (end);
+        for (String override : prefixOverrides) {
+            if (end - first >= override.length () && regionMatches (sql, first, override)) {
+                first += override.length ();
+                break;
+            }
+        }
+        // 开头的空白和多余的关键字换成前缀，只移动一次后面的内容
+        sql.replace (start, first, head);
+        if (suffix != null) {
+            sql.append (' ').append (suffix);
+        }
+        // 结尾的空白已经去掉，和后面的文本隔开
+        sql.append (' ');
+    }
+
+    // 忽略大小写
+    private static boolean regionMatches(StringBuilder sql, int offset, String override) {
+        for (int i = 0; i < override.length (); i++) {
+            char a = sql.charAt (offset + i);
+            char b = override.charAt (i);
+            if (a != b && Character.toUpperCase (a) != Character.toUpperCase (b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,52 @@
+package mybatis.scripting;
+
+import mybatis.reflection.PropertyAccessor;
+import mybatis.reflection.PropertyAccessors;
+
+/**
+ * 类名称: VariableExpression
+ * 功能描述: 变量或属性路径，如 name、user.address.city。第一段是参数名或<foreach>的变量，后面的属性编译成getter调用链
+ * 日期:  2026/10/18 22:25
+ *
+ * 属性按运行时的类解析并缓存，同一个路径可以作用在不同类型的对象上
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+final class VariableExpression extends Expression {
+
+    private final String root;
+
+    // 第一段之后的属性路径，没有时为null
+    private final PropertyAccessor path;
+
+    // 整个路径都作为属性，单个JavaBean或Map参数时直接从参数上取
+    private final PropertyAccessor fullPath;
+
+    VariableExpression(String source) {
+        super (source);
+        int dot = source.indexOf ('.');
+        this.root = (dot < 0 ? source : source.substring (0, dot)).intern ();
+        this.path = dot < 0 ? null : PropertyAccessors.compile (Object.class, source.substring (dot + 1)).getAccessor ();
+        this.fullPath = PropertyAccessors.compile (Object.class, source).getAccessor ();
+    }
+
+    @Override
+    Object evaluate(DynamicContext context) {
+        return context.resolve (this);
+    }
+
+    String getRoot() {
+        return root;
+    }
+
+    // root是第一段的值
+    Object fromRoot(Object value) {
+        return value == null || path == null ? value : path.get (value);
+    }
+
+    // target是整个路径的起点
+    Object fromTarget(Object target) {
+        return target == null ? null : fullPath.get (target);
+    }
+}
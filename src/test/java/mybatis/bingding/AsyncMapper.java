@@ -0,0 +1,26 @@
+package mybatis.bingding;
+
+import mybatis.annotations.Param;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 类名称: AsyncMapper
+ * 功能描述: 返回CompletableFuture的mapper，语句在AsyncMapper.xml中
+ * 日期:  2026/10/19 05:40
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public interface AsyncMapper {
+
+    CompletableFuture<Integer> insert(@Param ("id") int id, @Param ("name") String name);
+
+    CompletableFuture<User> findById(@Param ("id") int id);
+
+    CompletableFuture<List<User>> findAll();
+
+    // 调用AsyncStatementTest.track，记录同时执行的语句个数
+    CompletableFuture<Integer> track(@Param ("id") int id);
+}
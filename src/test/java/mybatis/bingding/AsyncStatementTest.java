@@ -0,0 +1,123 @@
+package mybatis.bingding;
+
+import mybatis.datasource.RecordingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 类名称: AsyncStatementTest
+ * 功能描述: 返回CompletableFuture的mapper方法：结果和异常通过future返回，同时执行的语句不超过maxInFlightStatements，
+ * SqlSessionFactory关闭后提交的语句以异常结束
+ * 日期:  2026/10/19 05:40
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class AsyncStatementTest {
+
+    private static final int MAX_IN_FLIGHT = 2;
+
+    private static final AtomicInteger RUNNING = new AtomicInteger ();
+
+    private static final AtomicInteger MAX_RUNNING = new AtomicInteger ();
+
+    private SqlSessionFactory factory;
+
+    private SqlSession session;
+
+    private AsyncMapper mapper;
+
+    // h2通过create alias在执行语句的线程上调用
+    public static int track(int id) throws InterruptedException {
+        int running = RUNNING.incrementAndGet ();
+        MAX_RUNNING.accumulateAndGet (running, Math::max);
+        try {
+            Thread.sleep (50);
+            return id;
+        } finally {
+            RUNNING.decrementAndGet ();
+        }
+    }
+
+    @BeforeEach
+    public void open() throws Exception {
+        RecordingDataSource dataSource = RecordingDataSource.create ("async", SqlSessionIntegrationTest.USERS_DDL,
+                "create alias track for \"" + AsyncStatementTest.class.getName () + ".track\"");
+        Configuration configuration = new Configuration ();
+        configuration.setMaxInFlightStatements (MAX_IN_FLIGHT);
+        factory = new SqlSessionFactoryBuilder ().buider (configuration, dataSource, Collections.singletonList ("mybatis/bingding/AsyncMapper.xml"));
+        session = factory.openSession ();
+        mapper = new MapperProxyFactroy<> (AsyncMapper.class, configuration).newInstance (session);
+    }
+
+    @AfterEach
+    public void close() {
+        session.close ();
+        factory.close ();
+    }
+
+    @Test
+    public void completesWithTheMappedResult() throws Exception {
+        assertEquals (1, mapper.insert (1, "ann").get (5, TimeUnit.SECONDS));
+        User user = mapper.findById (1).get (5, TimeUnit.SECONDS);
+        assertEquals ("ann", user.getName ());
+        assertEquals (User.Color.RED, user.getColor ());
+        assertEquals (1, mapper.findAll ().get (5, TimeUnit.SECONDS).size ());
+    }
+
+    @Test
+    public void completesExceptionallyWhenTheStatementFails() throws Exception {
+        mapper.insert (1, "ann").get (5, TimeUnit.SECONDS);
+        CompletableFuture<Integer> duplicate = mapper.insert (1, "bob");
+        ExecutionException e = assertThrows (ExecutionException.class, () -> duplicate.get (5, TimeUnit.SECONDS));
+        assertTrue (e.getCause () instanceof RuntimeException, String.valueOf (e.getCause ()));
+        // 失败的语句归还了许可和连接
+        assertEquals ("ann", mapper.findById (1).get (5, TimeUnit.SECONDS).getName ());
+    }
+
+    @Test
+    public void limitsConcurrentStatements() throws Exception {
+        RUNNING.set (0);
+        MAX_RUNNING.set (0);
+        List<CompletableFuture<Integer>> futures = new ArrayList<> ();
+        for (int i = 0; i < 8; i++) {
+            futures.add (mapper.track (i));
+        }
+        for (int i = 0; i < futures.size (); i++) {
+            assertEquals (i, futures.get (i).get (10, TimeUnit.SECONDS));
+        }
+        assertEquals (MAX_IN_FLIGHT, MAX_RUNNING.get ());
+    }
+
+    @Test
+    public void submissionAfterCloseCompletesExceptionally() throws Exception {
+        // 执行过异步语句，线程池已经创建
+        mapper.insert (1, "ann").get (5, TimeUnit.SECONDS);
+        factory.close ();
+        CompletableFuture<User> future = mapper.findById (1);
+        ExecutionException e = assertThrows (ExecutionException.class, () -> future.get (5, TimeUnit.SECONDS));
+        assertTrue (e.getCause () instanceof RejectedExecutionException, String.valueOf (e.getCause ()));
+    }
+
+    @Test
+    public void submissionAfterCloseCompletesExceptionallyBeforeFirstUse() throws Exception {
+        factory.close ();
+        CompletableFuture<User> future = mapper.findById (1);
+        ExecutionException e = assertThrows (ExecutionException.class, () -> future.get (5, TimeUnit.SECONDS));
+        assertTrue (e.getCause () instanceof RejectedExecutionException, String.valueOf (e.getCause ()));
+    }
+}
@@ -0,0 +1,110 @@
+package mybatis.bingding;
+
+import mybatis.datasource.RecordingDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 类名称: ConfigurationSnapshotTest
+ * 功能描述: 快照保留语句的所有属性；长度、下标越界，文件截断或校验和错误时读取返回null或抛出IOException
+ * 日期:  2026/10/19 04:30
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class ConfigurationSnapshotTest {
+
+    private static final List<String> MAPPERS = Collections.singletonList ("mybatis/datasource/WhoMapper.xml");
+
+    // magic、版本号和SHA-256摘要
+    private static final int HEADER_LENGTH = 4 + 2 + 32;
+
+    // 摘要之后是缓存个数（这里为0）和语句个数，接着是第一条语句名字的长度
+    private static final int NAME_LENGTH = HEADER_LENGTH + 4 + 4;
+
+    @TempDir
+    Path directory;
+
+    private Configuration build(Path snapshot) throws Exception {
+        Configuration configuration = new Configuration ();
+        new SqlSessionFactoryBuilder ().buider (configuration, RecordingDataSource.create ("snapshot"), MAPPERS, snapshot);
+        return configuration;
+    }
+
+    @Test
+    public void reloadsStatementsFromSnapshot() throws Exception {
+        Path snapshot = directory.resolve ("mappers.snapshot");
+        Configuration parsed = build (snapshot);
+        assertTrue (Files.isRegularFile (snapshot));
+
+        Configuration loaded = build (snapshot);
+        assertEquals (parsed.getMappedStatements ().size (), loaded.getMappedStatements ().size ());
+        MappedStatement primary = loaded.getMappedStatement ("mybatis.datasource.WhoMapper.whoOnPrimary");
+        assertEquals (StatementRoute.PRIMARY, primary.getRoute ());
+        assertNull (loaded.getMappedStatement ("mybatis.datasource.WhoMapper.who").getRoute ());
+        assertEquals (parsed.getMappedStatement ("mybatis.datasource.WhoMapper.add").getSql (),
+                loaded.getMappedStatement ("mybatis.datasource.WhoMapper.add").getSql ());
+    }
+
+    @Test
+    public void rejectsCorruptedSnapshots() throws Exception {
+        Path snapshot = directory.resolve ("mappers.snapshot");
+        build (snapshot);
+        byte[] good = Files.readAllBytes (snapshot);
+        byte[] hash = ConfigurationSnapshot.hash (new Configuration (), MAPPERS);
+        assertEquals (4, ConfigurationSnapshot.read (snapshot, hash).getStatements ().size ());
+
+        // 第一条语句的名字长度越界、负数
+        assertCorrupt (snapshot, hash, withChecksum (good, NAME_LENGTH, 0x7fffffff));
+        assertCorrupt (snapshot, hash, withChecksum (good, NAME_LENGTH, -2));
+        // 第一条语句的SqlCommandType下标越界
+        int nameLength = ByteBuffer.wrap (good).getInt (NAME_LENGTH);
+        int resource = NAME_LENGTH + 4 + nameLength;
+        int type = resource + 4 + ByteBuffer.wrap (good).getInt (resource);
+        byte[] badIndex = good.clone ();
+        badIndex[type] = 0x7f;
+        assertCorrupt (snapshot, hash, withChecksum (badIndex, -1, 0));
+        // 截断在摘要中间和内容中间
+        assertCorrupt (snapshot, hash, Arrays.copyOf (good, 20));
+        assertCorrupt (snapshot, hash, Arrays.copyOf (good, good.length / 2));
+        // 内容没变，校验和错误
+        byte[] badCrc = good.clone ();
+        badCrc[good.length - 1] ^= 1;
+        assertCorrupt (snapshot, hash, badCrc);
+    }
+
+    // 在offset处写入value（offset为负数时不修改），再重新计算校验和，让损坏的内容通过CRC检查
+    private static byte[] withChecksum(byte[] good, int offset, int value) {
+        byte[] bytes = good.clone ();
+        ByteBuffer buffer = ByteBuffer.wrap (bytes);
+        if (offset >= 0) {
+            buffer.putInt (offset, value);
+        }
+        CRC32 crc = new CRC32 ();
+        crc.update (bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH - 8);
+        buffer.putLong (bytes.length - 8, crc.getValue ());
+        return bytes;
+    }
+
+    private static void assertCorrupt(Path snapshot, byte[] hash, byte[] bytes) throws Exception {
+        Files.write (snapshot, bytes);
+        try {
+            assertNull (ConfigurationSnapshot.read (snapshot, hash));
+        } catch (IOException expected) {
+            // 和返回null一样，调用方重新解析mapper
+        }
+    }
+}
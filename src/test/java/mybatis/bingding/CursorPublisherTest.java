@@ -0,0 +1,189 @@
+package mybatis.bingding;
+
+import mybatis.datasource.RecordingDataSource;
+import mybatis.executor.ExecutorType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 类名称: CursorPublisherTest
+ * 功能描述: 返回Flow.Publisher的查询只推送订阅者请求的行数，cancel后关闭连接
+ * 日期:  2026/10/19 04:30
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class CursorPublisherTest {
+
+    private RecordingDataSource dataSource;
+
+    private SqlSessionFactory factory;
+
+    private SqlSession session;
+
+    private UserMapper mapper;
+
+    @BeforeEach
+    public void open() throws Exception {
+        dataSource = RecordingDataSource.create ("publisher", SqlSessionIntegrationTest.USERS_DDL);
+        Configuration configuration = new Configuration ();
+        // SIMPLE执行器在会话关闭时关闭连接，可以通过连接数判断订阅是否结束
+        configuration.setDefaultExecutorType (ExecutorType.SIMPLE);
+        // 同时只有一个订阅能执行查询
+        configuration.setMaxInFlightStatements (1);
+        factory = new SqlSessionFactoryBuilder ().buider (configuration, dataSource, Collections.singletonList ("mybatis/bingding/UserMapper.xml"));
+        session = factory.openSession ();
+        mapper = new MapperProxyFactroy<> (UserMapper.class, configuration).newInstance (session);
+        for (int i = 1; i <= 5; i++) {
+            mapper.insert (i, "user" + i, User.Color.RED);
+        }
+    }
+
+    @AfterEach
+    public void close() {
+        session.close ();
+        factory.close ();
+    }
+
+    @Test
+    public void pushesOnlyRequestedRows() throws Exception {
+        RecordingSubscriber subscriber = new RecordingSubscriber ();
+        mapper.publishAll ().subscribe (subscriber);
+        subscriber.subscription.request (2);
+
+        assertEquals (1, subscriber.poll ().getId ());
+        assertEquals (2, subscriber.poll ().getId ());
+        assertNull (subscriber.items.poll (200, TimeUnit.MILLISECONDS));
+        assertEquals (1L, subscriber.completed.getCount ());
+
+        subscriber.subscription.request (Long.MAX_VALUE);
+        for (int i = 3; i <= 5; i++) {
+            assertEquals (i, subscriber.poll ().getId ());
+        }
+        assertTrue (subscriber.completed.await (5, TimeUnit.SECONDS));
+        assertNull (subscriber.error);
+    }
+
+    @Test
+    public void cancelClosesTheConnection() throws Exception {
+        int openedBefore = dataSource.getOpenedConnections ();
+        int closedBefore = dataSource.getClosedConnections ();
+        RecordingSubscriber subscriber = new RecordingSubscriber ();
+        mapper.publishAll ().subscribe (subscriber);
+        subscriber.subscription.request (1);
+        assertEquals (1, subscriber.poll ().getId ());
+
+        subscriber.subscription.cancel ();
+        long deadline = System.nanoTime () + TimeUnit.SECONDS.toNanos (5);
+        while (dataSource.getClosedConnections () == closedBefore && System.nanoTime () < deadline) {
+            Thread.sleep (10);
+        }
+        // 订阅在自己的会话中执行，只打开过一个连接
+        assertEquals (openedBefore + 1, dataSource.getOpenedConnections ());
+        assertEquals (closedBefore + 1, dataSource.getClosedConnections ());
+        assertNull (subscriber.items.poll (100, TimeUnit.MILLISECONDS));
+        assertEquals (1L, subscriber.completed.getCount ());
+    }
+
+    @Test
+    public void rejectsNonPositiveRequests() throws Exception {
+        RecordingSubscriber subscriber = new RecordingSubscriber ();
+        mapper.publishAll ().subscribe (subscriber);
+        subscriber.subscription.request (0);
+        assertTrue (subscriber.failed.await (5, TimeUnit.SECONDS));
+        assertTrue (subscriber.error instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void terminatesWaitingSubscriptionsWithoutAPermit() throws Exception {
+        // 第一个订阅读了一行之后一直占着唯一的许可
+        RecordingSubscriber holder = new RecordingSubscriber ();
+        mapper.publishAll ().subscribe (holder);
+        holder.subscription.request (1);
+        assertEquals (1, holder.poll ().getId ());
+
+        // 还没有request过的订阅
+        RecordingSubscriber idle = new RecordingSubscriber ();
+        mapper.publishAll ().subscribe (idle);
+        idle.subscription.request (0);
+        assertTrue (idle.failed.await (5, TimeUnit.SECONDS));
+        assertTrue (idle.error instanceof IllegalArgumentException);
+
+        // 已经在等待许可的订阅
+        RecordingSubscriber waiting = new RecordingSubscriber ();
+        mapper.publishAll ().subscribe (waiting);
+        waiting.subscription.request (1);
+        waiting.subscription.request (-1);
+        assertTrue (waiting.failed.await (5, TimeUnit.SECONDS));
+        assertTrue (waiting.error instanceof IllegalArgumentException);
+
+        RecordingSubscriber cancelled = new RecordingSubscriber ();
+        mapper.publishAll ().subscribe (cancelled);
+        cancelled.subscription.request (1);
+        cancelled.subscription.cancel ();
+
+        // 上面的订阅都已经离开等待队列，许可归还后下一个订阅直接执行
+        int opened = dataSource.getOpenedConnections ();
+        holder.subscription.cancel ();
+        RecordingSubscriber next = new RecordingSubscriber ();
+        mapper.publishAll ().subscribe (next);
+        next.subscription.request (1);
+        assertEquals (1, next.poll ().getId ());
+        assertEquals (opened + 1, dataSource.getOpenedConnections ());
+        assertNull (cancelled.items.poll ());
+        assertNull (cancelled.error);
+    }
+
+    private static final class RecordingSubscriber implements Flow.Subscriber<User> {
+
+        private final BlockingQueue<User> items = new LinkedBlockingQueue<> ();
+
+        private final CountDownLatch completed = new CountDownLatch (1);
+
+        private final CountDownLatch failed = new CountDownLatch (1);
+
+        private volatile Flow.Subscription subscription;
+
+        private volatile Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(User item) {
+            items.add (item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            failed.countDown ();
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown ();
+        }
+
+        private User poll() throws InterruptedException {
+            User user = items.poll (5, TimeUnit.SECONDS);
+            assertNotNull (user, "timed out waiting for a row");
+            return user;
+        }
+    }
+}
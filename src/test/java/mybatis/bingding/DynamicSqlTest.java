@@ -0,0 +1,138 @@
+package mybatis.bingding;
+
+import mybatis.datasource.RecordingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 类名称: DynamicSqlTest
+ * 功能描述: 在h2上执行包含<where>、<if>、<foreach>、<choose>的语句，DOM和StAX两种解析方式结果一致，从快照加载后同样可以执行
+ * 日期:  2026/10/19 07:20
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class DynamicSqlTest {
+
+    private static final List<String> MAPPERS = Arrays.asList ("mybatis/bingding/UserMapper.xml", "mybatis/bingding/DynamicUserMapper.xml");
+
+    private static final String NAMESPACE = "mybatis.bingding.DynamicUserMapper";
+
+    @TempDir
+    Path directory;
+
+    private final List<SqlSessionFactory> factories = new ArrayList<> ();
+
+    private SqlSessionFactory factory(MapperParserType parserType, Path snapshot) throws Exception {
+        RecordingDataSource dataSource = RecordingDataSource.create ("dynamic", SqlSessionIntegrationTest.USERS_DDL);
+        Configuration configuration = new Configuration ();
+        configuration.setMapperParserType (parserType);
+        SqlSessionFactoryBuilder builder = new SqlSessionFactoryBuilder ();
+        SqlSessionFactory factory = snapshot == null ? builder.buider (configuration, dataSource, MAPPERS)
+                : builder.buider (configuration, dataSource, MAPPERS, snapshot);
+        factories.add (factory);
+        try (SqlSession session = factory.openSession ()) {
+            UserMapper users = new MapperProxyFactroy<> (UserMapper.class, configuration).newInstance (session);
+            users.insert (1, "ann", User.Color.RED);
+            users.insert (2, "bob", User.Color.BLUE);
+            users.insert (3, "cid", User.Color.RED);
+            users.insert (4, "ann", User.Color.GREEN);
+        }
+        return factory;
+    }
+
+    @AfterEach
+    public void close() {
+        for (SqlSessionFactory factory : factories) {
+            factory.close ();
+        }
+    }
+
+    private static DynamicUserMapper mapper(SqlSession session) {
+        return new MapperProxyFactroy<> (DynamicUserMapper.class, session.getConfiguration ()).newInstance (session);
+    }
+
+    private static List<Integer> ids(List<User> users) {
+        List<Integer> ids = new ArrayList<> ();
+        for (User user : users) {
+            ids.add (user.getId ());
+        }
+        return ids;
+    }
+
+    private static void assertQueries(SqlSessionFactory factory) {
+        try (SqlSession session = factory.openSession ()) {
+            DynamicUserMapper mapper = mapper (session);
+            assertEquals (Arrays.asList (1, 2, 3, 4), ids (mapper.find (null, null)));
+            assertEquals (Arrays.asList (1, 4), ids (mapper.find ("ann", null)));
+            assertEquals (Arrays.asList (1, 3), ids (mapper.find (null, "RED")));
+            assertEquals (Collections.singletonList (1), ids (mapper.find ("ann", "RED")));
+
+            assertEquals (Arrays.asList (2, 4), ids (mapper.findByIds (Arrays.asList (4, 2, 9))));
+            assertEquals (4L, mapper.countByIds (Collections.emptyList ()));
+            assertEquals (4L, mapper.countByIds (null));
+
+            assertEquals (Arrays.asList (1, 4, 2, 3), ids (mapper.sorted ("name")));
+            assertEquals (Arrays.asList (2, 4, 3, 1), ids (mapper.sorted ("color")));
+            assertEquals (Arrays.asList (1, 2, 3, 4), ids (mapper.sorted (null)));
+            assertEquals (4L, mapper.count ());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource (MapperParserType.class)
+    public void executesDynamicStatements(MapperParserType parserType) throws Exception {
+        SqlSessionFactory factory = factory (parserType, null);
+        assertNotNull (factory.getConfiguration ().getMappedStatement (NAMESPACE + ".find").getDynamicSqlSource ());
+        // 注释两边的文本合并后仍是静态语句
+        MappedStatement count = factory.getConfiguration ().getMappedStatement (NAMESPACE + ".count");
+        assertNull (count.getDynamicSqlSource ());
+        assertEquals ("select count(*)  from users", count.getSql ());
+        assertQueries (factory);
+    }
+
+    @ParameterizedTest
+    @EnumSource (MapperParserType.class)
+    public void bindsLargeInLists(MapperParserType parserType) throws Exception {
+        SqlSessionFactory factory = factory (parserType, null);
+        List<Integer> ids = new ArrayList<> ();
+        for (int i = 0; i < 20_000; i++) {
+            ids.add (i);
+        }
+        try (SqlSession session = factory.openSession ()) {
+            DynamicUserMapper mapper = mapper (session);
+            assertEquals (4L, mapper.countByIds (ids));
+            assertEquals (Arrays.asList (1, 2, 3, 4), ids (mapper.findByIds (ids)));
+            assertEquals (2L, mapper.countByIds (ids.subList (3, 20_000)));
+        }
+    }
+
+    @Test
+    public void reloadsDynamicStatementsFromSnapshot() throws Exception {
+        Path snapshot = directory.resolve ("mappers.snapshot");
+        assertQueries (factory (MapperParserType.STAX, snapshot));
+        assertTrue (Files.isRegularFile (snapshot));
+        long modified = Files.getLastModifiedTime (snapshot).toMillis ();
+
+        SqlSessionFactory loaded = factory (MapperParserType.STAX, snapshot);
+        // 快照有效时不重写
+        assertEquals (modified, Files.getLastModifiedTime (snapshot).toMillis ());
+        assertNotNull (loaded.getConfiguration ().getMappedStatement (NAMESPACE + ".sorted").getDynamicSqlSource ());
+        assertQueries (loaded);
+    }
+}
@@ -0,0 +1,26 @@
+package mybatis.bingding;
+
+import mybatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 类名称: DynamicUserMapper
+ * 功能描述: 动态sql集成测试使用的mapper，语句在DynamicUserMapper.xml中
+ * 日期:  2026/10/19 07:20
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public interface DynamicUserMapper {
+
+    List<User> find(@Param ("name") String name, @Param ("color") String color);
+
+    List<User> findByIds(List<Integer> ids);
+
+    long countByIds(@Param ("ids") List<Integer> ids);
+
+    List<User> sorted(@Param ("order") String order);
+
+    long count();
+}
@@ -0,0 +1,16 @@
+package mybatis.bingding;
+
+import java.util.Set;
+
+/**
+ * 类名称: SetMapper
+ * 功能描述: 返回类型不是List的查询，创建mapper时应当失败
+ * 日期:  2026/10/19 04:30
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public interface SetMapper {
+
+    Set<User> findAll();
+}
@@ -0,0 +1,198 @@
+package mybatis.bingding;
+
+import mybatis.cursor.Cursor;
+import mybatis.datasource.RecordingDataSource;
+import mybatis.executor.BatchResult;
+import mybatis.executor.ExecutorType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 类名称: SqlSessionIntegrationTest
+ * 功能描述: 在h2内存数据库上执行mapper方法：增删查、fetchSize和超时、游标、批量执行和namespace缓存
+ * 日期:  2026/10/19 04:30
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class SqlSessionIntegrationTest {
+
+    static final String USERS_DDL = "create table users (id int primary key, name varchar(32), color varchar(16))";
+
+    private RecordingDataSource dataSource;
+
+    private SqlSessionFactory factory;
+
+    private SqlSessionFactory factory(MapperMode mode, String... mappers) throws Exception {
+        dataSource = RecordingDataSource.create ("session", USERS_DDL);
+        Configuration configuration = new Configuration ();
+        configuration.setMapperMode (mode);
+        List<String> resources = new ArrayList<> ();
+        resources.add ("mybatis/bingding/UserMapper.xml");
+        Collections.addAll (resources, mappers);
+        factory = new SqlSessionFactoryBuilder ().buider (configuration, dataSource, resources);
+        return factory;
+    }
+
+    private UserMapper mapper(SqlSession session) {
+        return new MapperProxyFactroy<> (UserMapper.class, session.getConfiguration ()).newInstance (session);
+    }
+
+    @AfterEach
+    public void close() {
+        if (factory != null) {
+            factory.close ();
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource (MapperMode.class)
+    public void insertsAndSelectsInBothMapperModes(MapperMode mode) throws Exception {
+        factory (mode);
+        try (SqlSession session = factory.openSession ()) {
+            UserMapper mapper = mapper (session);
+            assertEquals (1, mapper.insert (1, "ann", User.Color.GREEN));
+            assertEquals (1, mapper.insert (2, "bob", User.Color.BLUE));
+
+            User user = mapper.findById (1);
+            assertEquals ("ann", user.getName ());
+            assertEquals (User.Color.GREEN, user.getColor ());
+            assertEquals (User.Color.BLUE, mapper.colorOf (2));
+            assertEquals (2, mapper.findAll ().size ());
+            assertEquals (2L, mapper.count ());
+            assertEquals ("bob:BLUE", mapper.describe (2));
+        }
+    }
+
+    @Test
+    public void appliesStatementFetchSizeAndTimeout() throws Exception {
+        factory (MapperMode.JDK_PROXY);
+        try (SqlSession session = factory.openSession ()) {
+            mapper (session).findAll ();
+        }
+        assertEquals (2, dataSource.getLastFetchSize ());
+        assertEquals (7, dataSource.getLastQueryTimeout ());
+    }
+
+    @Test
+    public void rejectsCollectionReturnTypesOtherThanList() throws Exception {
+        factory (MapperMode.JDK_PROXY, "mybatis/bingding/SetMapper.xml");
+        BindingException e = assertThrows (BindingException.class,
+                () -> new MapperProxyFactroy<> (SetMapper.class, factory.getConfiguration ()));
+        assertTrue (e.getMessage ().contains ("java.util.Set"), e.getMessage ());
+    }
+
+    @Test
+    public void batchInsertsAreFlushedOnCommit() throws Exception {
+        factory (MapperMode.JDK_PROXY);
+        try (SqlSession batch = factory.openSession (ExecutorType.BATCH)) {
+            UserMapper mapper = mapper (batch);
+            for (int i = 1; i <= 3; i++) {
+                mapper.insert (i, "user" + i, User.Color.RED);
+            }
+            try (SqlSession other = factory.openSession ()) {
+                assertEquals (0L, mapper (other).count ());
+            }
+            List<BatchResult> results = batch.commit ();
+            assertEquals (1, results.size ());
+            assertEquals (3, results.get (0).getUpdateCounts ().length);
+        }
+        try (SqlSession session = factory.openSession ()) {
+            assertEquals (3L, mapper (session).count ());
+        }
+    }
+
+    @Test
+    public void insertInvalidatesNamespaceCache() throws Exception {
+        factory (MapperMode.JDK_PROXY);
+        try (SqlSession session = factory.openSession ()) {
+            mapper (session).insert (1, "ann", User.Color.RED);
+        }
+        try (SqlSession session = factory.openSession ()) {
+            assertEquals (1, mapper (session).findAll ().size ());
+        }
+        try (SqlSession session = factory.openSession ()) {
+            assertEquals (1, mapper (session).findAll ().size ());
+        }
+        assertEquals (1L, factory.getConfiguration ().getCache ("mybatis.bingding.UserMapper").getStats ().getHits ());
+        try (SqlSession session = factory.openSession ()) {
+            mapper (session).insert (2, "bob", User.Color.RED);
+        }
+        try (SqlSession session = factory.openSession ()) {
+            assertEquals (2, mapper (session).findAll ().size ());
+        }
+    }
+
+    @Test
+    public void iteratorClosesStatementWhenFullyConsumed() throws Exception {
+        factory (MapperMode.JDK_PROXY);
+        try (SqlSession session = factory.openSession (ExecutorType.SIMPLE)) {
+            UserMapper mapper = mapper (session);
+            mapper.insert (1, "ann", User.Color.RED);
+            Iterator<User> iterator = mapper.iterateAll ();
+            assertEquals (1, dataSource.getOpenStatements ());
+            assertTrue (iterator.hasNext ());
+            iterator.next ();
+            assertFalse (iterator.hasNext ());
+            // Iterator没有close方法，读完时就要关闭语句
+            assertEquals (0, dataSource.getOpenStatements ());
+        }
+    }
+
+    @Test
+    public void sessionCloseClosesOpenCursors() throws Exception {
+        factory (MapperMode.JDK_PROXY);
+        Cursor<User> cursor;
+        try (SqlSession session = factory.openSession (ExecutorType.REUSE)) {
+            UserMapper mapper = mapper (session);
+            mapper.insert (1, "ann", User.Color.RED);
+            mapper.insert (2, "bob", User.Color.RED);
+            cursor = mapper.cursorAll ();
+            cursor.iterator ().next ();
+            assertTrue (cursor.isOpen ());
+        }
+        assertFalse (cursor.isOpen ());
+        // 归还的执行器可以继续使用
+        try (SqlSession session = factory.openSession (ExecutorType.REUSE)) {
+            assertEquals (2, mapper (session).findAll ().size ());
+        }
+    }
+
+    @Test
+    public void reExecutingTheSameSelectDoesNotCloseAnOpenCursor() throws Exception {
+        factory (MapperMode.JDK_PROXY);
+        try (SqlSession session = factory.openSession (ExecutorType.REUSE)) {
+            UserMapper mapper = mapper (session);
+            for (int i = 1; i <= 4; i++) {
+                mapper.insert (i, "user" + i, User.Color.RED);
+            }
+            Cursor<User> first = mapper.cursorAll ();
+            Iterator<User> iterator = first.iterator ();
+            iterator.next ();
+            int second = 0;
+            for (User ignored : mapper.cursorAll ()) {
+                second++;
+            }
+            int rest = 0;
+            while (iterator.hasNext ()) {
+                iterator.next ();
+                rest++;
+            }
+            assertEquals (4, second);
+            assertEquals (3, rest);
+            assertTrue (first.isConsumed ());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package mybatis.bingding;
+
+/**
+ * 类名称: User
+ * 功能描述: 测试用的JavaBean，color按枚举的name()读写
+ * 日期:  2026/10/19 04:30
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class User {
+
+    public enum Color {
+        RED, GREEN, BLUE
+    }
+
+    private int id;
+
+    private String name;
+
+    private Color color;
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Color getColor() {
+        return color;
+    }
+
+    public void setColor(Color color) {
+        this.color = color;
+    }
+}
@@ -0,0 +1,40 @@
+package mybatis.bingding;
+
+import mybatis.annotations.Param;
+import mybatis.cursor.Cursor;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+/**
+ * 类名称: UserMapper
+ * 功能描述: 集成测试使用的mapper，语句在UserMapper.xml中
+ * 日期:  2026/10/19 04:30
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public interface UserMapper {
+
+    int insert(@Param ("id") int id, @Param ("name") String name, @Param ("color") User.Color color);
+
+    User findById(@Param ("id") int id);
+
+    List<User> findAll();
+
+    Cursor<User> cursorAll();
+
+    Iterator<User> iterateAll();
+
+    Flow.Publisher<User> publishAll();
+
+    long count();
+
+    User.Color colorOf(@Param ("id") int id);
+
+    default String describe(int id) {
+        User user = findById (id);
+        return user.getName () + ":" + user.getColor ();
+    }
+}
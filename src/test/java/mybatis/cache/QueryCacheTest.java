@@ -0,0 +1,111 @@
+package mybatis.cache;
+
+import mybatis.executor.parameter.BoundParameters;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 类名称: QueryCacheTest
+ * 功能描述: 过期、每段各自的LRU淘汰、命中/未命中/淘汰计数，以及clear之后写入的旧查询结果被丢弃
+ * 日期:  2026/10/19 05:10
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class QueryCacheTest {
+
+    private static CacheKey key(String id) {
+        return new CacheKey (id, BoundParameters.EMPTY);
+    }
+
+    // 和QueryCache选段的方式一致
+    private static List<CacheKey> keysInStripe(int stripe, int mask, int count) {
+        List<CacheKey> keys = new ArrayList<> ();
+        for (int i = 0; keys.size () < count; i++) {
+            CacheKey key = key ("stmt" + i);
+            int h = key.hashCode ();
+            if (((h ^ (h >>> 16)) & mask) == stripe) {
+                keys.add (key);
+            }
+        }
+        return keys;
+    }
+
+    @Test
+    public void countsHitsAndMisses() {
+        QueryCache cache = new QueryCache ("ns", 16, 0, 4);
+        long generation = cache.currentGeneration ();
+        assertNull (cache.get (key ("a")));
+        cache.put (key ("a"), "A", generation);
+        assertEquals ("A", cache.get (key ("a")));
+        assertEquals ("A", cache.get (key ("a")));
+
+        QueryCacheStats stats = cache.getStats ();
+        assertEquals (2L, stats.getHits ());
+        assertEquals (1L, stats.getMisses ());
+        assertEquals (0L, stats.getEvictions ());
+    }
+
+    @Test
+    public void expiresEntriesOlderThanTtl() throws Exception {
+        QueryCache cache = new QueryCache ("ns", 16, 50, 1);
+        cache.put (key ("a"), "A", cache.currentGeneration ());
+        assertEquals ("A", cache.get (key ("a")));
+
+        Thread.sleep (100);
+        assertNull (cache.get (key ("a")));
+        assertEquals (0, cache.entryCount ());
+        assertEquals (1L, cache.getStats ().getEvictions ());
+        assertEquals (1L, cache.getStats ().getMisses ());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedWithinAStripe() {
+        // 两段，每段最多2个
+        QueryCache cache = new QueryCache ("ns", 4, 0, 2);
+        assertEquals (2, cache.getStripes ());
+        List<CacheKey> keys = keysInStripe (0, 1, 3);
+        long generation = cache.currentGeneration ();
+        cache.put (keys.get (0), "0", generation);
+        cache.put (keys.get (1), "1", generation);
+        // 访问0之后，1是这一段里最久没用的
+        assertEquals ("0", cache.get (keys.get (0)));
+        cache.put (keys.get (2), "2", generation);
+
+        // 整个缓存没有满，但这一段已经满了
+        assertEquals (2, cache.entryCount ());
+        assertEquals (1L, cache.getStats ().getEvictions ());
+        assertNull (cache.get (keys.get (1)));
+        assertEquals ("0", cache.get (keys.get (0)));
+        assertEquals ("2", cache.get (keys.get (2)));
+
+        // 另一段不受影响
+        for (CacheKey other : keysInStripe (1, 1, 2)) {
+            cache.put (other, "other", generation);
+        }
+        assertEquals (4, cache.entryCount ());
+        assertEquals (1L, cache.getStats ().getEvictions ());
+    }
+
+    @Test
+    public void dropsPutsStartedBeforeAClear() {
+        QueryCache cache = new QueryCache ("ns", 16, 0, 4);
+        cache.put (key ("a"), "A", cache.currentGeneration ());
+        // 查询开始后，同一namespace执行了insert
+        long generation = cache.currentGeneration ();
+        cache.clear ();
+        cache.put (key ("b"), "stale", generation);
+
+        assertNull (cache.get (key ("a")));
+        assertNull (cache.get (key ("b")));
+        assertEquals (1L, cache.getStats ().getInvalidations ());
+
+        cache.put (key ("b"), "B", cache.currentGeneration ());
+        assertEquals ("B", cache.get (key ("b")));
+    }
+}
@@ -0,0 +1,91 @@
+package mybatis.cursor;
+
+import mybatis.datasource.RecordingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 类名称: DefaultCursorTest
+ * 功能描述: 读完、提前关闭和映射失败时，游标都关闭ResultSet并且只执行一次onClose
+ * 日期:  2026/10/19 04:30
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class DefaultCursorTest {
+
+    private Connection connection;
+
+    private Statement statement;
+
+    private ResultSet rs;
+
+    private final AtomicInteger closes = new AtomicInteger ();
+
+    @BeforeEach
+    public void open() throws Exception {
+        connection = RecordingDataSource.create ("cursor").rawConnection ();
+        statement = connection.createStatement ();
+        rs = statement.executeQuery ("select x from system_range(1, 3)");
+    }
+
+    @AfterEach
+    public void close() throws Exception {
+        connection.close ();
+    }
+
+    @Test
+    public void closesResultSetWhenFullyConsumed() throws Exception {
+        DefaultCursor<Long> cursor = new DefaultCursor<> (rs, row -> row.getLong (1), closes::incrementAndGet);
+        long sum = 0;
+        for (Long value : cursor) {
+            sum += value;
+        }
+        assertEquals (6L, sum);
+        assertTrue (cursor.isConsumed ());
+        assertTrue (rs.isClosed ());
+        assertEquals (1, closes.get ());
+
+        cursor.close ();
+        assertEquals (1, closes.get ());
+    }
+
+    @Test
+    public void closeBeforeConsumedRunsOnCloseOnce() throws Exception {
+        DefaultCursor<Long> cursor = new DefaultCursor<> (rs, row -> row.getLong (1), closes::incrementAndGet);
+        Iterator<Long> iterator = cursor.iterator ();
+        iterator.next ();
+        cursor.close ();
+        cursor.close ();
+        assertFalse (cursor.isOpen ());
+        assertFalse (cursor.isConsumed ());
+        assertFalse (iterator.hasNext ());
+        assertTrue (rs.isClosed ());
+        assertEquals (1, closes.get ());
+    }
+
+    @Test
+    public void closesWhenRowMapperThrows() throws Exception {
+        IllegalStateException failure = new IllegalStateException ("mapping failed");
+        DefaultCursor<Long> cursor = new DefaultCursor<> (rs, row -> {
+            throw failure;
+        }, closes::incrementAndGet);
+        Iterator<Long> iterator = cursor.iterator ();
+        assertSame (failure, assertThrows (IllegalStateException.class, iterator::hasNext));
+        assertTrue (rs.isClosed ());
+        assertEquals (1, closes.get ());
+    }
+}
@@ -0,0 +1,160 @@
+package mybatis.datasource;
+
+import mybatis.bingding.Configuration;
+import mybatis.bingding.MapperMode;
+import mybatis.bingding.MapperProxyFactroy;
+import mybatis.bingding.SqlSession;
+import mybatis.bingding.SqlSessionFactory;
+import mybatis.bingding.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 类名称: ReadWriteRoutingTest
+ * 功能描述: 一个主库和两个副本都是独立的h2内存数据库，who表里是各自的名字，查询结果直接说明语句发往了哪里
+ * 日期:  2026/10/19 04:30
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class ReadWriteRoutingTest {
+
+    private RecordingDataSource primary;
+
+    private RecordingDataSource replica0;
+
+    private RecordingDataSource replica1;
+
+    private SqlSessionFactory factory;
+
+    private static RecordingDataSource database(String name) throws Exception {
+        return RecordingDataSource.create (name, "create table who (name varchar(32))",
+                "insert into who values ('" + name + "')", "create table t (id int primary key)");
+    }
+
+    @BeforeEach
+    public void open() throws Exception {
+        primary = database ("primary");
+        replica0 = database ("replica0");
+        replica1 = database ("replica1");
+    }
+
+    @AfterEach
+    public void close() {
+        if (factory != null) {
+            factory.close ();
+        }
+    }
+
+    private ReadWriteDataSource build(ReadWriteDataSource.Balancing balancing, MapperMode mode, List<RecordingDataSource> replicas) {
+        ReadWriteDataSource dataSource = new ReadWriteDataSource (primary, new ArrayList<> (replicas), balancing);
+        Configuration configuration = new Configuration ();
+        configuration.setMapperMode (mode);
+        factory = new SqlSessionFactoryBuilder ().buider (configuration, dataSource, Collections.singletonList ("mybatis/datasource/WhoMapper.xml"));
+        return dataSource;
+    }
+
+    private ReadWriteDataSource build(ReadWriteDataSource.Balancing balancing) {
+        return build (balancing, MapperMode.JDK_PROXY, Arrays.asList (replica0, replica1));
+    }
+
+    private WhoMapper mapper(SqlSession session) {
+        return new MapperProxyFactroy<> (WhoMapper.class, session.getConfiguration ()).newInstance (session);
+    }
+
+    @ParameterizedTest
+    @EnumSource (MapperMode.class)
+    public void roundRobinSpreadsSessionsAcrossReplicas(MapperMode mode) {
+        build (ReadWriteDataSource.Balancing.ROUND_ROBIN, mode, Arrays.asList (replica0, replica1));
+        Map<String, Integer> hits = new TreeMap<> ();
+        for (int i = 0; i < 6; i++) {
+            try (SqlSession session = factory.openSession ()) {
+                hits.merge (mapper (session).who (), 1, Integer::sum);
+            }
+        }
+        Map<String, Integer> expected = new TreeMap<> ();
+        expected.put ("replica0", 3);
+        expected.put ("replica1", 3);
+        assertEquals (expected, hits);
+    }
+
+    @Test
+    public void sessionKeepsItsReplicaUntilClosed() {
+        build (ReadWriteDataSource.Balancing.ROUND_ROBIN);
+        try (SqlSession session = factory.openSession ()) {
+            WhoMapper mapper = mapper (session);
+            String first = mapper.who ();
+            session.clearCache ();
+            assertEquals (first, mapper.who ());
+        }
+    }
+
+    @Test
+    public void routeAttributeSendsSelectToPrimary() {
+        build (ReadWriteDataSource.Balancing.ROUND_ROBIN);
+        try (SqlSession session = factory.openSession ()) {
+            assertEquals ("primary", mapper (session).whoOnPrimary ());
+        }
+    }
+
+    @Test
+    public void writesGoToPrimaryAndPinTheSession() throws Exception {
+        build (ReadWriteDataSource.Balancing.ROUND_ROBIN);
+        try (SqlSession session = factory.openSession ()) {
+            WhoMapper mapper = mapper (session);
+            assertEquals ("replica0", mapper.who ());
+            mapper.add (1);
+            assertEquals ("primary", mapper.who ());
+            assertEquals (1L, mapper.count ());
+        }
+        try (SqlSession session = factory.openSession ()) {
+            // 副本上没有这一行，新的会话重新读副本
+            assertEquals (0L, mapper (session).count ());
+        }
+    }
+
+    @Test
+    public void leastInFlightPicksTheLeastLeasedReplica() {
+        ReadWriteDataSource dataSource = build (ReadWriteDataSource.Balancing.LEAST_IN_FLIGHT);
+        List<SqlSession> sessions = new ArrayList<> ();
+        List<String> replicas = new ArrayList<> ();
+        for (int i = 0; i < 3; i++) {
+            SqlSession session = factory.openSession ();
+            sessions.add (session);
+            replicas.add (mapper (session).who ());
+        }
+        assertEquals (Arrays.asList ("replica0", "replica1", "replica0"), replicas);
+        assertEquals (2, dataSource.getInFlight (0));
+        assertEquals (1, dataSource.getInFlight (1));
+
+        sessions.get (0).close ();
+        sessions.get (2).close ();
+        // replica0已经空闲，replica1还被占用
+        try (SqlSession session = factory.openSession ()) {
+            assertEquals ("replica0", mapper (session).who ());
+        }
+        sessions.get (1).close ();
+        assertEquals (0, dataSource.getInFlight (0));
+        assertEquals (0, dataSource.getInFlight (1));
+    }
+
+    @Test
+    public void withoutReplicasEverythingGoesToPrimary() {
+        build (ReadWriteDataSource.Balancing.ROUND_ROBIN, MapperMode.JDK_PROXY, Collections.emptyList ());
+        try (SqlSession session = factory.openSession ()) {
+            assertEquals ("primary", mapper (session).who ());
+        }
+    }
+}
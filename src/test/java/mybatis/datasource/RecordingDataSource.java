@@ -0,0 +1,127 @@
+package mybatis.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 类名称: RecordingDataSource
+ * 功能描述: 测试用的h2内存数据源，记录打开和关闭的连接数、没有关闭的PreparedStatement个数，以及最近一次设置的fetchSize和查询超时
+ * 日期:  2026/10/19 04:30
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class RecordingDataSource extends UnpooledDataSource {
+
+    private final AtomicInteger opened = new AtomicInteger ();
+
+    private final AtomicInteger closed = new AtomicInteger ();
+
+    private final AtomicInteger openStatements = new AtomicInteger ();
+
+    private volatile int lastFetchSize = -1;
+
+    private volatile int lastQueryTimeout = -1;
+
+    private RecordingDataSource(String url) {
+        super (url);
+    }
+
+    // 每次调用都是一个新的数据库，ddl在创建时执行，不计入连接数
+    public static RecordingDataSource create(String name, String... ddl) throws SQLException {
+        RecordingDataSource dataSource = new RecordingDataSource ("jdbc:h2:mem:" + name + "-" + UUID.randomUUID () + ";DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.rawConnection ();
+             Statement statement = connection.createStatement ()) {
+            for (String sql : ddl) {
+                statement.execute (sql);
+            }
+        }
+        return dataSource;
+    }
+
+    public Connection rawConnection() throws SQLException {
+        return super.getConnection ();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = super.getConnection ();
+        opened.incrementAndGet ();
+        return (Connection) Proxy.newProxyInstance (getClass ().getClassLoader (), new Class[]{Connection.class},
+                new ConnectionHandler (connection));
+    }
+
+    public int getOpenedConnections() {
+        return opened.get ();
+    }
+
+    public int getClosedConnections() {
+        return closed.get ();
+    }
+
+    public int getOpenStatements() {
+        return openStatements.get ();
+    }
+
+    public int getLastFetchSize() {
+        return lastFetchSize;
+    }
+
+    public int getLastQueryTimeout() {
+        return lastQueryTimeout;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke (target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause ();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection connection;
+
+        private boolean closedOnce;
+
+        private ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("close".equals (method.getName ()) && !closedOnce) {
+                closedOnce = true;
+                closed.incrementAndGet ();
+            }
+            Object result = RecordingDataSource.invoke (connection, method, args);
+            if ("prepareStatement".equals (method.getName ())) {
+                PreparedStatement ps = (PreparedStatement) result;
+                openStatements.incrementAndGet ();
+                boolean[] statementClosed = new boolean[1];
+                return Proxy.newProxyInstance (getClass ().getClassLoader (), new Class[]{PreparedStatement.class},
+                        (statementProxy, statementMethod, statementArgs) -> {
+                            if ("close".equals (statementMethod.getName ()) && !statementClosed[0]) {
+                                statementClosed[0] = true;
+                                openStatements.decrementAndGet ();
+                            } else if ("setFetchSize".equals (statementMethod.getName ())) {
+                                lastFetchSize = (Integer) statementArgs[0];
+                            } else if ("setQueryTimeout".equals (statementMethod.getName ())) {
+                                lastQueryTimeout = (Integer) statementArgs[0];
+                            }
+                            return RecordingDataSource.invoke (ps, statementMethod, statementArgs);
+                        });
+            }
+            return result;
+        }
+    }
+}
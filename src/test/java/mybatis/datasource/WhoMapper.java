@@ -0,0 +1,22 @@
+package mybatis.datasource;
+
+import mybatis.annotations.Param;
+
+/**
+ * 类名称: WhoMapper
+ * 功能描述: 读写分离测试使用的mapper，每个数据库的who表里是数据库自己的名字
+ * 日期:  2026/10/19 04:30
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public interface WhoMapper {
+
+    String who();
+
+    String whoOnPrimary();
+
+    int add(@Param ("id") int id);
+
+    long count();
+}
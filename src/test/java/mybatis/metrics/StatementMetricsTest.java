@@ -0,0 +1,178 @@
+package mybatis.metrics;
+
+import mybatis.bingding.Configuration;
+import mybatis.bingding.MapperProxyFactroy;
+import mybatis.bingding.SqlSession;
+import mybatis.bingding.SqlSessionFactory;
+import mybatis.bingding.SqlSessionFactoryBuilder;
+import mybatis.bingding.User;
+import mybatis.bingding.UserMapper;
+import mybatis.datasource.RecordingDataSource;
+import mybatis.executor.ExecutorType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 类名称: StatementMetricsTest
+ * 功能描述: mapper方法的调用次数、行数、错误数和耗时分布，按需分配的直方图，以及开启后通过JMX暴露的namespace统计
+ * 日期:  2026/10/19 04:30
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class StatementMetricsTest {
+
+    private static final String NAMESPACE = "mybatis.bingding.UserMapper";
+
+    private SqlSessionFactory factory;
+
+    private StatementMetricsRegistry registry;
+
+    @BeforeEach
+    public void open() throws Exception {
+        factory = factory (false);
+        registry = factory.getConfiguration ().getStatementMetrics ();
+    }
+
+    private static SqlSessionFactory factory(boolean registerMBeans) throws Exception {
+        RecordingDataSource dataSource = RecordingDataSource.create ("metrics",
+                "create table users (id int primary key, name varchar(32), color varchar(16))");
+        Configuration configuration = new Configuration ();
+        configuration.setRegisterMetricsMBeans (registerMBeans);
+        return new SqlSessionFactoryBuilder ().buider (configuration, dataSource, Collections.singletonList ("mybatis/bingding/UserMapper.xml"));
+    }
+
+    @AfterEach
+    public void close() {
+        factory.close ();
+    }
+
+    private UserMapper mapper(SqlSession session) {
+        return new MapperProxyFactroy<> (UserMapper.class, session.getConfiguration ()).newInstance (session);
+    }
+
+    @Test
+    public void recordsCallsRowsAndErrors() {
+        try (SqlSession session = factory.openSession ()) {
+            UserMapper mapper = mapper (session);
+            mapper.insert (1, "ann", User.Color.RED);
+            mapper.insert (2, "bob", User.Color.RED);
+            assertThrows (RuntimeException.class, () -> mapper.insert (1, "dup", User.Color.RED));
+            mapper.findAll ();
+            mapper.findAll ();
+        }
+        StatementStats insert = registry.statement (NAMESPACE + ".insert").snapshot ();
+        assertEquals (3L, insert.getCalls ());
+        assertEquals (1L, insert.getErrors ());
+        assertEquals (2L, insert.getRows ());
+
+        StatementStats findAll = registry.statement (NAMESPACE + ".findAll").snapshot ();
+        assertEquals (2L, findAll.getCalls ());
+        assertEquals (4L, findAll.getRows ());
+        assertTrue (findAll.getP50Nanos () > 0);
+        assertTrue (findAll.getP50Nanos () <= findAll.getMaxNanos ());
+    }
+
+    @Test
+    public void batchedInsertsDoNotAddToRowCount() {
+        try (SqlSession session = factory.openSession (ExecutorType.BATCH)) {
+            UserMapper mapper = mapper (session);
+            for (int i = 1; i <= 3; i++) {
+                mapper.insert (i, "user" + i, User.Color.RED);
+            }
+            session.commit ();
+        }
+        StatementStats insert = registry.statement (NAMESPACE + ".insert").snapshot ();
+        assertEquals (3L, insert.getCalls ());
+        assertEquals (0L, insert.getRows ());
+    }
+
+    @Test
+    public void doesNotRegisterMBeansByDefault() throws Exception {
+        try (SqlSession session = factory.openSession ()) {
+            mapper (session).count ();
+        }
+        assertNull (registry.getObjectName (NAMESPACE));
+        assertEquals (1L, registry.getNamespace (NAMESPACE).getCalls ());
+    }
+
+    @Test
+    public void exposesNamespaceMetricsOverJmx() throws Exception {
+        SqlSessionFactory first = factory (true);
+        SqlSessionFactory second = factory (true);
+        try (SqlSession session = first.openSession ()) {
+            mapper (session).count ();
+        }
+        // 创建mapper时注册它的namespace
+        new MapperProxyFactroy<> (UserMapper.class, second.getConfiguration ());
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer ();
+        ObjectName name = first.getConfiguration ().getStatementMetrics ().getObjectName (NAMESPACE);
+        ObjectName other = second.getConfiguration ().getStatementMetrics ().getObjectName (NAMESPACE);
+        // 每个Configuration的序号不同，两个都注册成功
+        assertNotEquals (name, other);
+        assertTrue (server.isRegistered (other));
+        assertEquals (1L, server.getAttribute (name, "Calls"));
+        assertEquals (0L, server.getAttribute (name, "Errors"));
+        assertEquals (0L, server.getAttribute (other, "Calls"));
+
+        first.close ();
+        second.close ();
+        assertFalse (server.isRegistered (name));
+        assertFalse (server.isRegistered (other));
+    }
+
+    @Test
+    public void allocatesHistogramBucketsOnFirstRecord() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram ();
+        assertEquals (0, histogram.getStripeCount ());
+        assertEquals (0L, histogram.getCount ());
+        assertEquals (0L, histogram.percentiles (0.5)[0]);
+
+        histogram.record (100L);
+        assertEquals (1, histogram.getStripeCount ());
+
+        // 并发记录时可能扩展成多组，计数不会丢失
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread (() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    histogram.record (i);
+                }
+            });
+            threads[t].start ();
+        }
+        for (Thread thread : threads) {
+            thread.join ();
+        }
+        assertEquals (400_001L, histogram.getCount ());
+        histogram.reset ();
+        assertEquals (0L, histogram.getCount ());
+    }
+
+    @Test
+    public void histogramPercentilesStayWithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram ();
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record (i * 1000L);
+        }
+        long[] percentiles = histogram.percentiles (0.5, 0.99, 1.0);
+        assertEquals (1000L, histogram.getCount ());
+        assertEquals (1_000_000L, histogram.getMax ());
+        assertTrue (Math.abs (percentiles[0] - 500_000L) <= 500_000L / 8, "p50=" + percentiles[0]);
+        assertTrue (Math.abs (percentiles[1] - 990_000L) <= 990_000L / 8, "p99=" + percentiles[1]);
+        assertEquals (1_000_000L, percentiles[2]);
+    }
+}
@@ -0,0 +1,93 @@
+package mybatis.parsing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * 类名称: PropertyResolverTest
+ * 功能描述: ${key:default}、嵌套，以及不涉及这两者的文本和原来基于GenericTokenParser的PropertyParser结果一致
+ * 日期:  2026/10/19 06:10
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class PropertyResolverTest {
+
+    private static Properties properties(String... pairs) {
+        Properties properties = new Properties ();
+        for (int i = 0; i < pairs.length; i += 2) {
+            properties.setProperty (pairs[i], pairs[i + 1]);
+        }
+        return properties;
+    }
+
+    // 原来的PropertyParser.parse
+    private static String baseline(String text, Properties variables) {
+        return new GenericTokenParser ("${", "}", content -> variables.containsKey (content)
+                ? variables.getProperty (content) : "${" + content + "}").parse (text);
+    }
+
+    @Test
+    public void resolvesDefaults() {
+        Properties variables = properties ("host", "db1", "port:5432", "literal");
+        assertEquals ("db1:3306", PropertyParser.parse ("${host:localhost}:${port:3306}", properties ("host", "db1")));
+        assertEquals ("localhost", PropertyParser.parse ("${missing:localhost}", variables));
+        assertEquals ("", PropertyParser.parse ("${missing:}", variables));
+        // 整个"key:default"作为key存在时优先使用
+        assertEquals ("literal", PropertyParser.parse ("${port:5432}", variables));
+        // 冒号开头不是默认值
+        assertEquals ("${:x}", PropertyParser.parse ("${:x}", variables));
+    }
+
+    @Test
+    public void resolvesNestedPlaceholders() {
+        Properties variables = properties ("env", "prod", "db.prod.url", "jdbc:h2:mem:prod", "fallback", "f");
+        assertEquals ("jdbc:h2:mem:prod", PropertyParser.parse ("${db.${env}.url}", variables));
+        assertEquals ("f", PropertyParser.parse ("${missing:${fallback}}", variables));
+        assertEquals ("prod", PropertyParser.parse ("${missing:${env:dev}}", variables));
+        // 外层找不到时保留原文，不是解析过里层的key
+        assertEquals ("${db.${env}.user}", PropertyParser.parse ("${db.${env}.user}", variables));
+        assertEquals ("x ${a ${env}", PropertyParser.parse ("x ${a ${env}", variables));
+    }
+
+    @Test
+    public void keepsEscapedTokensInsideUnresolvedPlaceholders() {
+        Properties variables = properties ("a", "x");
+        assertEquals ("${\\${}", PropertyParser.parse ("${\\${}", variables));
+        assertEquals ("${a\\${b}}", PropertyParser.parse ("${a\\${b}}", variables));
+        assertEquals ("${a} x", PropertyParser.parse ("\\${a} ${a}", variables));
+    }
+
+    @Test
+    public void cachesResolvedText() {
+        PropertyResolver resolver = PropertyResolver.of (properties ("a", "x"));
+        String text = "select ${a}";
+        assertEquals ("select x", resolver.resolve (text));
+        assertSame (resolver.resolve (text), resolver.resolve (text));
+        String plain = "select 1";
+        assertSame (plain, resolver.resolve (plain));
+    }
+
+    // 没有冒号，变量的值也不是key时，嵌套和默认值都不会生效，结果应当和原来完全一样
+    @Test
+    public void matchesTheBaselineParserWithoutDefaultsOrNesting() {
+        Properties variables = properties ("a", "x", "b", "y", "", "empty");
+        char[] alphabet = {'$', '{', '}', '\\', 'a', 'b', ' '};
+        Random random = new Random (20261019L);
+        StringBuilder text = new StringBuilder ();
+        for (int n = 0; n < 300_000; n++) {
+            text.setLength (0);
+            int length = random.nextInt (14);
+            for (int i = 0; i < length; i++) {
+                text.append (alphabet[random.nextInt (alphabet.length)]);
+            }
+            String input = text.toString ();
+            assertEquals (baseline (input, variables), PropertyParser.parse (input, variables), input);
+        }
+    }
+}
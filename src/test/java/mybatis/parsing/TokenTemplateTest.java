@@ -0,0 +1,88 @@
+package mybatis.parsing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 类名称: TokenTemplateTest
+ * 功能描述: 预编译的模板渲染结果和GenericTokenParser.parse一致；同时识别${}和#{}；转义和没有结束记号的处理
+ * 日期:  2026/10/19 06:30
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class TokenTemplateTest {
+
+    private static final TokenTemplate.TokenKind DOLLAR = new TokenTemplate.TokenKind ("${", "}");
+
+    private static final TokenTemplate.TokenKind HASH = new TokenTemplate.TokenKind ("#{", "}");
+
+    private static final TokenHandler BRACKETS = content -> "<" + content + ">";
+
+    @Test
+    public void matchesGenericTokenParserOnRandomText() {
+        GenericTokenParser parser = new GenericTokenParser ("${", "}", BRACKETS);
+        char[] alphabet = "ab${}\\# {".toCharArray ();
+        Random random = new Random (20261019L);
+        StringBuilder text = new StringBuilder ();
+        for (int n = 0; n < 200_000; n++) {
+            text.setLength (0);
+            int length = random.nextInt (16);
+            for (int i = 0; i < length; i++) {
+                text.append (alphabet[random.nextInt (alphabet.length)]);
+            }
+            String input = text.toString ();
+            assertEquals (parser.parse (input), parser.compile (input).render (BRACKETS), input);
+        }
+    }
+
+    @Test
+    public void rendersSeveralTokenKindsInOnePass() throws Exception {
+        TokenTemplate template = TokenTemplate.compile ("select ${cols} from ${table} where id = #{id} and name = #{name}", DOLLAR, HASH);
+        assertEquals (8, template.getSegmentCount ());
+        assertFalse (template.isStatic ());
+        assertEquals ("select <cols> from <table> where id = ? and name = ?",
+                template.render (BRACKETS, content -> "?"));
+
+        StringBuilder out = new StringBuilder ();
+        template.render (out, (kind, content, appendable) -> appendable.append (kind == 0 ? content.toUpperCase () : ":" + content));
+        assertEquals ("select COLS from TABLE where id = :id and name = :name", out.toString ());
+
+        assertThrows (IllegalArgumentException.class, () -> template.render (BRACKETS));
+    }
+
+    @Test
+    public void earliestOpeningTokenWins() {
+        // #{在${之前，${a}是#{}内容的一部分
+        TokenTemplate template = TokenTemplate.compile ("#{x ${a}} ${b}", DOLLAR, HASH);
+        assertEquals ("[x ${a]} <b>", template.render (BRACKETS, content -> "[" + content + "]"));
+    }
+
+    @Test
+    public void keepsEscapedAndUnclosedTokensAsLiterals() {
+        TokenTemplate escaped = TokenTemplate.compile ("\\${a} \\#{b} #{c}", DOLLAR, HASH);
+        assertEquals ("${a} #{b} [c]", escaped.render (BRACKETS, content -> "[" + content + "]"));
+
+        // 没有结束记号，从开始记号起原样输出
+        TokenTemplate unclosed = TokenTemplate.compile ("a #{b} ${c", DOLLAR, HASH);
+        assertEquals ("a [b] ${c", unclosed.render (BRACKETS, content -> "[" + content + "]"));
+        assertEquals (new GenericTokenParser ("${", "}", BRACKETS).parse ("a ${c"),
+                TokenTemplate.compile ("a ${c", DOLLAR).render (BRACKETS));
+    }
+
+    @Test
+    public void returnsStaticTextUnchanged() {
+        String text = "select 1 from dual";
+        TokenTemplate template = TokenTemplate.compile (text, DOLLAR, HASH);
+        assertTrue (template.isStatic ());
+        assertSame (text, template.render (BRACKETS, BRACKETS));
+        assertEquals ("", TokenTemplate.compile (null, DOLLAR).render (BRACKETS));
+    }
+}
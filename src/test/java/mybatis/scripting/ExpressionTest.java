@@ -0,0 +1,106 @@
+package mybatis.scripting;
+
+import mybatis.bingding.BindingException;
+import mybatis.bingding.BuilderException;
+import mybatis.bingding.User;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 类名称: ExpressionTest
+ * 功能描述: test表达式的运算符、优先级、字面量、属性路径和size()，以及构建时报告的语法错误
+ * 日期:  2026/10/19 07:20
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class ExpressionTest {
+
+    // 参数依次命名为a、b、c...
+    private static boolean test(String expression, Object... args) {
+        Map<String, Integer> names = new HashMap<> ();
+        for (int i = 0; i < args.length; i++) {
+            names.put (String.valueOf ((char) ('a' + i)), i);
+        }
+        DynamicContext context = DynamicContext.acquire (args, new ParameterBindings (names, null, false), 0);
+        try {
+            return Expression.compile (expression).test (context);
+        } finally {
+            context.release ();
+        }
+    }
+
+    @Test
+    public void comparesNumbersStringsAndEnums() {
+        assertTrue (test ("a == 1", 1));
+        assertTrue (test ("a == 1", 1L));
+        assertTrue (test ("a eq 1.0", new BigDecimal ("1.00")));
+        assertTrue (test ("a != null", "x"));
+        assertTrue (test ("a == null", (Object) null));
+        assertTrue (test ("a < b", 1, 2.5));
+        assertTrue (test ("a gte 'abc'", "abd"));
+        assertTrue (test ("a == 'RED'", User.Color.RED));
+        assertTrue (test ("a == 'x'", 'x'));
+        assertTrue (test ("a > -1", 0));
+        // null参与大小比较时为false
+        assertFalse (test ("a < 1", (Object) null));
+        assertThrows (BindingException.class, () -> test ("a < b", "x", 1));
+    }
+
+    @Test
+    public void appliesBooleanOperatorsWithPrecedence() {
+        // and先于or
+        assertTrue (test ("a or b and c", true, false, false));
+        assertFalse (test ("(a or b) and c", true, false, false));
+        assertTrue (test ("!a && b || c", false, true, false));
+        assertTrue (test ("not a == 2", 1));
+        // 和OGNL一致：数字非0、非null的对象为true
+        assertTrue (test ("a", 3));
+        assertFalse (test ("a", 0));
+        assertTrue (test ("a", "text"));
+        assertFalse (test ("a", (Object) null));
+        // order、android中的or、and不是关键字
+        assertTrue (test ("a.order == 1 and b", Collections.singletonMap ("order", 1), true));
+    }
+
+    @Test
+    public void readsPropertiesAndSizes() {
+        User user = new User ();
+        user.setName ("ann");
+        user.setColor (User.Color.BLUE);
+        assertTrue (test ("a.name == 'ann' and a.color == 'BLUE'", user));
+        assertTrue (test ("a.size() == 3", Arrays.asList (1, 2, 3)));
+        assertTrue (test ("a.isEmpty()", Collections.emptyMap ()));
+        assertTrue (test ("a.length() == 2", "ab"));
+        assertTrue (test ("a.size() == 2", (Object) new int[2]));
+        // 目标为null时size()为null
+        assertTrue (test ("a.size() == null", (Object) null));
+        assertThrows (BindingException.class, () -> test ("a.size() > 0", 1));
+    }
+
+    @Test
+    public void reportsSyntaxErrorsAtBuildTime() {
+        assertError ("Unterminated string literal", "name == 'abc");
+        assertError ("Missing ')'", "(a or b");
+        assertError ("Unexpected end of expression", "a ==");
+        assertError ("Unsupported method 'trim()'", "a.trim() == 'x'");
+        assertError ("Unexpected 'b c'", "a b c");
+        assertError ("Empty expression", "  ");
+    }
+
+    private static void assertError(String message, String expression) {
+        BuilderException e = assertThrows (BuilderException.class, () -> Expression.compile (expression));
+        assertTrue (e.getMessage ().startsWith (message), e.getMessage ());
+        assertTrue (e.getMessage ().contains ("'" + expression + "'"), e.getMessage ());
+    }
+}
@@ -0,0 +1,241 @@
+package mybatis.scripting;
+
+import mybatis.bingding.BindingException;
+import mybatis.bingding.BuilderException;
+import mybatis.executor.parameter.BoundParameters;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 类名称: ScriptBuilderTest
+ * 功能描述: 按事件构建DynamicSqlSource，渲染<where>、<set>、<trim>、<foreach>、<choose>，重放构建事件，以及不合法的元素嵌套
+ * 日期:  2026/10/19 07:20
+ *
+ * @author: renpengfei
+ * @since: JDK1.8
+ */
+public class ScriptBuilderTest {
+
+    private static Properties attributes(String... pairs) {
+        Properties attributes = new Properties ();
+        for (int i = 0; i < pairs.length; i += 2) {
+            attributes.setProperty (pairs[i], pairs[i + 1]);
+        }
+        return attributes;
+    }
+
+    // @Param ("name") String name, @Param ("ids") List<Integer> ids
+    private static final ParameterBindings NAME_AND_IDS = bindings ("name", "ids");
+
+    private static ParameterBindings bindings(String... names) {
+        Map<String, Integer> indexes = new HashMap<> ();
+        for (int i = 0; i < names.length; i++) {
+            indexes.put (names[i], i);
+        }
+        return new ParameterBindings (indexes, null, false);
+    }
+
+    // select * from users <where><if test="name != null">and name = #{name}</if>
+    // <if test="ids != null">and id in <foreach ...>#{id}</foreach></if></where>
+    private static DynamicSqlSource whereNameAndIds() {
+        ScriptBuilder script = new ScriptBuilder ();
+        script.text ("select * from users");
+        script.startElement ("where", attributes ());
+        script.startElement ("if", attributes ("test", "name != null"));
+        script.text ("\n  and name = #{name}");
+        script.endElement ();
+        script.startElement ("if", attributes ("test", "ids != null"));
+        script.text (" AND id in");
+        script.startElement ("foreach", attributes ("collection", "ids", "item", "id", "open", "(", "separator", ",", "close", ")"));
+        script.text ("#{id}");
+        script.endElement ();
+        script.endElement ();
+        script.endElement ();
+        script.text ("order by id");
+        assertTrue (script.isDynamic ());
+        return script.build ();
+    }
+
+    @Test
+    public void rendersWhereIfAndForeach() {
+        DynamicSqlSource source = whereNameAndIds ();
+        BoundParameters all = source.bind (new Object[]{"ann", Arrays.asList (1, 2)}, NAME_AND_IDS, 0);
+        assertEquals ("select * from users WHERE name = ? AND id in(?,?) order by id", all.getSql ());
+        assertEquals (3, all.size ());
+        assertEquals ("ann", all.getValue (0));
+        assertEquals (2, all.getValue (2));
+
+        BoundParameters idsOnly = source.bind (new Object[]{null, Collections.singletonList (7)}, NAME_AND_IDS, 0);
+        assertEquals ("select * from users WHERE id in(?) order by id", idsOnly.getSql ());
+
+        // 内容为空时不输出WHERE；集合为空时不输出open、close
+        assertFalse (source.bind (new Object[]{null, null}, NAME_AND_IDS, 0).getSql ().contains ("WHERE"));
+        assertEquals ("select * from users WHERE id in order by id",
+                source.bind (new Object[]{null, Collections.emptyList ()}, NAME_AND_IDS, 0).getSql ());
+    }
+
+    @Test
+    public void rendersSetAndTrim() {
+        ScriptBuilder script = new ScriptBuilder ();
+        script.text ("update users");
+        script.startElement ("set", attributes ());
+        script.startElement ("if", attributes ("test", "name != null"));
+        script.text ("name = #{name}, ");
+        script.endElement ();
+        script.startElement ("if", attributes ("test", "ids != null"));
+        script.text ("color = 'RED',");
+        script.endElement ();
+        script.endElement ();
+        script.startElement ("trim", attributes ("prefix", "where", "prefixOverrides", "AND |OR "));
+        script.text ("or id = 1");
+        script.endElement ();
+        DynamicSqlSource source = script.build ();
+        assertEquals ("update users SET name = ?, color = 'RED'  where id = 1 ",
+                source.bind (new Object[]{"bob", Collections.emptyList ()}, NAME_AND_IDS, 0).getSql ());
+        assertEquals ("update users SET name = ?  where id = 1 ",
+                source.bind (new Object[]{"bob", null}, NAME_AND_IDS, 0).getSql ());
+    }
+
+    @Test
+    public void rendersFirstMatchingWhenOrOtherwise() {
+        ScriptBuilder script = new ScriptBuilder ();
+        script.text ("order by ");
+        script.startElement ("choose", attributes ());
+        script.text ("\n    ");
+        script.startElement ("when", attributes ("test", "name == 'name'"));
+        script.text ("name");
+        script.endElement ();
+        script.startElement ("when", attributes ("test", "name != null"));
+        script.text ("color");
+        script.endElement ();
+        script.startElement ("otherwise", attributes ());
+        script.text ("id");
+        script.endElement ();
+        script.endElement ();
+        DynamicSqlSource source = script.build ();
+        assertEquals ("order by name", source.bind (new Object[]{"name", null}, NAME_AND_IDS, 0).getSql ());
+        assertEquals ("order by color", source.bind (new Object[]{"color", null}, NAME_AND_IDS, 0).getSql ());
+        assertEquals ("order by id", source.bind (new Object[]{null, null}, NAME_AND_IDS, 0).getSql ());
+    }
+
+    @Test
+    public void bindsEveryElementOfALargeForeach() {
+        List<Integer> ids = new ArrayList<> ();
+        for (int i = 0; i < 20_000; i++) {
+            ids.add (i);
+        }
+        DynamicSqlSource source = whereNameAndIds ();
+        BoundParameters parameters = source.bind (new Object[]{null, ids}, NAME_AND_IDS, 0);
+        assertEquals (20_000, parameters.size ());
+        assertEquals (19_999, parameters.getValue (19_999));
+        String sql = parameters.getSql ();
+        assertTrue (sql.startsWith ("select * from users WHERE id in(?,?,"), sql.substring (0, 40));
+        assertTrue (sql.endsWith (",?) order by id"));
+        // 渲染之后复用的缓冲区不残留上一次的内容
+        assertEquals ("select * from users WHERE name = ? order by id",
+                source.bind (new Object[]{"ann", null}, NAME_AND_IDS, 0).getSql ());
+    }
+
+    @Test
+    public void foreachExposesIndexAndRestoresShadowedNames() {
+        // item和参数同名时，<foreach>内部使用item，结束后恢复参数
+        ScriptBuilder script = new ScriptBuilder ();
+        script.startElement ("foreach", attributes ("collection", "ids", "item", "name", "index", "i", "separator", " or "));
+        script.text ("(pos = #{i} and id = #{name})");
+        script.endElement ();
+        script.text (" and name = #{name}");
+        BoundParameters parameters = script.build ().bind (new Object[]{"ann", Arrays.asList (5, 6)}, NAME_AND_IDS, 0);
+        assertEquals ("(pos = ? and id = ?) or (pos = ? and id = ?) and name = ?", parameters.getSql ());
+        assertEquals (Arrays.asList (0, 5, 1, 6, "ann"), Arrays.asList (parameters.getValue (0), parameters.getValue (1),
+                parameters.getValue (2), parameters.getValue (3), parameters.getValue (4)));
+
+        assertThrows (BindingException.class, () -> script.build ().bind (new Object[]{"ann", null}, NAME_AND_IDS, 0));
+        assertThrows (BindingException.class, () -> script.build ().bind (new Object[]{"ann", 1}, NAME_AND_IDS, 0));
+    }
+
+    @Test
+    public void keepsTextOfStaticStatements() {
+        ScriptBuilder script = new ScriptBuilder ();
+        // 注释把文本拆成了两段
+        script.text ("select count(*) ");
+        script.text ("from users where id = #{id}");
+        assertFalse (script.isDynamic ());
+        assertEquals ("select count(*) from users where id = #{id}", script.getText ());
+        assertNull (new ScriptBuilder ().getText ());
+    }
+
+    @Test
+    public void replaysTheEventsItWasBuiltFrom() {
+        DynamicSqlSource source = whereNameAndIds ();
+        ScriptBuilder copy = new ScriptBuilder ();
+        source.replay (copy);
+        Object[] args = {"ann", Arrays.asList (1, 2, 3)};
+        assertEquals (source.bind (args, NAME_AND_IDS, 0), copy.build ().bind (args, NAME_AND_IDS, 0));
+    }
+
+    @Test
+    public void rejectsInvalidElements() {
+        assertBuildError ("Unknown element <bind>", script -> {
+            script.startElement ("bind", attributes ("name", "x"));
+            script.endElement ();
+        });
+        assertBuildError ("<when> must be inside <choose>", script -> {
+            script.startElement ("when", attributes ("test", "true"));
+            script.endElement ();
+        });
+        assertBuildError ("<choose> can only contain <when> and <otherwise>", script -> {
+            script.startElement ("choose", attributes ());
+            script.text ("id = 1");
+            script.endElement ();
+        });
+        assertBuildError ("<when> must come before <otherwise>", script -> {
+            script.startElement ("choose", attributes ());
+            script.startElement ("otherwise", attributes ());
+            script.endElement ();
+            script.startElement ("when", attributes ("test", "true"));
+            script.endElement ();
+            script.endElement ();
+        });
+        assertBuildError ("<if> requires a test attribute", script -> {
+            script.startElement ("if", attributes ());
+            script.endElement ();
+        });
+        assertBuildError ("<foreach> requires a collection attribute", script -> {
+            script.startElement ("foreach", attributes ("item", "id"));
+            script.endElement ();
+        });
+        assertBuildError ("Unterminated string literal", script -> {
+            script.startElement ("if", attributes ("test", "name == 'ann"));
+            script.endElement ();
+        });
+        assertBuildError ("Element <where> is not closed", script -> script.startElement ("where", attributes ()));
+        assertBuildError ("Unbalanced end of element", ScriptBuilder::endElement);
+    }
+
+    private interface Events {
+
+        void send(ScriptBuilder script);
+    }
+
+    private static void assertBuildError(String message, Events events) {
+        BuilderException e = assertThrows (BuilderException.class, () -> {
+            ScriptBuilder script = new ScriptBuilder ();
+            events.send (script);
+            script.build ();
+        });
+        assertTrue (e.getMessage ().startsWith (message), e.getMessage ());
+    }
+}